@@ -0,0 +1,94 @@
+package com.example.simple_spring_rest_api.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import jakarta.servlet.Filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.example.simple_spring_rest_api.SimpleSpringRestApiApplication;
+import com.example.simple_spring_rest_api.support.BenchmarkDatabase;
+
+/**
+ * ArticleController のエンドツーエンド（セキュリティフィルター → Controller → Service → Repository → JSON）の
+ * スループットを MockMvc で計測するベンチマーク
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ArticleControllerBenchmark {
+
+    @Param({ "1000" })
+    public int rows;
+
+    @Param({ "1000" })
+    public int contentLength;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // application.properties より優先させるため、既定のプロパティではなくコマンドライン引数として渡す
+        context = new SpringApplicationBuilder(SimpleSpringRestApiApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + BenchmarkDatabase.jdbcUrl("controller_" + rows + "_" + contentLength),
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        // data.sql はMySQL固有の構文を含むため使わず、ベンチマーク側でデータを投入する
+                        "--spring.sql.init.data-locations=optional:classpath:benchmark-none.sql",
+                        // ベンチマークのクライアントは1つのため、受付制御は無効にする
+                        "--admission.rate-limit.enabled=false",
+                        "--admission.concurrency.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.jdbc=WARN");
+        BenchmarkDatabase.seed(context.getBean(DataSource.class), rows, contentLength);
+
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getArticleById() throws Exception {
+        long id = ThreadLocalRandom.current().nextLong(1, rows + 1);
+        return mockMvc.perform(get("/api/articles/{id}", id)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getArticlePage() throws Exception {
+        return mockMvc.perform(get("/api/articles").param("limit", "20")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getArticlePageFull() throws Exception {
+        return mockMvc.perform(get("/api/articles").param("limit", "20").param("view", "full")).andReturn();
+    }
+}
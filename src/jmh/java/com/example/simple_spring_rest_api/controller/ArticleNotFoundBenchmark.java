@@ -0,0 +1,139 @@
+package com.example.simple_spring_rest_api.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.simple_spring_rest_api.SimpleSpringRestApiApplication;
+import com.example.simple_spring_rest_api.cache.SerializedArticle;
+import com.example.simple_spring_rest_api.service.ArticleService;
+import com.example.simple_spring_rest_api.support.BenchmarkDatabase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 存在しない記事への GET /api/articles/{id}（404）のスループットを比較するベンチマーク
+ *
+ * <ul>
+ * <li>typedResult: 現在の実装。Service から Optional.empty() を受け取り、例外を使わずに 404 を返す</li>
+ * <li>exceptionWithStackTrace: 以前の実装。記事がなければ RuntimeException を投げ、Controllerで捕まえて 404 を返す</li>
+ * </ul>
+ * 存在しないIDは記事キャッシュに「存在しない」として保持されるため、どちらもDBへは問い合わせず、差は例外の生成コストになる。
+ * 同じ条件で比較するため、どちらもセキュリティフィルターを通さない MockMvc で実行する
+ * （実際のリクエストはTomcat・フィルターの分だけスタックが深く、例外の生成コストはこれより大きい）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ArticleNotFoundBenchmark {
+
+    // 存在しないIDの範囲（記事キャッシュの存在しない結果として保持できる件数にする）
+    private static final int MISSING_IDS = 1000;
+
+    @Param({ "1000" })
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // application.properties より優先させるため、既定のプロパティではなくコマンドライン引数として渡す
+        context = new SpringApplicationBuilder(SimpleSpringRestApiApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + BenchmarkDatabase.jdbcUrl("not_found_" + rows),
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        // data.sql はMySQL固有の構文を含むため使わず、ベンチマーク側でデータを投入する
+                        "--spring.sql.init.data-locations=optional:classpath:benchmark-none.sql",
+                        // 計測中に「存在しない」結果がキャッシュから消えないようにする
+                        "--article.cache.negative-ttl=1h",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.jdbc=WARN");
+        BenchmarkDatabase.seed(context.getBean(DataSource.class), rows, 1000);
+
+        ArticleService articleService = context.getBean(ArticleService.class);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new ArticleController(articleService, context.getBean(ObjectMapper.class),
+                        context.getBean(MappingJackson2CborHttpMessageConverter.class),
+                        context.getBean(MappingJackson2SmileHttpMessageConverter.class)),
+                        new ExceptionArticleController(articleService))
+                .setControllerAdvice(new ArticleExceptionHandler())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult typedResult() throws Exception {
+        return mockMvc.perform(get("/api/articles/{id}", missingId())).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult exceptionWithStackTrace() throws Exception {
+        return mockMvc.perform(get("/exception/articles/{id}", missingId())).andReturn();
+    }
+
+    private long missingId() {
+        return rows + 1 + ThreadLocalRandom.current().nextLong(MISSING_IDS);
+    }
+
+    /**
+     * 以前の実装と同じく、記事が見つからないことを RuntimeException で伝える Controller
+     * （static でない内部クラスにして、アプリケーションのコンポーネントスキャンの対象にしない）
+     */
+    @RestController
+    @RequestMapping("/exception/articles")
+    public class ExceptionArticleController {
+
+        private final ArticleService articleService;
+
+        public ExceptionArticleController(ArticleService articleService) {
+            this.articleService = articleService;
+        }
+
+        @GetMapping("/{id}")
+        public ResponseEntity<byte[]> getArticleById(@PathVariable Long id) {
+            try {
+                SerializedArticle article = articleService.findSerializedArticleById(id)
+                        .orElseThrow(() -> new RuntimeException("記事が見つかりません。ID: " + id));
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(article.getJson());
+            } catch (RuntimeException e) {
+                return ResponseEntity.notFound().build();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.simple_spring_rest_api.controller;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.support.BenchmarkDatabase;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Article のリストをJSONにシリアライズするコストのベンチマーク
+ * ObjectMapper は Spring Boot と同じ既定値（日時は文字列）で作成する
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ArticleSerializationBenchmark {
+
+    @Param({ "1", "20", "100" })
+    public int listSize;
+
+    @Param({ "100", "10000", "100000" })
+    public int contentLength;
+
+    private ObjectMapper objectMapper;
+    private List<Article> articles;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        String content = BenchmarkDatabase.content(contentLength);
+        LocalDateTime now = LocalDateTime.now();
+        articles = new ArrayList<>(listSize);
+        for (long id = 1; id <= listSize; id++) {
+            articles.add(new Article(id, "ベンチマーク記事 " + id, content, now, now));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(articles);
+    }
+}
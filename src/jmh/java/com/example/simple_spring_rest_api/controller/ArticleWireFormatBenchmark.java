@@ -0,0 +1,122 @@
+package com.example.simple_spring_rest_api.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * 記事一覧を JSON / CBOR / Smile で書き出す・読み込むコストと本文のサイズを比較するベンチマーク
+ * ObjectMapper は Spring Boot と同じ既定値（日時は文字列）で作成する
+ * <ul>
+ * <li>serialize / deserialize: 形式ごとの書き出し・読み込みのコスト</li>
+ * <li>serializeGzip: 書き出してからレスポンスの圧縮（gzip）までのコスト</li>
+ * </ul>
+ * 本文のサイズ（圧縮なし・gzip）は試行の開始時に標準出力へ出力する。
+ * 本文は同じ文を繰り返すと gzip の圧縮率が実際より高くなるため、いくつかの文を乱数（固定のシード）で並べて作成する。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ArticleWireFormatBenchmark {
+
+    private static final String[] SENTENCES = {
+            "Spring Bootと生JDBCでREST APIを実装する。",
+            "接続プールの最大サイズは、DBのCPUコア数を目安に決める。",
+            "キャッシュの有効期限が切れた直後は、同じ記事への問い合わせが集中しやすい。",
+            "The p99 latency stayed below 50 ms at 2,000 requests per second. ",
+            "インデックスを追加する前に、実行計画で全件走査になっていないかを確認する。",
+            "GC pauses were dominated by young collections under the default G1 settings. ",
+            "一覧では本文を返さず、先頭の140文字だけをティーザーとして返す。",
+            "\n\n",
+    };
+
+    @Param({ "json", "cbor", "smile" })
+    public String format;
+
+    @Param({ "20" })
+    public int listSize;
+
+    @Param({ "1000", "10000" })
+    public int contentLength;
+
+    private ObjectMapper objectMapper;
+    private ObjectReader listReader;
+    private List<Article> articles;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            default -> Jackson2ObjectMapperBuilder.json();
+        };
+        objectMapper = builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        listReader = objectMapper.readerFor(new TypeReference<List<Article>>() { });
+
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        articles = new ArrayList<>(listSize);
+        for (long id = 1; id <= listSize; id++) {
+            articles.add(new Article(id, "ベンチマーク記事 " + id, content(random, contentLength), now, now));
+        }
+
+        serialized = serialize();
+        System.out.printf("%n[%s] listSize=%d, contentLength=%d: %d bytes (gzip: %d bytes)%n",
+                format, listSize, contentLength, serialized.length, gzip(serialized).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(articles);
+    }
+
+    @Benchmark
+    public List<Article> deserialize() throws IOException {
+        return listReader.readValue(serialized);
+    }
+
+    @Benchmark
+    public byte[] serializeGzip() throws IOException {
+        return gzip(serialize());
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static String content(Random random, int length) {
+        StringBuilder builder = new StringBuilder(length + 64);
+        while (builder.length() < length) {
+            builder.append(SENTENCES[random.nextInt(SENTENCES.length)]);
+        }
+        builder.setLength(length);
+        return builder.toString();
+    }
+}
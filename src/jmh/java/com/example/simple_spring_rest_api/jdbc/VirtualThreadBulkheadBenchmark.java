@@ -0,0 +1,139 @@
+package com.example.simple_spring_rest_api.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.example.simple_spring_rest_api.support.BenchmarkDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * プラットフォームスレッド（Tomcatの既定の200スレッド）と仮想スレッドの負荷比較
+ *
+ * 1回の操作で requests 件のリクエストを同時に受け付け、すべて完了するまでの時間を計測する。
+ * 1件のリクエストは「接続を使わないI/O待ち (ioLatencyMs)」と
+ * 「接続を保持したままのDB待ち (dbLatencyMs)」で構成する。
+ * poolTimeouts は接続の取得がタイムアウトして失敗したリクエスト数。
+ *
+ * <ul>
+ * <li>platform: スレッド数が上限となり、I/O待ちの間もスレッドを占有する</li>
+ * <li>virtual: I/O待ちは重なるが、全スレッドが接続プールに殺到して取得タイムアウトが多発する</li>
+ * <li>virtual-bulkhead: セマフォで接続プールに到達するスレッド数を制限し、タイムアウトなしで完了する</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VirtualThreadBulkheadBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+    private static final int ROWS = 1000;
+
+    @Param({ "platform", "virtual", "virtual-bulkhead" })
+    public String mode;
+
+    @Param({ "2000" })
+    public int requests;
+
+    @Param({ "20" })
+    public int ioLatencyMs;
+
+    @Param({ "5" })
+    public int dbLatencyMs;
+
+    private HikariDataSource pool;
+    private DataSource dataSource;
+    private ExecutorService executor;
+
+    /**
+     * 失敗したリクエスト数（JMHの結果に出力される）
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Failures {
+        public long poolTimeouts;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = BenchmarkDatabase.create("threads_" + mode);
+        BenchmarkDatabase.seed(pool, ROWS, 100);
+        // 接続の取得待ちはHikariの最小値で打ち切る（アプリの既定30秒では待ち行列が伸び続けるだけになる）
+        pool.setConnectionTimeout(250);
+
+        if (mode.equals("virtual-bulkhead")) {
+            dataSource = new BulkheadDataSource(pool, "benchmark", pool.getMaximumPoolSize(), Duration.ofSeconds(30),
+                    new SimpleMeterRegistry());
+        } else {
+            dataSource = pool;
+        }
+        executor = mode.equals("platform")
+                ? Executors.newFixedThreadPool(PLATFORM_THREADS)
+                : Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        pool.close();
+    }
+
+    @Benchmark
+    public int handleBurst(Failures failures) throws Exception {
+        List<Future<Boolean>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(this::handleRequest));
+        }
+        int succeeded = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get()) {
+                succeeded++;
+            } else {
+                failures.poolTimeouts++;
+            }
+        }
+        return succeeded;
+    }
+
+    private boolean handleRequest() throws Exception {
+        Thread.sleep(ioLatencyMs);
+        long id = ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT id FROM articles WHERE id = ?")) {
+            statement.setLong(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+            }
+            // ネットワーク越しのDBの応答待ちを模擬する（接続は保持したまま）
+            Thread.sleep(dbLatencyMs);
+            return true;
+        } catch (SQLTransientConnectionException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.simple_spring_rest_api.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.domain.ArticleSummary;
+import com.example.simple_spring_rest_api.support.BenchmarkDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * ArticleRepository の主要なクエリのベンチマーク（MySQLモードのH2を使用）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ArticleRepositoryBenchmark {
+
+    @Param({ "1000" })
+    public int rows;
+
+    @Param({ "100", "10000" })
+    public int contentLength;
+
+    private HikariDataSource dataSource;
+    private ArticleRepository repository;
+    private String content;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = BenchmarkDatabase.create("repository_" + rows + "_" + contentLength);
+        BenchmarkDatabase.seed(dataSource, rows, contentLength);
+        repository = new ArticleRepository(dataSource, 1000);
+        content = BenchmarkDatabase.content(contentLength);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Optional<Article> findById() {
+        long id = ThreadLocalRandom.current().nextLong(1, rows + 1);
+        return repository.findById(id);
+    }
+
+    @Benchmark
+    public List<Article> findAll() {
+        return repository.findAll();
+    }
+
+    @Benchmark
+    public List<Article> findPage() {
+        return repository.findPage(0, 20);
+    }
+
+    @Benchmark
+    public List<ArticleSummary> findSummaryPage() {
+        return repository.findSummaryPage(0, 20);
+    }
+
+    @Benchmark
+    public Article save() {
+        return repository.save(new Article("ベンチマーク記事", content));
+    }
+}
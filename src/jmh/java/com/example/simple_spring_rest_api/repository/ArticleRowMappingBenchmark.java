@@ -0,0 +1,89 @@
+package com.example.simple_spring_rest_api.repository;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.unit.DataSize;
+
+import com.example.simple_spring_rest_api.support.BenchmarkDatabase;
+
+/**
+ * ResultSet から Article へのマッピング（mapResultSetToArticle）だけを計測するベンチマーク
+ * DBアクセスの影響を除くため、メモリ上の ResultSet（H2の SimpleResultSet）を使用する
+ * compressed=true では本文を圧縮して content_compressed 列に入れる。
+ * mapRows は本文を参照しない読み込み（一覧の概要への変換など）、mapRowsAndReadContent は本文まで参照する読み込みのコストになる
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ArticleRowMappingBenchmark {
+
+    @Param({ "100" })
+    public int rows;
+
+    @Param({ "100", "10000" })
+    public int contentLength;
+
+    @Param({ "false", "true" })
+    public boolean compressed;
+
+    private ArticleRepository repository;
+    private SimpleResultSet resultSet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new ArticleRepository(null, 1000);
+
+        resultSet = new SimpleResultSet();
+        resultSet.setAutoClose(false);
+        resultSet.addColumn("id", Types.BIGINT, 19, 0);
+        resultSet.addColumn("title", Types.VARCHAR, 255, 0);
+        resultSet.addColumn("content", Types.CLOB, Integer.MAX_VALUE, 0);
+        resultSet.addColumn("content_compressed", Types.BLOB, Integer.MAX_VALUE, 0);
+        resultSet.addColumn("created_at", Types.TIMESTAMP, 26, 6);
+        resultSet.addColumn("updated_at", Types.TIMESTAMP, 26, 6);
+
+        String content = BenchmarkDatabase.content(contentLength);
+        byte[] compressedContent = compressed
+                ? new ArticleContentCodec(true, DataSize.ofBytes(0), 6).compress(content)
+                : null;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (long id = 1; id <= rows; id++) {
+            if (compressedContent != null) {
+                resultSet.addRow(id, "ベンチマーク記事 " + id, "", compressedContent, now, now);
+            } else {
+                resultSet.addRow(id, "ベンチマーク記事 " + id, content, null, now, now);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapRows(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            blackhole.consume(repository.mapResultSetToArticle(resultSet));
+        }
+    }
+
+    @Benchmark
+    public void mapRowsAndReadContent(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            blackhole.consume(repository.mapResultSetToArticle(resultSet).getContent());
+        }
+    }
+}
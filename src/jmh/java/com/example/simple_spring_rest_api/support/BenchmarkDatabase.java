@@ -0,0 +1,77 @@
+package com.example.simple_spring_rest_api.support;
+
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.repository.ArticleRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * ベンチマーク用の組み込みDB（MySQLモードのH2）
+ */
+public final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * 名前付きのインメモリH2 (MySQLモード) を作成し、schema.sql を適用する
+     * @param name DB名（ベンチマークごとに分ける）
+     * @return 接続プール
+     */
+    public static HikariDataSource create(String name) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(jdbcUrl(name));
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(16);
+        HikariDataSource dataSource = new HikariDataSource(config);
+
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        return dataSource;
+    }
+
+    /**
+     * インメモリH2 (MySQLモード) の接続URL
+     * @param name DB名
+     * @return JDBC URL
+     */
+    public static String jdbcUrl(String name) {
+        return "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    }
+
+    /**
+     * 記事を投入する
+     * @param dataSource 接続プール
+     * @param count 件数
+     * @param contentLength 本文の文字数
+     */
+    public static void seed(DataSource dataSource, int count, int contentLength) {
+        ArticleRepository repository = new ArticleRepository(dataSource, 1000);
+        String content = content(contentLength);
+        repository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> new Article("ベンチマーク記事 " + i, content))
+                .iterator(), 1000);
+    }
+
+    /**
+     * 指定した文字数の本文（日本語と英数字の混在）を作成
+     * @param length 文字数
+     * @return 本文
+     */
+    public static String content(int length) {
+        String unit = "Spring Bootと生JDBCでREST APIを実装する。";
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            builder.append(unit);
+        }
+        builder.setLength(length);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.simple_spring_rest_api.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * 1つの操作のレイテンシ（HDRヒストグラム）とステータスごとの件数を記録する
+ *
+ * 2種類のレイテンシを記録する。
+ * <ul>
+ * <li>corrected: 本来送信するはずだった時刻からの応答時間（Coordinated Omissionを補正したもの）</li>
+ * <li>service: 実際に送信した時刻からの応答時間（補正なし。比較用）</li>
+ * </ul>
+ * 送信が遅れた分（上限まで送信中のリクエストが溜まって待たされた時間など）は
+ * correctedにだけ含まれるため、両者の差が大きいほど負荷に追いつけていない。
+ */
+public class LatencyRecorder {
+
+    // 1マイクロ秒〜1時間を有効数字3桁で記録する
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Recorder corrected = new Recorder(1, HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Recorder service = new Recorder(1, HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Map<String, LongAdder> statusCounts = new ConcurrentHashMap<>();
+
+    /**
+     * 完了したリクエストを記録
+     * @param intendedStartNanos 本来送信するはずだった時刻 (System.nanoTime)
+     * @param actualStartNanos 実際に送信した時刻
+     * @param endNanos 応答を受け取った時刻
+     * @param status HTTPステータス、または "error"（接続エラー・タイムアウト）
+     */
+    public void record(long intendedStartNanos, long actualStartNanos, long endNanos, String status) {
+        corrected.recordValue(toMicros(endNanos - intendedStartNanos));
+        service.recordValue(toMicros(endNanos - actualStartNanos));
+        statusCounts.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * 補正済みのレイテンシを取得（前回の取得以降の記録）
+     * @return ヒストグラム（単位はマイクロ秒）
+     */
+    public Histogram correctedHistogram() {
+        return corrected.getIntervalHistogram();
+    }
+
+    /**
+     * 補正なしのレイテンシを取得（前回の取得以降の記録）
+     * @return ヒストグラム（単位はマイクロ秒）
+     */
+    public Histogram serviceHistogram() {
+        return service.getIntervalHistogram();
+    }
+
+    /**
+     * ステータスごとの件数
+     * @return ステータスの昇順のマップ
+     */
+    public Map<String, Long> statusCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        statusCounts.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+}
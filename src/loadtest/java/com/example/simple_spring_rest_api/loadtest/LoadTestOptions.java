@@ -0,0 +1,121 @@
+package com.example.simple_spring_rest_api.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * 負荷試験の設定
+ * システムプロパティ loadtest.* から読み込む（Gradleの -Ploadtest.* がそのまま渡される）
+ *
+ * <ul>
+ * <li>loadtest.rate: 1秒あたりのリクエスト数（到着レート）</li>
+ * <li>loadtest.duration / loadtest.warmup: 計測時間と、計測前に捨てるウォームアップ時間</li>
+ * <li>loadtest.articles / loadtest.content-length: 事前に投入する記事の件数と本文の文字数</li>
+ * <li>loadtest.mix: 操作の比率（例: list=40,get=45,create=5,update=5,delete=5）</li>
+ * <li>loadtest.max-in-flight: 同時に送信中にできるリクエスト数の上限</li>
+ * <li>loadtest.app.*: アプリケーションの設定を上書きする（例: loadtest.app.spring.threads.virtual.enabled=true）</li>
+ * </ul>
+ */
+public class LoadTestOptions {
+
+    private static final String PREFIX = "loadtest.";
+    private static final String APP_PREFIX = PREFIX + "app.";
+
+    private final int rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int articles;
+    private final int contentLength;
+    private final OperationMix mix;
+    private final int maxInFlight;
+    private final Duration requestTimeout;
+    private final Path reportDirectory;
+    private final Map<String, String> appProperties;
+
+    public LoadTestOptions(Properties properties) {
+        this.rate = Integer.parseInt(properties.getProperty(PREFIX + "rate", "200"));
+        this.duration = DurationStyle.detectAndParse(properties.getProperty(PREFIX + "duration", "30s"));
+        this.warmup = DurationStyle.detectAndParse(properties.getProperty(PREFIX + "warmup", "10s"));
+        this.articles = Integer.parseInt(properties.getProperty(PREFIX + "articles", "10000"));
+        this.contentLength = Integer.parseInt(properties.getProperty(PREFIX + "content-length", "2000"));
+        this.mix = OperationMix.parse(properties.getProperty(PREFIX + "mix", "list=40,get=45,create=5,update=5,delete=5"));
+        this.maxInFlight = Integer.parseInt(properties.getProperty(PREFIX + "max-in-flight", "1000"));
+        this.requestTimeout = DurationStyle.detectAndParse(properties.getProperty(PREFIX + "request-timeout", "30s"));
+        this.reportDirectory = Path.of(properties.getProperty(PREFIX + "report-dir", "build/reports/loadtest"));
+
+        if (rate <= 0 || articles <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("loadtest.rate, loadtest.articles, loadtest.max-in-flight は1以上を指定してください");
+        }
+
+        Map<String, String> overrides = new LinkedHashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(APP_PREFIX)) {
+                overrides.put(name.substring(APP_PREFIX.length()), properties.getProperty(name));
+            }
+        }
+        this.appProperties = overrides;
+    }
+
+    /**
+     * レポートに出力する設定の一覧
+     * @return 設定名と値のマップ
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("rate", rate);
+        description.put("durationSeconds", duration.toSeconds());
+        description.put("warmupSeconds", warmup.toSeconds());
+        description.put("articles", articles);
+        description.put("contentLength", contentLength);
+        description.put("mix", mix.toString());
+        description.put("maxInFlight", maxInFlight);
+        description.put("appProperties", appProperties);
+        return description;
+    }
+
+    // ゲッターメソッド
+    public int getRate() {
+        return rate;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public int getArticles() {
+        return articles;
+    }
+
+    public int getContentLength() {
+        return contentLength;
+    }
+
+    public OperationMix getMix() {
+        return mix;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public Path getReportDirectory() {
+        return reportDirectory;
+    }
+
+    public Map<String, String> getAppProperties() {
+        return appProperties;
+    }
+}
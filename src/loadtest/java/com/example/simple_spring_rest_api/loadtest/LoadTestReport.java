@@ -0,0 +1,165 @@
+package com.example.simple_spring_rest_api.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+import com.example.simple_spring_rest_api.loadtest.OperationMix.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 負荷試験の結果（スループットとレイテンシのパーセンタイル）
+ * テキスト（人が読む用）とJSON（前回の結果との比較用）で出力する
+ */
+public class LoadTestReport {
+
+    private static final double[] PERCENTILES = { 50.0, 90.0, 99.0, 99.9, 99.99 };
+
+    private final Map<String, Object> content;
+
+    private LoadTestReport(Map<String, Object> content) {
+        this.content = content;
+    }
+
+    /**
+     * 計測結果からレポートを作成
+     * @param options 負荷試験の設定
+     * @param recorders 操作ごとの記録
+     * @param elapsedNanos 計測開始からすべての応答を受け取るまでの時間
+     * @param delayedSends 送信中のリクエストが上限に達して送信が遅れた回数
+     * @param drained 送信済みのリクエストがすべて完了したかどうか
+     * @return レポート
+     */
+    public static LoadTestReport create(LoadTestOptions options, Map<Operation, LatencyRecorder> recorders,
+            long elapsedNanos, long delayedSends, boolean drained) {
+        double elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        Histogram totalCorrected = null;
+        Histogram totalService = null;
+        Map<String, Object> operations = new LinkedHashMap<>();
+
+        for (Map.Entry<Operation, LatencyRecorder> entry : recorders.entrySet()) {
+            Histogram corrected = entry.getValue().correctedHistogram();
+            Histogram service = entry.getValue().serviceHistogram();
+            operations.put(entry.getKey().label(),
+                    summarize(corrected, service, entry.getValue().statusCounts(), elapsedSeconds));
+
+            totalCorrected = add(totalCorrected, corrected);
+            totalService = add(totalService, service);
+        }
+
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("timestamp", LocalDateTime.now().toString());
+        content.put("options", options.describe());
+        content.put("elapsedSeconds", round(elapsedSeconds));
+        content.put("delayedSends", delayedSends);
+        content.put("drained", drained);
+        content.put("total", summarize(totalCorrected, totalService, Map.of(), elapsedSeconds));
+        content.put("operations", operations);
+        return new LoadTestReport(content);
+    }
+
+    /**
+     * テキスト形式のレポートを作成
+     * @return レポート
+     */
+    @SuppressWarnings("unchecked")
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        Map<String, Object> options = (Map<String, Object>) content.get("options");
+        text.append("=== 負荷試験の結果 ===\n");
+        options.forEach((name, value) -> text.append(String.format("%-16s %s%n", name, value)));
+        text.append(String.format("%-16s %s%n", "elapsedSeconds", content.get("elapsedSeconds")));
+        text.append(String.format("%-16s %s%n", "delayedSends", content.get("delayedSends")));
+        if (!(Boolean) content.get("drained")) {
+            text.append("警告: タイムアウトまでに完了しなかったリクエストがあります\n");
+        }
+        text.append('\n');
+        text.append("レイテンシ(ms)は本来の送信時刻からの応答時間（Coordinated Omission補正済み）。service は実際の送信時刻から\n");
+        text.append(String.format("%-8s %8s %10s %9s %9s %9s %9s %9s %9s %12s  %s%n",
+                "op", "count", "req/s", "p50", "p90", "p99", "p99.9", "p99.99", "max", "service p99", "status"));
+
+        appendRow(text, "total", (Map<String, Object>) content.get("total"));
+        ((Map<String, Object>) content.get("operations"))
+                .forEach((operation, summary) -> appendRow(text, operation, (Map<String, Object>) summary));
+        return text.toString();
+    }
+
+    /**
+     * テキストとJSONのレポートをファイルに出力
+     * @param directory 出力先のディレクトリ
+     * @param objectMapper JSONの出力に使う ObjectMapper
+     * @throws IOException 書き込みに失敗した場合
+     */
+    public void write(Path directory, ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("report.txt"), toText(), StandardCharsets.UTF_8);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(directory.resolve("report.json").toFile(), content);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void appendRow(StringBuilder text, String name, Map<String, Object> summary) {
+        Map<String, Object> latency = (Map<String, Object>) summary.get("latencyMillis");
+        Map<String, Object> serviceLatency = (Map<String, Object>) summary.get("serviceLatencyMillis");
+        text.append(String.format("%-8s %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f %12.2f  %s%n",
+                name,
+                (Long) summary.get("count"),
+                (Double) summary.get("throughput"),
+                (Double) latency.get("p50"),
+                (Double) latency.get("p90"),
+                (Double) latency.get("p99"),
+                (Double) latency.get("p99.9"),
+                (Double) latency.get("p99.99"),
+                (Double) latency.get("max"),
+                (Double) serviceLatency.get("p99"),
+                summary.getOrDefault("status", "")));
+    }
+
+    private static Map<String, Object> summarize(Histogram corrected, Histogram service,
+            Map<String, Long> statusCounts, double elapsedSeconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long count = corrected == null ? 0 : corrected.getTotalCount();
+        summary.put("count", count);
+        summary.put("throughput", round(elapsedSeconds > 0 ? count / elapsedSeconds : 0));
+        if (!statusCounts.isEmpty()) {
+            summary.put("status", statusCounts);
+        }
+        summary.put("latencyMillis", percentiles(corrected));
+        summary.put("serviceLatencyMillis", percentiles(service));
+        return summary;
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        boolean empty = histogram == null || histogram.getTotalCount() == 0;
+        percentiles.put("mean", empty ? 0.0 : toMillis(histogram.getMean()));
+        for (double percentile : PERCENTILES) {
+            String name = "p" + (percentile == Math.floor(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile));
+            percentiles.put(name, empty ? 0.0 : toMillis(histogram.getValueAtPercentile(percentile)));
+        }
+        percentiles.put("max", empty ? 0.0 : toMillis(histogram.getMaxValue()));
+        return percentiles;
+    }
+
+    private static Histogram add(Histogram total, Histogram histogram) {
+        if (total == null) {
+            return histogram.copy();
+        }
+        total.add(histogram);
+        return total;
+    }
+
+    private static double toMillis(double micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.simple_spring_rest_api.loadtest;
+
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.simple_spring_rest_api.SimpleSpringRestApiApplication;
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.repository.ArticleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 負荷試験の実行: ./gradlew loadTest
+ *
+ * 組み込みH2 (MySQLモード) でアプリケーションを起動し、記事とユーザーを投入してから
+ * {@link OpenModelLoadGenerator} で一定の到着レートのリクエストを送信する。
+ * 結果は標準出力と build/reports/loadtest/report.txt, report.json に出力する。
+ */
+public class LoadTestRunner {
+
+    private static final String USERNAME = "loadtest";
+    private static final String PASSWORD = "password";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(System.getProperties());
+
+        try (ConfigurableApplicationContext context = start(options)) {
+            String content = content(options.getContentLength());
+            seedArticles(context.getBean(ArticleRepository.class), options.getArticles(), content);
+            seedUser(context.getBean(DataSource.class), context.getBean(PasswordEncoder.class));
+
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            OpenModelLoadGenerator generator = new OpenModelLoadGenerator(URI.create("http://localhost:" + port),
+                    options, objectMapper, USERNAME, PASSWORD, content);
+
+            LoadTestReport report = generator.run();
+            System.out.println(report.toText());
+            report.write(options.getReportDirectory(), objectMapper);
+            System.out.println("レポートを出力しました: " + options.getReportDirectory().toAbsolutePath());
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LoadTestOptions options) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.driverClassName", "org.h2.Driver");
+        // data.sql はMySQL固有の構文を含むため使わず、負荷試験側でデータを投入する
+        properties.put("spring.sql.init.data-locations", "optional:classpath:loadtest-none.sql");
+        properties.put("logging.level.root", "WARN");
+        // 負荷試験中のリクエストは上限を超えることがあるため例外にしない
+        properties.put("jdbc.tracing.fail-on-budget-exceeded", "false");
+        // 負荷試験のクライアントは1つのため、クライアントごとの流量制限は無効にする（全体の同時実行数の制限は有効）
+        properties.put("admission.rate-limit.enabled", "false");
+        properties.putAll(options.getAppProperties());
+
+        // application.properties より優先させるため、既定のプロパティではなくコマンドライン引数として渡す
+        // （-Ploadtest.app.* で指定した設定も application.properties の値を上書きする）
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(SimpleSpringRestApiApplication.class)
+                .run(args);
+    }
+
+    private static void seedArticles(ArticleRepository repository, int count, String content) {
+        repository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> new Article("負荷試験の記事 " + i, content))
+                .iterator(), 1000);
+    }
+
+    private static void seedUser(DataSource dataSource, PasswordEncoder passwordEncoder) throws SQLException {
+        String sql = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, USERNAME);
+            statement.setString(2, passwordEncoder.encode(PASSWORD));
+            statement.setString(3, "ROLE_USER");
+            statement.executeUpdate();
+        }
+    }
+
+    private static String content(int length) {
+        String unit = "Spring Bootと生JDBCでREST APIを実装する。";
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            builder.append(unit);
+        }
+        builder.setLength(length);
+        return builder.toString();
+    }
+}
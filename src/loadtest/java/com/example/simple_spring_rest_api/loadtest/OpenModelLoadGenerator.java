@@ -0,0 +1,189 @@
+package com.example.simple_spring_rest_api.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.example.simple_spring_rest_api.loadtest.OperationMix.Operation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * オープンモデル（一定の到着レート）で REST API にリクエストを送信する負荷生成器
+ *
+ * 前のリクエストの完了を待たずに、1/rate 秒ごとに次のリクエストを非同期で送信する。
+ * レイテンシは本来送信するはずだった時刻から計測するため、
+ * サーバーが詰まって送信が遅れた場合もその待ち時間が結果に含まれる（Coordinated Omissionの補正）。
+ */
+public class OpenModelLoadGenerator {
+
+    // 予定時刻までこの時間以上ある場合はparkし、それ未満はスピンして待つ
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final HttpClient httpClient;
+    private final URI articlesUri;
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper;
+    private final String authorization;
+    private final byte[] articleBody;
+    private final int seededArticles;
+
+    // 負荷試験中に作成した記事のID（削除の対象にする）
+    private final ConcurrentLinkedDeque<Long> createdIds = new ConcurrentLinkedDeque<>();
+
+    public OpenModelLoadGenerator(URI baseUri, LoadTestOptions options, ObjectMapper objectMapper,
+            String username, String password, String content) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.articlesUri = baseUri.resolve("/api/articles");
+        this.options = options;
+        this.objectMapper = objectMapper;
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        try {
+            this.articleBody = objectMapper.writeValueAsBytes(Map.of("title", "負荷試験の記事", "content", content));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("リクエスト本文の作成に失敗しました", e);
+        }
+        this.seededArticles = options.getArticles();
+    }
+
+    /**
+     * ウォームアップと計測を実行
+     * @return 計測結果
+     * @throws InterruptedException 実行中に割り込まれた場合
+     */
+    public LoadTestReport run() throws InterruptedException {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : options.getMix().operations()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+
+        double nanosPerRequest = TimeUnit.SECONDS.toNanos(1) / (double) options.getRate();
+        long start = System.nanoTime();
+        long measureStart = start + options.getWarmup().toNanos();
+        long end = measureStart + options.getDuration().toNanos();
+        Semaphore inFlight = new Semaphore(options.getMaxInFlight());
+        long delayedSends = 0;
+
+        for (long i = 0; ; i++) {
+            long intendedStart = start + (long) (i * nanosPerRequest);
+            if (intendedStart - end >= 0) {
+                break;
+            }
+            waitUntil(intendedStart);
+            // 送信中のリクエストが上限に達した場合は待つ。待った時間は補正済みのレイテンシに含まれる
+            if (!inFlight.tryAcquire()) {
+                delayedSends++;
+                inFlight.acquire();
+            }
+
+            Operation operation = options.getMix().next();
+            boolean measured = intendedStart - measureStart >= 0;
+            long actualStart = System.nanoTime();
+            send(operation).whenComplete((status, error) -> {
+                long now = System.nanoTime();
+                inFlight.release();
+                if (measured) {
+                    recorders.get(operation).record(intendedStart, actualStart, now, error == null ? status : "error");
+                }
+            });
+        }
+
+        // 送信済みのリクエストがすべて完了するまで待つ
+        long drainTimeoutNanos = options.getRequestTimeout().plusSeconds(5).toNanos();
+        boolean drained = inFlight.tryAcquire(options.getMaxInFlight(), drainTimeoutNanos, TimeUnit.NANOSECONDS);
+        long elapsedNanos = System.nanoTime() - measureStart;
+        return LoadTestReport.create(options, recorders, elapsedNanos, delayedSends, drained);
+    }
+
+    private CompletableFuture<String> send(Operation operation) {
+        return switch (operation) {
+            case LIST -> exchange(HttpRequest.newBuilder(URI.create(articlesUri + "?limit=20")).GET());
+            case GET -> exchange(HttpRequest.newBuilder(articleUri(randomSeededId())).GET());
+            case CREATE -> create();
+            case UPDATE -> exchange(withAuthorization(HttpRequest.newBuilder(articleUri(randomSeededId())))
+                    .header("Content-Type", "application/json")
+                    .PUT(BodyPublishers.ofByteArray(articleBody)));
+            case DELETE -> exchange(withAuthorization(HttpRequest.newBuilder(articleUri(nextDeleteId()))).DELETE());
+        };
+    }
+
+    private CompletableFuture<String> create() {
+        HttpRequest request = withAuthorization(HttpRequest.newBuilder(articlesUri))
+                .header("Content-Type", "application/json")
+                .POST(BodyPublishers.ofByteArray(articleBody))
+                .timeout(options.getRequestTimeout())
+                .build();
+        return httpClient.sendAsync(request, BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() == 201) {
+                        rememberCreatedId(response.body());
+                    }
+                    return String.valueOf(response.statusCode());
+                });
+    }
+
+    private CompletableFuture<String> exchange(HttpRequest.Builder builder) {
+        HttpRequest request = builder.timeout(options.getRequestTimeout()).build();
+        return httpClient.sendAsync(request, BodyHandlers.discarding())
+                .thenApply(HttpResponse::statusCode)
+                .thenApply(String::valueOf);
+    }
+
+    private HttpRequest.Builder withAuthorization(HttpRequest.Builder builder) {
+        return builder.header("Authorization", authorization);
+    }
+
+    private URI articleUri(long id) {
+        return URI.create(articlesUri + "/" + id);
+    }
+
+    private long randomSeededId() {
+        return ThreadLocalRandom.current().nextLong(1, seededArticles + 1);
+    }
+
+    private long nextDeleteId() {
+        // 負荷試験中に作成した記事を優先して削除し、事前に投入した記事が減らないようにする
+        Long id = createdIds.pollFirst();
+        return id != null ? id : randomSeededId();
+    }
+
+    private void rememberCreatedId(byte[] body) {
+        try {
+            long id = objectMapper.readTree(body).path("id").asLong();
+            if (id > 0) {
+                createdIds.addLast(id);
+            }
+        } catch (Exception e) {
+            // IDが読み取れない場合は削除の対象にしないだけ
+        }
+    }
+
+    private static void waitUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
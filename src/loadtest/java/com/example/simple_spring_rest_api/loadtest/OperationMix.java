@@ -0,0 +1,97 @@
+package com.example.simple_spring_rest_api.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 負荷試験で実行する操作の比率
+ */
+public class OperationMix {
+
+    /**
+     * 負荷試験で実行する操作
+     */
+    public enum Operation {
+        LIST, GET, CREATE, UPDATE, DELETE;
+
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private OperationMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        this.operations = weights.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * "list=40,get=45,create=5" 形式の文字列から比率を作成
+     * @param value 操作名と重みのカンマ区切り
+     * @return 操作の比率
+     */
+    public static OperationMix parse(String value) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("操作の比率の形式が正しくありません: " + entry);
+            }
+            Operation operation = Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT));
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("操作の重みは0以上を指定してください: " + entry);
+            }
+            if (weight > 0) {
+                weights.put(operation, weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("操作の比率を1つ以上指定してください");
+        }
+        return new OperationMix(weights);
+    }
+
+    /**
+     * 重みに従って操作をランダムに選ぶ
+     * @return 操作
+     */
+    public Operation next() {
+        int value = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < operations.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * 比率に含まれる操作
+     * @return 操作の配列
+     */
+    public Operation[] operations() {
+        return operations.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(",");
+        weights.forEach((operation, weight) -> joiner.add(operation.label() + "=" + weight));
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,396 @@
+package com.example.simple_spring_rest_api.loadtest;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import com.example.simple_spring_rest_api.SimpleSpringRestApiApplication;
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.repository.ArticleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * 起動時間の計測: ./gradlew startupBenchmark
+ *
+ * 実行可能JARを起動方法ごとに別のJVMで繰り返し起動し、次の2つを計測する。
+ * <ul>
+ * <li>起動時間: Spring Boot のログ「Started ... (process running for N)」の値（JVMの起動からコンテキストの起動完了まで）</li>
+ * <li>最初の応答までの時間: プロセスを起動してから GET /api/articles が 200 を返すまで（負荷分散の対象になれるまでの時間）</li>
+ * </ul>
+ *
+ * DBはファイルに保存するH2 (MySQLモード) を使い、事前にスキーマと記事を投入しておく
+ * （検索インデックスの構築など、記事数に比例する起動時の処理も計測に含める）。
+ *
+ * <ul>
+ * <li>startup.runs: 起動方法ごとの起動回数</li>
+ * <li>startup.articles / startup.content-length: 投入する記事の件数と本文の文字数</li>
+ * <li>startup.modes: 計測する起動方法（例: jar,cds,cds-aot）</li>
+ * <li>startup.timeout: 1回の起動を待つ最大時間</li>
+ * </ul>
+ */
+public class StartupBenchmark {
+
+    private static final String PREFIX = "startup.";
+    private static final String MAIN_CLASS = SimpleSpringRestApiApplication.class.getName();
+    private static final Pattern STARTED = Pattern.compile(
+            "Started \\S+ in ([0-9.]+) seconds \\(process running for ([0-9.]+)\\)");
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(5);
+
+    /**
+     * 起動方法
+     */
+    enum Mode {
+        // 現在の Dockerfile と同じ起動（実行可能JARのまま起動し、起動のたびに schema.sql を実行する）
+        JAR("jar", false, false),
+        // JARを展開し、本番用のプロファイル（SQLの初期化なし）で起動する
+        EXTRACTED("extracted", false, false),
+        // 展開したJAR + CDSアーカイブ
+        CDS("cds", true, false),
+        // 展開したJAR + CDSアーカイブ + Spring AOT
+        CDS_AOT("cds-aot", true, true);
+
+        private final String label;
+        private final boolean cds;
+        private final boolean aot;
+
+        Mode(String label, boolean cds, boolean aot) {
+            this.label = label;
+            this.cds = cds;
+            this.aot = aot;
+        }
+
+        static Mode of(String label) {
+            return Arrays.stream(values())
+                    .filter(mode -> mode.label.equals(label.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("不明な起動方法です: " + label));
+        }
+    }
+
+    private final Path jar;
+    private final Path h2Jar;
+    private final Path workDirectory;
+    private final Path reportDirectory;
+    private final int runs;
+    private final int articles;
+    private final int contentLength;
+    private final List<Mode> modes;
+    private final Duration timeout;
+    private final String java = ProcessHandle.current().info().command().orElse("java");
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    public StartupBenchmark(Properties properties) {
+        this.jar = Path.of(required(properties, "jar"));
+        this.h2Jar = Path.of(required(properties, "h2-jar"));
+        this.workDirectory = Path.of(properties.getProperty(PREFIX + "work-dir", "build/startup"));
+        this.reportDirectory = Path.of(properties.getProperty(PREFIX + "report-dir", "build/reports/startup"));
+        this.runs = Integer.parseInt(properties.getProperty(PREFIX + "runs", "5"));
+        this.articles = Integer.parseInt(properties.getProperty(PREFIX + "articles", "10000"));
+        this.contentLength = Integer.parseInt(properties.getProperty(PREFIX + "content-length", "2000"));
+        this.modes = Arrays.stream(properties.getProperty(PREFIX + "modes", "jar,extracted,cds,cds-aot").split(","))
+                .map(Mode::of)
+                .toList();
+        this.timeout = DurationStyle.detectAndParse(properties.getProperty(PREFIX + "timeout", "120s"));
+
+        if (runs <= 0) {
+            throw new IllegalArgumentException("startup.runs は1以上を指定してください");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new StartupBenchmark(System.getProperties()).run();
+    }
+
+    private void run() throws Exception {
+        String databaseUrl = prepareDatabase();
+        Path application = extract();
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (Mode mode : modes) {
+            if (mode.cds) {
+                train(mode, application, databaseUrl);
+            }
+            List<Long> startedMillis = new ArrayList<>();
+            List<Long> firstResponseMillis = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                long[] measured = measure(mode, application, databaseUrl);
+                startedMillis.add(measured[0]);
+                firstResponseMillis.add(measured[1]);
+                System.out.printf("%-10s #%d 起動 %5dms / 最初の応答 %5dms%n", mode.label, i + 1, measured[0], measured[1]);
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("startedMillis", summarize(startedMillis));
+            result.put("firstResponseMillis", summarize(firstResponseMillis));
+            results.put(mode.label, result);
+        }
+
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("timestamp", LocalDateTime.now().toString());
+        content.put("java", Runtime.version().toString());
+        content.put("runs", runs);
+        content.put("articles", articles);
+        content.put("modes", results);
+
+        String text = toText(results);
+        System.out.println(text);
+        Files.createDirectories(reportDirectory);
+        Files.writeString(reportDirectory.resolve("report.txt"), text, StandardCharsets.UTF_8);
+        new ObjectMapper().writerWithDefaultPrettyPrinter()
+                .writeValue(reportDirectory.resolve("report.json").toFile(), content);
+        System.out.println("レポートを出力しました: " + reportDirectory.toAbsolutePath());
+    }
+
+    /**
+     * ファイルに保存するH2を作成し、スキーマと記事を投入する（すべての起動で同じDBを使う）
+     */
+    private String prepareDatabase() throws IOException {
+        Path database = workDirectory.resolve("db").toAbsolutePath();
+        Files.createDirectories(database);
+        try (Stream<Path> files = Files.list(database)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        String url = "jdbc:h2:file:" + database.resolve("startup") + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername("sa");
+        config.setPassword("");
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+            String content = "Spring Bootと生JDBCでREST APIを実装する。".repeat(contentLength / 30 + 1)
+                    .substring(0, contentLength);
+            new ArticleRepository(dataSource, 1000).saveAll(IntStream.range(0, articles)
+                    .mapToObj(i -> new Article("起動時間の計測用の記事 " + i, content))
+                    .iterator(), 1000);
+        }
+        return url;
+    }
+
+    /**
+     * Dockerfile と同じ方法で実行可能JARを展開する
+     */
+    private Path extract() throws Exception {
+        Path application = workDirectory.resolve("application").toAbsolutePath();
+        execute(List.of(java, "-Djarmode=tools", "-jar", jar.toAbsolutePath().toString(),
+                "extract", "--destination", application.toString(), "--application-filename", "app.jar", "--force"),
+                "JARの展開");
+        return application;
+    }
+
+    /**
+     * CDSアーカイブを作成する学習実行（コンテキストの起動直後に終了するため、DBには接続しない）
+     */
+    private void train(Mode mode, Path application, String databaseUrl) throws Exception {
+        Path archive = archive(mode, application);
+        Files.deleteIfExists(archive);
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.add("-XX:ArchiveClassesAtExit=" + archive);
+        command.add("-Dspring.context.exit=onRefresh");
+        command.addAll(launch(mode, application, databaseUrl, 0));
+        execute(command, mode.label + " のCDSアーカイブの作成");
+    }
+
+    /**
+     * 1回起動して、起動時間と最初の応答までの時間を計測する
+     * @return [起動時間(ms), 最初の応答までの時間(ms)]
+     */
+    private long[] measure(Mode mode, Path application, String databaseUrl) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        if (mode.cds) {
+            command.add("-XX:SharedArchiveFile=" + archive(mode, application));
+        }
+        command.addAll(launch(mode, application, databaseUrl, port));
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        CompletableFuture<Long> started = new CompletableFuture<>();
+        Thread reader = new Thread(() -> readStartedMillis(process, started), "startup-output");
+        reader.setDaemon(true);
+        reader.start();
+        try {
+            long firstResponse = awaitFirstResponse(process, port, start);
+            // 起動完了のログは最初の応答の前後どちらにも出力されうるため少し待つ（出力されない場合は -1）
+            long startedMillis = started.completeOnTimeout(-1L, 10, TimeUnit.SECONDS).get();
+            return new long[] { startedMillis, firstResponse };
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * 起動方法ごとのJVMオプションとクラスパス・起動クラス・アプリケーションの設定
+     */
+    private List<String> launch(Mode mode, Path application, String databaseUrl, int port) {
+        List<String> arguments = new ArrayList<>();
+        if (mode.aot) {
+            arguments.add("-Dspring.aot.enabled=true");
+        }
+        if (mode == Mode.JAR) {
+            // 実行可能JARにはH2が含まれないため、PropertiesLauncher で追加する
+            arguments.add("-Dloader.path=" + h2Jar.toAbsolutePath());
+            arguments.add("-cp");
+            arguments.add(jar.toAbsolutePath().toString());
+            arguments.add("org.springframework.boot.loader.launch.PropertiesLauncher");
+            // 現在の既定の設定と同じく schema.sql を実行する（data.sql はMySQL固有の構文を含むため実行しない）
+            arguments.add("--spring.sql.init.data-locations=optional:classpath:startup-none.sql");
+        } else {
+            arguments.add("-cp");
+            arguments.add(application.resolve("app.jar") + File.pathSeparator + h2Jar.toAbsolutePath());
+            arguments.add(MAIN_CLASS);
+            arguments.add("--spring.profiles.active=prod");
+        }
+        arguments.add("--server.port=" + port);
+        arguments.add("--spring.datasource.url=" + databaseUrl);
+        arguments.add("--spring.datasource.username=sa");
+        arguments.add("--spring.datasource.password=");
+        arguments.add("--spring.datasource.driverClassName=org.h2.Driver");
+        arguments.add("--logging.level.root=WARN");
+        // 起動時間のログ（Started ...）は起動クラスのロガーで出力される
+        arguments.add("--logging.level." + MAIN_CLASS + "=INFO");
+        return arguments;
+    }
+
+    private Path archive(Mode mode, Path application) {
+        return application.resolve(mode.label + ".jsa");
+    }
+
+    private long awaitFirstResponse(Process process, int port, long start) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/articles?limit=20"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        long deadline = start + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("アプリケーションが終了しました (exit=" + process.exitValue() + ")");
+            }
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+            } catch (ConnectException e) {
+                // まだポートを開いていない
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        throw new IllegalStateException("起動がタイムアウトしました: " + timeout);
+    }
+
+    /**
+     * 標準出力を読み進め、起動完了のログからJVMの起動からの経過時間を取得する
+     * （読み続けないと出力のバッファが埋まってアプリケーションが止まるため、終了まで読み捨てる）
+     */
+    private static void readStartedMillis(Process process, CompletableFuture<Long> started) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = STARTED.matcher(line);
+                if (!started.isDone() && matcher.find()) {
+                    started.complete(Math.round(Double.parseDouble(matcher.group(2)) * 1000));
+                }
+            }
+        } catch (IOException e) {
+            // プロセスの終了時に読み込みが中断された
+        } finally {
+            started.complete(-1L);
+        }
+    }
+
+    private static void execute(List<String> command, String description) throws Exception {
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException(description + "に失敗しました (exit=" + exitCode + "): " + command);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Map<String, Object> summarize(List<Long> values) {
+        List<Long> sorted = values.stream().sorted().toList();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("median", sorted.get(sorted.size() / 2));
+        summary.put("min", sorted.get(0));
+        summary.put("max", sorted.get(sorted.size() - 1));
+        summary.put("values", values);
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String toText(Map<String, Object> results) {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-10s %14s %14s %16s %16s %10s%n",
+                "mode", "started(p50)", "started(min)", "firstResp(p50)", "firstResp(min)", "speedup"));
+        Long baseline = null;
+        for (Map.Entry<String, Object> entry : results.entrySet()) {
+            Map<String, Object> result = (Map<String, Object>) entry.getValue();
+            Map<String, Object> started = (Map<String, Object>) result.get("startedMillis");
+            Map<String, Object> firstResponse = (Map<String, Object>) result.get("firstResponseMillis");
+            long median = (Long) firstResponse.get("median");
+            if (baseline == null) {
+                baseline = median;
+            }
+            text.append(String.format("%-10s %12dms %12dms %14dms %14dms %9.2fx%n",
+                    entry.getKey(),
+                    (Long) started.get("median"),
+                    (Long) started.get("min"),
+                    median,
+                    (Long) firstResponse.get("min"),
+                    baseline / (double) Math.max(median, 1)));
+        }
+        return text.toString();
+    }
+
+    private static String required(Properties properties, String name) {
+        String value = properties.getProperty(PREFIX + name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(PREFIX + name + " を指定してください（./gradlew startupBenchmark で実行してください）");
+        }
+        return value;
+    }
+}
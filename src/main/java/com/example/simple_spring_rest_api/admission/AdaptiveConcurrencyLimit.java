@@ -0,0 +1,128 @@
+package com.example.simple_spring_rest_api.admission;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 応答時間に応じて上限を調整する同時実行数の制限
+ *
+ * 一定時間（window）ごとに平均応答時間 (shortRtt) を求め、長期の平均応答時間 (longRtt) と比較して上限を更新する。
+ * <ul>
+ * <li>応答時間が長期の平均の tolerance 倍を超えて遅くなると、その比率で上限を下げる（最大で半分）</li>
+ * <li>応答時間が変わらず、上限の半分以上を使っている場合は √上限 だけ上限を上げる</li>
+ * <li>上限に達している場合は新しいリクエストを受け付けない（DBに到達する前に負荷を落とす）</li>
+ * </ul>
+ */
+public class AdaptiveConcurrencyLimit {
+
+    // longRtt は直近の約 LONG_WINDOWS 回分の平均
+    private static final int LONG_WINDOWS = 20;
+    // 1回の更新で上限を新しい値にどれだけ近づけるか
+    private static final double SMOOTHING = 0.2;
+    // 平均を求めるのに必要な最小のサンプル数
+    private static final int MIN_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlightInWindow = new AtomicInteger();
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder rttCount = new LongAdder();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+
+    private volatile double limit;
+    // updateLimit() の中でだけ読み書きする
+    private double longRtt;
+
+    /**
+     * @param initialLimit 上限の初期値
+     * @param minLimit 上限の最小値
+     * @param maxLimit 上限の最大値
+     * @param tolerance 上限を下げ始める応答時間の悪化の比率（1.5の場合、長期の平均の1.5倍まで許容する）
+     * @param window 上限を更新する間隔
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, Duration window) {
+        if (minLimit <= 0 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("minLimitは1以上maxLimit以下を指定してください");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowNanos = window.toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * 実行の許可を取得（待たない）
+     * @return 取得できた場合はtrue。trueの場合は必ず {@link #release(long)} を呼ぶこと
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                maxInFlightInWindow.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 実行の許可を返し、応答時間を記録する
+     * @param rttNanos 応答時間
+     */
+    public void release(long rttNanos) {
+        inFlight.decrementAndGet();
+        rttSum.add(rttNanos);
+        rttCount.increment();
+
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            updateLimit();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void updateLimit() {
+        long count = rttCount.sumThenReset();
+        long sum = rttSum.sumThenReset();
+        int maxInFlight = maxInFlightInWindow.getAndSet(inFlight.get());
+        if (count < MIN_SAMPLES) {
+            return;
+        }
+
+        double shortRtt = (double) sum / count;
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) / LONG_WINDOWS;
+            // 負荷が下がって応答時間が大きく改善した場合は、長期の平均もすぐに追従させる
+            if (longRtt > shortRtt * 2) {
+                longRtt = shortRtt * 2;
+            }
+        }
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        // 上限の半分も使っていない場合は、上限が足りないわけではないので増やさない
+        double queueSize = maxInFlight >= current / 2 ? Math.sqrt(current) : 0;
+        double newLimit = current * gradient + queueSize;
+        newLimit = current * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
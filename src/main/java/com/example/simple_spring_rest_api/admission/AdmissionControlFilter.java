@@ -0,0 +1,95 @@
+package com.example.simple_spring_rest_api.admission;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 記事APIの受付制御フィルター（SecurityFilterChain の認証の後に実行する）
+ *
+ * <ol>
+ * <li>クライアント（認証済みの場合はユーザー、それ以外はIPアドレス）ごとのトークンバケットで流量を制限する
+ *     （超えた場合は 429 と Retry-After）</li>
+ * <li>全体の同時実行数を {@link AdaptiveConcurrencyLimit} で制限する
+ *     （応答時間が悪化して上限に達した場合は 503 と Retry-After）</li>
+ * </ol>
+ * 1つのクライアントが接続プールを使い切ったり、遅延が増えた状態でさらにリクエストを積み上げたりするのを防ぐ。
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String ARTICLES_PATH = "/api/articles";
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final List<String> concurrencyExcludedPaths;
+    private final AdmissionMetrics metrics;
+
+    /**
+     * @param rateLimiter クライアントごとの流量制限（nullの場合は制限しない）
+     * @param concurrencyLimit 同時実行数の制限（nullの場合は制限しない）
+     * @param concurrencyExcludedPaths 同時実行数の制限の対象外とするパス（SSEなどの長時間のリクエスト）
+     * @param metrics メトリクス
+     */
+    public AdmissionControlFilter(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimit concurrencyLimit,
+            List<String> concurrencyExcludedPaths, AdmissionMetrics metrics) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimit = concurrencyLimit;
+        this.concurrencyExcludedPaths = concurrencyExcludedPaths;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(ARTICLES_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (rateLimiter != null) {
+            long waitNanos = rateLimiter.tryAcquire(clientKey(request));
+            if (waitNanos > 0) {
+                metrics.record(request, AdmissionMetrics.RATE_LIMITED);
+                AdmissionMetrics.reject(response, HttpStatus.TOO_MANY_REQUESTS.value(), waitNanos);
+                return;
+            }
+        }
+
+        boolean limited = concurrencyLimit != null && !concurrencyExcludedPaths.contains(request.getRequestURI());
+        if (limited && !concurrencyLimit.tryAcquire()) {
+            metrics.record(request, AdmissionMetrics.SHED);
+            AdmissionMetrics.reject(response, HttpStatus.SERVICE_UNAVAILABLE.value(), TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+
+        metrics.record(request, AdmissionMetrics.ADMITTED);
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (limited) {
+                concurrencyLimit.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
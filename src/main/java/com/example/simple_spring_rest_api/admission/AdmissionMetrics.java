@@ -0,0 +1,63 @@
+package com.example.simple_spring_rest_api.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 受付制御の結果（受付・拒否）をルートごとに記録する
+ */
+public class AdmissionMetrics {
+
+    public static final String ADMITTED = "admitted";
+    public static final String RATE_LIMITED = "rate_limited";
+    public static final String SHED = "shed";
+    public static final String AUTH_THROTTLED = "auth_throttled";
+
+    // パスの数値の部分（記事IDなど）。ルートごとに集計するため {id} に置き換える
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    // 既知のルート。それ以外のパスはタグの種類が際限なく増えないよう1つにまとめる
+    private static final Pattern KNOWN_ROUTE = Pattern.compile("/api/articles(/(\\{id}|search|export|bulk|events))?");
+    private static final String OTHER_ROUTE = "/api/articles/**";
+
+    private final MeterRegistry registry;
+
+    public AdmissionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 受付制御の結果を記録
+     * @param request リクエスト
+     * @param outcome 結果 (admitted / rate_limited / shed / auth_throttled)
+     */
+    public void record(HttpServletRequest request, String outcome) {
+        Counter.builder("admission.requests")
+                .description("受付制御で受け付けた・拒否したリクエスト")
+                .tag("route", request.getMethod() + " " + route(request.getRequestURI()))
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * リクエストを拒否する（本文なし）
+     * @param response レスポンス
+     * @param status ステータス (429 / 503)
+     * @param retryAfterNanos 再試行までの時間
+     */
+    public static void reject(HttpServletResponse response, int status, long retryAfterNanos) {
+        long seconds = Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(status);
+        response.setHeader("Retry-After", String.valueOf(seconds));
+    }
+
+    private static String route(String uri) {
+        String route = NUMERIC_SEGMENT.matcher(uri).replaceAll("/{id}");
+        return KNOWN_ROUTE.matcher(route).matches() ? route : OTHER_ROUTE;
+    }
+}
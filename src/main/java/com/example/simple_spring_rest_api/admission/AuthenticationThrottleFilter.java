@@ -0,0 +1,62 @@
+package com.example.simple_spring_rest_api.admission;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Basic認証の失敗をIPアドレスごとに制限するフィルター（SecurityFilterChain の Basic認証の前に実行する）
+ *
+ * 認証に失敗する（401 を返す）たびにそのIPアドレスのトークンを1つ使い、トークンがない間は
+ * BCryptでの照合を行わずに 429 を返す（総当たり攻撃でCPUを使い切られないようにする）。
+ * <ul>
+ * <li>照合の前の判定はトークンを使わない（認証に成功するリクエストの同時実行数は制限しない）</li>
+ * <li>後続の処理で例外が発生した場合（DBの障害・書き込みのタイムアウトなど）は、認証の失敗として数えない</li>
+ * </ul>
+ * 判定とトークンの消費の間に同じIPアドレスから同時に送られた試行は照合されるが、
+ * 失敗した分のトークンは消費されるため、その後の試行は 429 になる。
+ */
+public class AuthenticationThrottleFilter extends OncePerRequestFilter {
+
+    private static final String BASIC_PREFIX = "Basic ";
+
+    private final ClientRateLimiter failureLimiter;
+    private final AdmissionMetrics metrics;
+
+    public AuthenticationThrottleFilter(ClientRateLimiter failureLimiter, AdmissionMetrics metrics) {
+        this.failureLimiter = failureLimiter;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return authorization == null || !authorization.startsWith(BASIC_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String clientKey = request.getRemoteAddr();
+        long waitNanos = failureLimiter.nanosUntilAvailable(clientKey);
+        if (waitNanos > 0) {
+            metrics.record(request, AdmissionMetrics.AUTH_THROTTLED);
+            AdmissionMetrics.reject(response, HttpStatus.TOO_MANY_REQUESTS.value(), waitNanos);
+            return;
+        }
+
+        // 例外が伝わった場合はここに来ないため、認証の失敗として数えない
+        filterChain.doFilter(request, response);
+
+        if (response.getStatus() == HttpStatus.UNAUTHORIZED.value()) {
+            failureLimiter.tryAcquire(clientKey);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.simple_spring_rest_api.admission;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * クライアント（IPアドレスまたはユーザー）ごとのトークンバケット
+ *
+ * バケットはGCRA（Generic Cell Rate Algorithm）で表し、「バケットが満タンに戻る理論上の時刻」だけを
+ * AtomicLong に保持してCASで更新する（ロックを使わない）。
+ * <ul>
+ * <li>1秒あたり rate 個のトークンが補充され、最大 burst 個まで貯まる</li>
+ * <li>バケットはクライアントのキーのハッシュで複数のストライプ（ConcurrentHashMap）に分ける</li>
+ * <li>満タンのまま idleTimeout 以上使われていないバケットは、そのストライプへのアクセス時に削除する
+ *     （満タンのバケットは新しく作ったものと同じため、削除しても制限は緩まない）</li>
+ * <li>クライアント数が上限に達した場合、新しいクライアントは共有のバケットを使う（メモリを際限なく使わない）</li>
+ * </ul>
+ */
+public class ClientRateLimiter {
+
+    private static final String OVERFLOW_KEY = "*";
+
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+    private final AtomicLongArray lastSweeps;
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final long idleTimeoutNanos;
+    private final int maxClientsPerStripe;
+
+    /**
+     * @param ratePerSecond 1秒あたりに補充するトークン数
+     * @param burst バケットの容量（連続して受け付けられるリクエスト数）
+     * @param idleTimeout 使われていないバケットを削除するまでの時間
+     * @param maxClients 保持するバケット数の上限
+     * @param stripeCount ストライプ数
+     */
+    @SuppressWarnings("unchecked")
+    public ClientRateLimiter(double ratePerSecond, int burst, Duration idleTimeout, int maxClients, int stripeCount) {
+        if (ratePerSecond <= 0 || burst <= 0 || stripeCount <= 0) {
+            throw new IllegalArgumentException("rate, burst, stripeCount は正の値を指定してください");
+        }
+        this.emissionIntervalNanos = (long) (Duration.ofSeconds(1).toNanos() / ratePerSecond);
+        this.burstNanos = emissionIntervalNanos * burst;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxClientsPerStripe = Math.max(1, maxClients / stripeCount);
+        this.stripes = new ConcurrentHashMap[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.lastSweeps = new AtomicLongArray(stripeCount);
+        long now = System.nanoTime();
+        for (int i = 0; i < stripeCount; i++) {
+            lastSweeps.set(i, now);
+        }
+    }
+
+    /**
+     * トークンを1つ取得
+     * @param clientKey クライアントのキー
+     * @return 取得できた場合は0、できなかった場合は次のトークンが補充されるまでのナノ秒
+     */
+    public long tryAcquire(String clientKey) {
+        long now = System.nanoTime();
+        int index = (clientKey.hashCode() & 0x7fffffff) % stripes.length;
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes[index];
+        sweepIfDue(index, now);
+
+        AtomicLong bucket = stripe.get(clientKey);
+        if (bucket == null) {
+            if (stripe.size() >= maxClientsPerStripe) {
+                sweep(stripe, now);
+            }
+            String key = stripe.size() >= maxClientsPerStripe ? OVERFLOW_KEY : clientKey;
+            bucket = stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long theoreticalArrival = bucket.get();
+            long next = Math.max(theoreticalArrival, now) + emissionIntervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(theoreticalArrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * トークンを取得せずに、次のトークンを取得できるまでの時間を求める
+     * @param clientKey クライアントのキー
+     * @return すぐに取得できる場合は0、できない場合は次のトークンが補充されるまでのナノ秒
+     */
+    public long nanosUntilAvailable(String clientKey) {
+        int index = (clientKey.hashCode() & 0x7fffffff) % stripes.length;
+        AtomicLong bucket = stripes[index].get(clientKey);
+        if (bucket == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        return Math.max(0, Math.max(bucket.get(), now) + emissionIntervalNanos - now - burstNanos);
+    }
+
+    /**
+     * 保持しているバケット数
+     * @return バケット数
+     */
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private void sweepIfDue(int index, long now) {
+        long lastSweep = lastSweeps.get(index);
+        // 1つのスレッドだけが掃除する（他のスレッドは待たずに進む）
+        if (now - lastSweep >= idleTimeoutNanos && lastSweeps.compareAndSet(index, lastSweep, now)) {
+            sweep(stripes[index], now);
+        }
+    }
+
+    private void sweep(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+        stripe.values().removeIf(bucket -> now - bucket.get() > idleTimeoutNanos);
+    }
+}
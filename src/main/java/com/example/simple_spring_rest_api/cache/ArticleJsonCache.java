@@ -0,0 +1,129 @@
+package com.example.simple_spring_rest_api.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.domain.ArticleVersion;
+
+/**
+ * 記事1件分のJSONレスポンスをバイト列のまま保持するキャッシュ
+ *
+ * 人気の記事はデータが変わらない限り毎回同じJSONになるため、
+ * シリアライズ済みのUTF-8バイト列（一定サイズ以上はgzip圧縮済みのものも）を保持し、
+ * GET /api/articles/{id} ではJacksonを通さずにそのまま書き出す。
+ * 記事の大きさは本文によって大きく異なるため、件数ではなく合計バイト数で上限を設ける。
+ * バイト列はJVMのヒープ上の byte[] として保持する（オフヒープではないため、max-size はヒープの使用量に含まれる）。
+ *
+ * エントリーはIDごとに1件で、シリアライズした時点の更新日時（updated_at）を持つ。
+ * ヒット時は記事キャッシュの記事と更新日時を比べ、異なる場合はシリアライズし直す。
+ * 記事の作成・更新・削除時は ArticleService から削除するが、他のインスタンスでの更新や
+ * 削除と並行して入れられた古いエントリーも、更新日時の比較で返さないようにする。
+ */
+@Component
+public class ArticleJsonCache {
+
+    private final ObjectWriter writer;
+    private final boolean gzipEnabled;
+    private final long gzipMinSize;
+    private final BoundedCache<Long, SerializedArticle> cache;
+
+    @Autowired
+    public ArticleJsonCache(ObjectMapper objectMapper,
+            @Value("${article.json-cache.max-size:64MB}") DataSize maxSize,
+            @Value("${article.json-cache.ttl:10m}") Duration ttl,
+            @Value("${article.json-cache.gzip:true}") boolean gzipEnabled,
+            @Value("${article.json-cache.gzip-min-size:1KB}") DataSize gzipMinSize) {
+        this.writer = objectMapper.writerFor(Article.class);
+        this.gzipEnabled = gzipEnabled;
+        this.gzipMinSize = gzipMinSize.toBytes();
+        this.cache = new BoundedCache<>(maxSize.toBytes(), SerializedArticle::getWeight, serialized -> ttl);
+    }
+
+    /**
+     * 現在の記事と更新日時が一致するシリアライズ済みの記事を取得し、ない場合はシリアライズしてキャッシュに入れる
+     * 記事が存在しない場合はキャッシュしない（存在しないことは記事のキャッシュで保持する）
+     * @param id 記事ID
+     * @param loader 現在の記事を読み込む関数（記事のキャッシュから読み込む）
+     * @return シリアライズ済みの記事（記事が存在しない場合はOptional.empty()）
+     */
+    public Optional<SerializedArticle> getOrSerialize(Long id, Function<Long, Optional<Article>> loader) {
+        Optional<Article> current = loader.apply(id);
+        if (current.isEmpty()) {
+            cache.invalidate(id);
+            return Optional.empty();
+        }
+        Article article = current.get();
+        SerializedArticle cached = cache.getIfPresent(id);
+        if (cached != null && isSameVersion(cached.getVersion(), article)) {
+            return Optional.of(cached);
+        }
+        // 古い更新日時のエントリーを上書きする（並行して古い記事で上書きされても、次のヒット時に比べ直す）
+        SerializedArticle serialized = serialize(article);
+        cache.put(id, serialized);
+        return Optional.of(serialized);
+    }
+
+    /**
+     * 記事のキャッシュを削除
+     * @param id 記事ID
+     */
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * キャッシュの統計情報を取得
+     * @return ヒット数・ミス数・追い出し数・合計バイト数などの統計情報
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 記事をシリアライズする（キャッシュには入れない）
+     * @param article 記事
+     * @return シリアライズ済みの記事
+     */
+    public SerializedArticle serialize(Article article) {
+        byte[] json;
+        try {
+            json = writer.writeValueAsBytes(article);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("記事のシリアライズに失敗しました。ID: " + article.getId(), e);
+        }
+        byte[] gzipped = (gzipEnabled && json.length >= gzipMinSize) ? gzip(json) : null;
+        if (gzipped != null && gzipped.length >= json.length) {
+            // 圧縮しても小さくならない場合は保持しない
+            gzipped = null;
+        }
+        return new SerializedArticle(ArticleVersion.of(article), json, gzipped);
+    }
+
+    private static boolean isSameVersion(ArticleVersion version, Article article) {
+        return version.getUpdatedAt() != null && version.getUpdatedAt().equals(article.getUpdatedAt());
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 3 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
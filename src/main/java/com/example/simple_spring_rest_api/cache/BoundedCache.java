@@ -0,0 +1,321 @@
+package com.example.simple_spring_rest_api.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * サイズ(重み)とTTLで上限を設けたプロセス内キャッシュ
+ * 外部ライブラリを使わず、ConcurrentHashMap と挿入順のLinkedHashMapで実装
+ *
+ * <ul>
+ * <li>読み取りはロックを取らない。追加・削除・追い出しだけを this で同期する</li>
+ * <li>重みの合計が上限を超えると、古いエントリから追い出す。前回の追い出し以降に参照されたエントリは一度だけ末尾に回す（セカンドチャンス方式で近似したLRU）</li>
+ * <li>エントリごとにTTLを持ち、期限切れのものはヒットとして扱わない</li>
+ * <li>ロード中に同じキーが invalidate / put された場合、古い値をキャッシュに書き戻さない（他のキーの更新はロード結果の格納を妨げない）</li>
+ * </ul>
+ *
+ * @param <K> キーの型
+ * @param <V> 値の型（nullは格納できない）
+ */
+public class BoundedCache<K, V> {
+
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final Function<? super V, Duration> ttlPolicy;
+
+    // キーとノードのマップ。読み取りはロックを取らずにここを参照する
+    // ロード中のキーには値を持たない予約ノードを置き、ロード完了時に同じノードが残っている場合だけ値を格納する
+    private final ConcurrentHashMap<K, Node<V>> nodes = new ConcurrentHashMap<>();
+
+    // 値を持つノードの追い出し順（挿入順）。nodes の変更と合わせて this で同期する
+    private final LinkedHashMap<K, Node<V>> evictionOrder = new LinkedHashMap<>();
+    private long totalWeight;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * エントリ数とTTLで上限を設けたキャッシュを作成
+     * @param maxEntries 最大エントリ数
+     * @param ttl 有効期間
+     */
+    public BoundedCache(long maxEntries, Duration ttl) {
+        this(maxEntries, value -> 1L, value -> ttl);
+    }
+
+    /**
+     * 重みとTTLで上限を設けたキャッシュを作成
+     * @param maxWeight 重みの合計の上限
+     * @param weigher 値の重みを求める関数（例: バイト数）
+     * @param ttlPolicy 値ごとの有効期間を求める関数（例: 存在しないIDは短くする）
+     */
+    public BoundedCache(long maxWeight, ToLongFunction<? super V> weigher, Function<? super V, Duration> ttlPolicy) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("maxWeightは0以上を指定してください");
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.ttlPolicy = ttlPolicy;
+    }
+
+    /**
+     * キャッシュから値を取得
+     * @param key キー
+     * @return 値（存在しない、または期限切れの場合はnull）
+     */
+    public V getIfPresent(K key) {
+        Node<V> node = nodes.get(key);
+        if (node != null && !node.isReservation()) {
+            if (node.expiresAt - System.nanoTime() > 0) {
+                node.markReferenced();
+                hitCount.increment();
+                return node.value;
+            }
+            removeExpired(key, node);
+        }
+        missCount.increment();
+        return null;
+    }
+
+    /**
+     * キャッシュから値を取得し、存在しない場合はロードしてキャッシュする
+     * ロード処理はロックの外で実行する
+     * @param key キー
+     * @param loader 値をロードする関数（nullを返した場合はキャッシュしない）
+     * @return 値
+     */
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Node<V> reservation = reserve(key);
+        try {
+            V loaded = loader.apply(key);
+            if (loaded != null) {
+                putIfUnchanged(key, loaded, reservation);
+            }
+            return loaded;
+        } finally {
+            release(key, reservation);
+        }
+    }
+
+    /**
+     * 複数のキーの値をまとめて取得し、キャッシュにないキーだけをまとめてロードする
+     * ロード処理はロックの外で1回だけ実行する
+     * @param keys キー（重複は1つにまとめる）
+     * @param loader キャッシュにないキーの集合を受け取り、キーと値のマップを返す関数
+     * @return キーと値のマップ（キーの順序は引数の順序。ロード結果に含まれないキーは含まない）
+     */
+    public Map<K, V> getAllOrLoad(Collection<? extends K> keys, Function<? super Set<K>, ? extends Map<K, V>> loader) {
+        Map<K, V> result = new LinkedHashMap<>();
+        Set<K> missingKeys = new LinkedHashSet<>();
+        for (K key : new LinkedHashSet<K>(keys)) {
+            V cached = getIfPresent(key);
+            if (cached != null) {
+                result.put(key, cached);
+            } else {
+                missingKeys.add(key);
+                // 引数の順序を保つため、ロード前に場所だけ確保しておく
+                result.put(key, null);
+            }
+        }
+        if (missingKeys.isEmpty()) {
+            return result;
+        }
+
+        Map<K, Node<V>> reservations = new LinkedHashMap<>();
+        for (K key : missingKeys) {
+            reservations.put(key, reserve(key));
+        }
+        try {
+            Map<K, V> loaded = loader.apply(missingKeys);
+            for (K key : missingKeys) {
+                V value = loaded.get(key);
+                if (value != null) {
+                    putIfUnchanged(key, value, reservations.get(key));
+                    result.put(key, value);
+                } else {
+                    result.remove(key);
+                }
+            }
+            return result;
+        } finally {
+            reservations.forEach(this::release);
+        }
+    }
+
+    /**
+     * 値をキャッシュに格納
+     * @param key キー
+     * @param value 値
+     */
+    public void put(K key, V value) {
+        putIfUnchanged(key, value, null);
+    }
+
+    /**
+     * 指定したキーのエントリを削除
+     * ロード中の値はキャッシュに格納されなくなる
+     * @param key キー
+     */
+    public void invalidate(K key) {
+        synchronized (this) {
+            Node<V> removed = nodes.remove(key);
+            if (removed != null && !removed.isReservation()) {
+                evictionOrder.remove(key);
+                totalWeight -= removed.weight;
+            }
+        }
+    }
+
+    /**
+     * 全エントリを削除
+     * ロード中の値はキャッシュに格納されなくなる
+     */
+    public void invalidateAll() {
+        synchronized (this) {
+            nodes.clear();
+            evictionOrder.clear();
+            totalWeight = 0;
+        }
+    }
+
+    /**
+     * 統計情報を取得
+     * @return 統計情報のスナップショット
+     */
+    public CacheStats stats() {
+        synchronized (this) {
+            return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), evictionOrder.size(), totalWeight);
+        }
+    }
+
+    /**
+     * ロード前にキーの現在のノードを取得する（値がなければ予約ノードを置く）
+     * ロード完了時にこのノードが残っていなければ、ロード中に更新・削除が行われたことがわかる
+     */
+    private Node<V> reserve(K key) {
+        Node<V> reservation = new Node<>(null, 0L, 0L);
+        Node<V> current = nodes.putIfAbsent(key, reservation);
+        // 同じキーをロード中のスレッドがあれば、その予約ノードを共有する
+        return current != null ? current : reservation;
+    }
+
+    /**
+     * ロードが終わった予約ノードを取り除く（値を格納した場合は既に置き換わっている）
+     */
+    private void release(K key, Node<V> reservation) {
+        if (reservation.isReservation()) {
+            nodes.remove(key, reservation);
+        }
+    }
+
+    /**
+     * 値を格納する
+     * @param expected ロード前に取得したノード（nullの場合は無条件に格納する）
+     */
+    private void putIfUnchanged(K key, V value, Node<V> expected) {
+        long weight = weigher.applyAsLong(value);
+        if (weight > maxWeight) {
+            // 1件だけで上限を超える値はキャッシュしない
+            return;
+        }
+        Node<V> node = new Node<>(value, weight, System.nanoTime() + ttlPolicy.apply(value).toNanos());
+        synchronized (this) {
+            Node<V> previous;
+            if (expected == null) {
+                previous = nodes.put(key, node);
+            } else if (nodes.replace(key, expected, node)) {
+                previous = expected;
+            } else {
+                // ロード中に同じキーが更新・削除されたため、読み込んだ値は古い可能性がある
+                return;
+            }
+            if (previous != null && !previous.isReservation()) {
+                evictionOrder.remove(key);
+                totalWeight -= previous.weight;
+            }
+            evictionOrder.putLast(key, node);
+            totalWeight += weight;
+            evictIfNecessary();
+        }
+    }
+
+    private void evictIfNecessary() {
+        // 参照され続けるエントリで追い出しが終わらなくならないよう、末尾に回すのは1周分までにする
+        int secondChances = evictionOrder.size();
+        while (totalWeight > maxWeight) {
+            Map.Entry<K, Node<V>> eldest = evictionOrder.pollFirstEntry();
+            if (eldest == null) {
+                break;
+            }
+            Node<V> node = eldest.getValue();
+            if (secondChances-- > 0 && node.clearReferenced()) {
+                evictionOrder.putLast(eldest.getKey(), node);
+                continue;
+            }
+            nodes.remove(eldest.getKey(), node);
+            totalWeight -= node.weight;
+            evictionCount.increment();
+        }
+    }
+
+    private void removeExpired(K key, Node<V> node) {
+        synchronized (this) {
+            // 期限切れを検出した後に置き換えられた場合は何もしない
+            if (nodes.remove(key, node)) {
+                evictionOrder.remove(key);
+                totalWeight -= node.weight;
+                evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * キャッシュのエントリ
+     * 値がnullのノードはロード中であることを示す予約ノード
+     * ノードは置き換えるたびに作り直すため、同一のノードであることがキーごとのバージョンの役割を果たす
+     */
+    private static final class Node<V> {
+        private final V value;
+        private final long weight;
+        private final long expiresAt;
+
+        // 前回の追い出し以降に参照されたか
+        private volatile boolean referenced;
+
+        private Node(V value, long weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isReservation() {
+            return value == null;
+        }
+
+        private void markReferenced() {
+            // 参照のたびに書き込んでキャッシュラインを奪い合わないよう、未設定の場合だけ書き込む
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+
+        private boolean clearReferenced() {
+            boolean wasReferenced = referenced;
+            referenced = false;
+            return wasReferenced;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.simple_spring_rest_api.cache;
+
+import com.example.simple_spring_rest_api.domain.ArticleVersion;
+
+/**
+ * JSONにシリアライズ済みの記事（レスポンスにそのまま書き出すUTF-8のバイト列）
+ */
+public final class SerializedArticle {
+
+    // 配列ヘッダーやフィールドなど、バイト列以外にかかるおおよそのメモリ量
+    private static final int OVERHEAD_BYTES = 96;
+
+    private final ArticleVersion version;
+    private final byte[] json;
+    private final byte[] gzipped;
+
+    public SerializedArticle(ArticleVersion version, byte[] json, byte[] gzipped) {
+        this.version = version;
+        this.json = json;
+        this.gzipped = gzipped;
+    }
+
+    // ゲッターメソッド
+    /**
+     * シリアライズした時点の記事のIDと更新日時（ETag / Last-Modified の算出に使用）
+     * @return バージョン情報
+     */
+    public ArticleVersion getVersion() {
+        return version;
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * gzip圧縮済みのJSON
+     * @return 圧縮済みのバイト列（圧縮していない場合はnull）
+     */
+    public byte[] getGzipped() {
+        return gzipped;
+    }
+
+    /**
+     * キャッシュ上で占めるおおよそのバイト数
+     * @return バイト数
+     */
+    public long getWeight() {
+        return OVERHEAD_BYTES + json.length + (gzipped != null ? gzipped.length : 0);
+    }
+}
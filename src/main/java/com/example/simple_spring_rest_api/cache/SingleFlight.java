@@ -0,0 +1,127 @@
+package com.example.simple_spring_rest_api.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 同じキーに対する同時の読み込みを1回にまとめる（single-flight）
+ *
+ * 最初の呼び出し（リーダー）だけが読み込みを実行し、実行中に同じキーで呼び出したスレッドは
+ * その完了を待って同じ結果を受け取る。人気の記事に同時にアクセスが集中しても、DBへの問い合わせと
+ * 接続の使用は1回で済む。
+ * <ul>
+ * <li>リーダーが失敗した場合は、待っていたスレッドにも同じ例外を返す。完了したキーは削除するため、次の呼び出しは新しく実行する</li>
+ * <li>maxWait を過ぎても終わらない場合、待っていたスレッドは遅い読み込みを見限り、新しい読み込みを1回だけ始め直す
+ *     （始め直した読み込みも同じようにまとめる）</li>
+ * <li>{@link #forget(Object)} で実行中の読み込みを切り離すと、以降の呼び出しは新しく実行する
+ *     （更新のコミット後に、更新前の値を読んでいる可能性のある読み込みを共有しないため）</li>
+ * </ul>
+ *
+ * @param <K> キーの型
+ * @param <V> 値の型
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+
+    private final LongAdder executedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+
+    /**
+     * @param maxWait 実行中の読み込みの完了を待つ最大時間
+     */
+    public SingleFlight(Duration maxWait) {
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    /**
+     * 読み込みを実行する。同じキーの読み込みが実行中の場合はその結果を待つ
+     * @param key キー
+     * @param loader 読み込み処理
+     * @return 読み込んだ値
+     */
+    public V execute(K key, Supplier<? extends V> loader) {
+        return execute(key, loader, true);
+    }
+
+    /**
+     * 実行中の読み込みを切り離す（以降の呼び出しは新しく読み込む）
+     * @param key キー
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * 実行中のすべての読み込みを切り離す
+     */
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    /**
+     * 統計情報を取得
+     * @return 統計情報のスナップショット
+     */
+    public SingleFlightStats stats() {
+        return new SingleFlightStats(executedCount.sum(), coalescedCount.sum(), timeoutCount.sum(), inFlight.size());
+    }
+
+    private V execute(K key, Supplier<? extends V> loader, boolean retryOnTimeout) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            return lead(key, flight, loader);
+        }
+
+        try {
+            V value = existing.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            coalescedCount.increment();
+            return value;
+        } catch (ExecutionException e) {
+            coalescedCount.increment();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("読み込みに失敗しました: " + key, cause);
+        } catch (TimeoutException e) {
+            timeoutCount.increment();
+            // 遅い読み込みを切り離し、待っていたスレッドのうち最初の1つが新しく読み込む
+            inFlight.remove(key, existing);
+            if (retryOnTimeout) {
+                return execute(key, loader, false);
+            }
+            executedCount.increment();
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("読み込みの完了待ち中に割り込まれました: " + key, e);
+        }
+    }
+
+    private V lead(K key, CompletableFuture<V> flight, Supplier<? extends V> loader) {
+        executedCount.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.simple_spring_rest_api.cache;
+
+/**
+ * single-flight の統計情報（ある時点のスナップショット）
+ */
+public class SingleFlightStats {
+
+    private final long executedCount;
+    private final long coalescedCount;
+    private final long timeoutCount;
+    private final long inFlightCount;
+
+    public SingleFlightStats(long executedCount, long coalescedCount, long timeoutCount, long inFlightCount) {
+        this.executedCount = executedCount;
+        this.coalescedCount = coalescedCount;
+        this.timeoutCount = timeoutCount;
+        this.inFlightCount = inFlightCount;
+    }
+
+    // ゲッターメソッド
+    public long getExecutedCount() {
+        return executedCount;
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    public long getInFlightCount() {
+        return inFlightCount;
+    }
+}
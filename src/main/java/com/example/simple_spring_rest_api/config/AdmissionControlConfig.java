@@ -0,0 +1,103 @@
+package com.example.simple_spring_rest_api.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.simple_spring_rest_api.admission.AdaptiveConcurrencyLimit;
+import com.example.simple_spring_rest_api.admission.AdmissionControlFilter;
+import com.example.simple_spring_rest_api.admission.AdmissionMetrics;
+import com.example.simple_spring_rest_api.admission.AuthenticationThrottleFilter;
+import com.example.simple_spring_rest_api.admission.ClientRateLimiter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 記事APIの受付制御（クライアントごとの流量制限・同時実行数の制限・認証失敗の制限）の設定
+ *
+ * フィルターは SecurityConfig の SecurityFilterChain に組み込むため、
+ * サーブレットフィルターとしては登録しない（二重に実行されないようにする）。
+ */
+@Configuration
+public class AdmissionControlConfig {
+
+    // バケットを分けるストライプ数
+    private static final int RATE_LIMIT_STRIPES = 16;
+
+    @Bean
+    public AdmissionMetrics admissionMetrics(MeterRegistry meterRegistry) {
+        return new AdmissionMetrics(meterRegistry);
+    }
+
+    /**
+     * クライアントごとの流量制限と、応答時間に応じた同時実行数の制限を行うフィルター
+     */
+    @Bean
+    public AdmissionControlFilter admissionControlFilter(AdmissionMetrics metrics, MeterRegistry meterRegistry,
+            @Value("${admission.rate-limit.enabled:false}") boolean rateLimitEnabled,
+            @Value("${admission.rate-limit.requests-per-second:50}") double requestsPerSecond,
+            @Value("${admission.rate-limit.burst:100}") int burst,
+            @Value("${admission.rate-limit.idle-timeout:60s}") Duration idleTimeout,
+            @Value("${admission.rate-limit.max-clients:100000}") int maxClients,
+            @Value("${admission.concurrency.enabled:true}") boolean concurrencyEnabled,
+            @Value("${admission.concurrency.initial-limit:20}") int initialLimit,
+            @Value("${admission.concurrency.min-limit:4}") int minLimit,
+            @Value("${admission.concurrency.max-limit:200}") int maxLimit,
+            @Value("${admission.concurrency.latency-tolerance:1.5}") double latencyTolerance,
+            @Value("${admission.concurrency.window:1s}") Duration window,
+            @Value("${admission.concurrency.excluded-paths:}") List<String> excludedPaths) {
+        ClientRateLimiter rateLimiter = null;
+        if (rateLimitEnabled) {
+            rateLimiter = new ClientRateLimiter(requestsPerSecond, burst, idleTimeout, maxClients, RATE_LIMIT_STRIPES);
+            Gauge.builder("admission.rate-limit.clients", rateLimiter, ClientRateLimiter::size)
+                    .description("流量制限のバケットを保持しているクライアント数")
+                    .register(meterRegistry);
+        }
+
+        AdaptiveConcurrencyLimit concurrencyLimit = null;
+        if (concurrencyEnabled) {
+            concurrencyLimit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, latencyTolerance, window);
+            Gauge.builder("admission.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("同時実行数の現在の上限")
+                    .register(meterRegistry);
+            Gauge.builder("admission.concurrency.in-flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                    .description("実行中のリクエスト数")
+                    .register(meterRegistry);
+        }
+        return new AdmissionControlFilter(rateLimiter, concurrencyLimit, excludedPaths, metrics);
+    }
+
+    /**
+     * Basic認証の失敗をIPアドレスごとに制限するフィルター
+     */
+    @Bean
+    public AuthenticationThrottleFilter authenticationThrottleFilter(AdmissionMetrics metrics,
+            @Value("${admission.auth-failure.attempts-per-minute:10}") double attemptsPerMinute,
+            @Value("${admission.auth-failure.burst:10}") int burst,
+            @Value("${admission.rate-limit.max-clients:100000}") int maxClients) {
+        ClientRateLimiter failureLimiter = new ClientRateLimiter(attemptsPerMinute / 60.0, burst,
+                Duration.ofMinutes(10), maxClients, RATE_LIMIT_STRIPES);
+        return new AuthenticationThrottleFilter(failureLimiter, metrics);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilterRegistration(
+            AdmissionControlFilter filter) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<AuthenticationThrottleFilter> authenticationThrottleFilterRegistration(
+            AuthenticationThrottleFilter filter) {
+        FilterRegistrationBean<AuthenticationThrottleFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
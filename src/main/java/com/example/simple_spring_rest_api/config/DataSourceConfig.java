@@ -0,0 +1,226 @@
+package com.example.simple_spring_rest_api.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
+
+import com.example.simple_spring_rest_api.jdbc.BulkheadDataSource;
+import com.example.simple_spring_rest_api.jdbc.QueryBudgetFilter;
+import com.example.simple_spring_rest_api.jdbc.ReadFromReplicaAspect;
+import com.example.simple_spring_rest_api.jdbc.ReadWriteRoutingDataSource;
+import com.example.simple_spring_rest_api.jdbc.ReadYourWritesFilter;
+import com.example.simple_spring_rest_api.jdbc.TracingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * DataSourceの設定
+ *
+ * Repositoryは生JDBCで dataSource.getConnection() を呼び出すため、
+ * そのままでは Service の @Transactional があってもメソッドごとに別の接続を取得してしまう。
+ * 接続プールを TransactionAwareDataSourceProxy で包むことで、トランザクション中は
+ * 同じ接続（同じトランザクション）を使うようにする。
+ *
+ * jdbc.tracing.enabled=true の場合は接続プールとの間に TracingDataSource を挟み、
+ * SQLごとの実行時間・遅いSQL・リクエストごとのSQL件数を記録する。
+ *
+ * jdbc.bulkhead.enabled=true の場合（既定では仮想スレッドを有効にしたとき）は、
+ * 接続プールの手前に BulkheadDataSource を挟み、同時に接続を使用するスレッド数をプールのサイズまでに制限する。
+ *
+ * jdbc.routing.replica-urls を設定した場合は ReadWriteRoutingDataSource を挟み、
+ * {@code @ReadFromReplica} を付けた読み取りをレプリカ、それ以外をプライマリに振り分ける。
+ */
+@Configuration
+public class DataSourceConfig implements DisposableBean {
+
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final boolean bulkheadEnabled;
+    private final int bulkheadMaxConcurrent;
+    private final Duration bulkheadMaxWait;
+    private final List<String> replicaUrls;
+    private final String replicaUsername;
+    private final String replicaPassword;
+    private final int replicaPoolSize;
+    private final Duration replicaConnectionTimeout;
+    private final String replicaSelection;
+    private final Duration replicaRetryInterval;
+
+    // アプリケーションの終了時に閉じるレプリカの接続プール
+    private final List<HikariDataSource> replicaPools = new ArrayList<>();
+
+    public DataSourceConfig(DataSourceProperties dataSourceProperties, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${jdbc.bulkhead.enabled:${spring.threads.virtual.enabled:false}}") boolean bulkheadEnabled,
+            @Value("${jdbc.bulkhead.max-concurrent:0}") int bulkheadMaxConcurrent,
+            @Value("${jdbc.bulkhead.max-wait:10s}") Duration bulkheadMaxWait,
+            @Value("${jdbc.routing.replica-urls:}") List<String> replicaUrls,
+            @Value("${jdbc.routing.replica-username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${jdbc.routing.replica-password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${jdbc.routing.replica-pool-size:10}") int replicaPoolSize,
+            @Value("${jdbc.routing.replica-connection-timeout:1s}") Duration replicaConnectionTimeout,
+            @Value("${jdbc.routing.selection:round-robin}") String replicaSelection,
+            @Value("${jdbc.routing.unhealthy-retry-interval:5s}") Duration replicaRetryInterval) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.meterRegistry = meterRegistry;
+        this.bulkheadEnabled = bulkheadEnabled;
+        this.bulkheadMaxConcurrent = bulkheadMaxConcurrent;
+        this.bulkheadMaxWait = bulkheadMaxWait;
+        this.replicaUrls = replicaUrls.stream().filter(url -> !url.isBlank()).toList();
+        this.replicaUsername = replicaUsername;
+        this.replicaPassword = replicaPassword;
+        this.replicaPoolSize = replicaPoolSize;
+        this.replicaConnectionTimeout = replicaConnectionTimeout;
+        this.replicaSelection = replicaSelection;
+        this.replicaRetryInterval = replicaRetryInterval;
+    }
+
+    /**
+     * 接続プール本体（spring.datasource.* / spring.datasource.hikari.* の設定を使用）
+     * 直接注入されないよう autowireCandidate = false とする
+     * 使用中・待機中・取得待ちの接続数と取得待ち時間を hikaricp.* のメトリクスとして記録する
+     * dataSource() から呼び出すため引数を持たない（Spring AOT で処理した場合、引数付きで呼び出した
+     * {@code @Bean} メソッドはAOTで生成したBean定義を使わずに作成しようとして失敗する）
+     */
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource hikariDataSource() {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        meterRegistry.ifAvailable(registry ->
+                dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return dataSource;
+    }
+
+    /**
+     * アプリケーション全体で使用するDataSource
+     * トランザクションマネージャーもこのDataSourceを使用する（内部で接続プール本体に展開される）
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${jdbc.tracing.enabled:true}") boolean tracingEnabled,
+            @Value("${jdbc.tracing.slow-query-threshold-ms:200}") long slowQueryThresholdMillis) {
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        HikariDataSource pool = hikariDataSource();
+        DataSource target = withBulkhead(pool, "primary", registry);
+
+        if (!replicaUrls.isEmpty()) {
+            List<ReadWriteRoutingDataSource.Replica> replicas = new ArrayList<>();
+            for (int i = 0; i < replicaUrls.size(); i++) {
+                String name = "replica-" + (i + 1);
+                HikariDataSource replicaPool = createReplicaPool(name, replicaUrls.get(i), properties, registry);
+                replicas.add(new ReadWriteRoutingDataSource.Replica(name, withBulkhead(replicaPool, name, registry),
+                        () -> replicaPool.getHikariPoolMXBean() != null
+                                ? replicaPool.getHikariPoolMXBean().getActiveConnections() : 0));
+            }
+            ReadWriteRoutingDataSource.Selection selection = ReadWriteRoutingDataSource.Selection.valueOf(
+                    replicaSelection.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+            target = new ReadWriteRoutingDataSource(target, replicas, selection, replicaRetryInterval, registry);
+        }
+
+        if (tracingEnabled) {
+            target = new TracingDataSource(target, slowQueryThresholdMillis, registry);
+        }
+        return new TransactionAwareDataSourceProxy(target);
+    }
+
+    /**
+     * @ReadFromReplica を付けたメソッドの実行中を読み取り専用の区間とするAspect
+     */
+    @Bean
+    public ReadFromReplicaAspect readFromReplicaAspect() {
+        return new ReadFromReplicaAspect();
+    }
+
+    /**
+     * リクエストごとのSQL件数を集計するフィルター
+     * Spring Securityより外側で動かし、認証時のusers検索も件数に含める
+     */
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${jdbc.tracing.enabled:true}") boolean tracingEnabled,
+            @Value("${jdbc.tracing.query-budget:10}") int queryBudget,
+            @Value("${jdbc.tracing.fail-on-budget-exceeded:false}") boolean failOnBudgetExceeded,
+            @Value("${jdbc.tracing.budget-excluded-paths:}") List<String> excludedPaths) {
+        QueryBudgetFilter filter = new QueryBudgetFilter(queryBudget, failOnBudgetExceeded, excludedPaths,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+        FilterRegistrationBean<QueryBudgetFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(tracingEnabled);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * 書き込んだ直後のクライアントの読み取りをプライマリに固定するフィルター
+     * 認証済みユーザーを参照するため、Spring Securityの後に実行する（レプリカを設定した場合のみ有効）
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${jdbc.routing.sticky-window:5s}") Duration stickyWindow,
+            @Value("${jdbc.routing.sticky-max-users:10000}") long stickyMaxUsers) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(stickyWindow, stickyMaxUsers));
+        registration.setEnabled(!replicaUrls.isEmpty());
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+
+    @Override
+    public void destroy() {
+        replicaPools.forEach(HikariDataSource::close);
+    }
+
+    private DataSource withBulkhead(HikariDataSource pool, String poolName, MeterRegistry registry) {
+        if (!bulkheadEnabled) {
+            return pool;
+        }
+        // 0以下の場合は接続プールの最大サイズに合わせる
+        int maxConcurrent = bulkheadMaxConcurrent > 0 ? bulkheadMaxConcurrent : pool.getMaximumPoolSize();
+        return new BulkheadDataSource(pool, poolName, maxConcurrent, bulkheadMaxWait, registry);
+    }
+
+    /**
+     * レプリカの接続プールを作成
+     * レプリカが停止していても起動できるよう、起動時には接続しない
+     * 接続できない場合に早くプライマリへ切り替えるため、接続の取得待ちは短くする
+     */
+    private HikariDataSource createReplicaPool(String name, String url, DataSourceProperties properties,
+            MeterRegistry registry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(replicaUsername);
+        config.setPassword(replicaPassword);
+        config.setDriverClassName(properties.determineDriverClassName());
+        config.setMaximumPoolSize(replicaPoolSize);
+        config.setConnectionTimeout(replicaConnectionTimeout.toMillis());
+        config.setInitializationFailTimeout(-1);
+        config.setReadOnly(true);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+
+        HikariDataSource pool = new HikariDataSource(config);
+        replicaPools.add(pool);
+        return pool;
+    }
+}
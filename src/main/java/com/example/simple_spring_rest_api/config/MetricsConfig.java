@@ -0,0 +1,97 @@
+package com.example.simple_spring_rest_api.config;
+
+import java.util.function.Supplier;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.simple_spring_rest_api.cache.CacheStats;
+import com.example.simple_spring_rest_api.cache.SingleFlightStats;
+import com.example.simple_spring_rest_api.security.VerifiedCredentialAuthenticationProvider;
+import com.example.simple_spring_rest_api.service.ArticleService;
+import com.example.simple_spring_rest_api.service.UserDetailsServiceImpl;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * メトリクスの設定
+ * 取得したメトリクスは /actuator/prometheus でPrometheus形式で公開する
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * @Timed を付けたクラス・メソッドの実行時間を記録する（Repositoryのメソッドごとの時間計測に使用）
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /**
+     * プロセス内キャッシュのヒット・ミス・追い出し件数とサイズを登録する
+     */
+    @Bean
+    public MeterBinder cacheMetrics(ArticleService articleService,
+            UserDetailsServiceImpl userDetailsService,
+            VerifiedCredentialAuthenticationProvider authenticationProvider) {
+        return registry -> {
+            bindCacheStats(registry, "articles", articleService::getArticleCacheStats);
+            bindCacheStats(registry, "article-json", articleService::getArticleJsonCacheStats);
+            bindCacheStats(registry, "users", userDetailsService::getUserCacheStats);
+            // credentials のヒット数 = BCryptでの照合を省略できた回数
+            bindCacheStats(registry, "credentials", authenticationProvider::getCredentialCacheStats);
+            FunctionCounter.builder("auth.password.checks.skipped", authenticationProvider,
+                            VerifiedCredentialAuthenticationProvider::getSkippedPasswordCheckCount)
+                    .description("資格情報のキャッシュにヒットし、BCryptでの照合を省略した回数")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * 同時の読み込みをまとめた件数（single-flight）を登録する
+     * result=coalesced の件数が、DBへ問い合わせずに他のリクエストの結果を共有した回数
+     */
+    @Bean
+    public MeterBinder singleFlightMetrics(ArticleService articleService) {
+        return registry -> articleService.getSingleFlightStats().keySet().forEach(name -> {
+            Supplier<SingleFlightStats> stats = () -> articleService.getSingleFlightStats().get(name);
+            FunctionCounter.builder("app.single-flight.calls", stats, s -> s.get().getExecutedCount())
+                    .tag("flight", name).tag("result", "executed")
+                    .register(registry);
+            FunctionCounter.builder("app.single-flight.calls", stats, s -> s.get().getCoalescedCount())
+                    .tag("flight", name).tag("result", "coalesced")
+                    .register(registry);
+            FunctionCounter.builder("app.single-flight.timeouts", stats, s -> s.get().getTimeoutCount())
+                    .description("実行中の読み込みが遅く、待つのをやめて読み込み直した回数")
+                    .tag("flight", name)
+                    .register(registry);
+            Gauge.builder("app.single-flight.in-flight", stats, s -> s.get().getInFlightCount())
+                    .tag("flight", name)
+                    .register(registry);
+        });
+    }
+
+    private static void bindCacheStats(MeterRegistry registry, String cacheName, Supplier<CacheStats> stats) {
+        FunctionCounter.builder("app.cache.gets", stats, s -> s.get().getHitCount())
+                .tag("cache", cacheName).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("app.cache.gets", stats, s -> s.get().getMissCount())
+                .tag("cache", cacheName).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("app.cache.evictions", stats, s -> s.get().getEvictionCount())
+                .tag("cache", cacheName)
+                .register(registry);
+        Gauge.builder("app.cache.size", stats, s -> s.get().getSize())
+                .tag("cache", cacheName)
+                .register(registry);
+        // 重みを指定したキャッシュの合計の重み（article-json の場合はバイト数）
+        Gauge.builder("app.cache.weight", stats, s -> s.get().getWeight())
+                .tag("cache", cacheName)
+                .register(registry);
+    }
+}
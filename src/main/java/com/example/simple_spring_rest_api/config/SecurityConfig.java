@@ -1,5 +1,8 @@
 package com.example.simple_spring_rest_api.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -9,13 +12,24 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import com.example.simple_spring_rest_api.admission.AdmissionControlFilter;
+import com.example.simple_spring_rest_api.admission.AuthenticationThrottleFilter;
+import com.example.simple_spring_rest_api.security.MeteredPasswordEncoder;
+import com.example.simple_spring_rest_api.security.VerifiedCredentialAuthenticationProvider;
+import com.example.simple_spring_rest_api.service.UserDetailsServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+            AuthenticationThrottleFilter authenticationThrottleFilter,
+            AdmissionControlFilter admissionControlFilter) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(authorize -> authorize
@@ -23,16 +37,37 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/articles/**").permitAll()
                         // 記事の作成・更新・削除は認証が必要
                         .requestMatchers("/api/articles/**").authenticated()
+                        // キャッシュ統計・メトリクスなどの運用情報は認証が必要
+                        // （ヘルスチェックはロードバランサー・Kubernetesのプローブから認証なしで呼び出す）
+                        .requestMatchers("/api/cache-stats").authenticated()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").authenticated()
                         // その他のリクエストはすべて許可 (H2コンソールやSwagger UIなど)
                         .anyRequest().permitAll()
                 )
-                .httpBasic(Customizer.withDefaults()); // Basic認証を有効化
+                .httpBasic(Customizer.withDefaults()) // Basic認証を有効化
+                // 認証に失敗し続けているIPアドレスは、BCryptで照合する前に拒否する
+                .addFilterBefore(authenticationThrottleFilter, BasicAuthenticationFilter.class)
+                // 認証の後に、クライアント（ユーザーまたはIPアドレス）ごとの流量と全体の同時実行数を制限する
+                .addFilterAfter(admissionControlFilter, BasicAuthenticationFilter.class);
         return http.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        // BCryptアルゴリズムを使用してパスワードをハッシュ化
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        // BCryptアルゴリズムを使用してパスワードをハッシュ化（照合にかかった時間をメトリクスに記録する）
+        return new MeteredPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
+    }
+
+    @Bean
+    public VerifiedCredentialAuthenticationProvider authenticationProvider(
+            UserDetailsServiceImpl userDetailsService,
+            PasswordEncoder passwordEncoder,
+            @Value("${auth.cache.credential-max-entries:10000}") long credentialCacheMaxEntries,
+            @Value("${auth.cache.credential-ttl:60s}") Duration credentialCacheTtl) {
+        // 一度BCryptで照合に成功した資格情報を短時間キャッシュし、リクエストごとの照合を省略する
+        return new VerifiedCredentialAuthenticationProvider(
+                userDetailsService, passwordEncoder, credentialCacheMaxEntries, credentialCacheTtl);
     }
-} 
\ No newline at end of file
+}
+ 
\ No newline at end of file
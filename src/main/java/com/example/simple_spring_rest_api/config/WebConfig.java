@@ -13,6 +13,8 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://fanda-dev.com", "https://fanda-dev.com")
                 .allowedMethods("GET", "POST", "PUT", "DELETE")
                 .allowedHeaders("*")
+                // ページング用のカーソルをブラウザのJavaScriptから読めるようにする
+                .exposedHeaders("X-Next-Cursor", "Link")
                 .allowCredentials(true);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.example.simple_spring_rest_api.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * JSON以外の本文の形式（CBOR / Smile）の設定
+ *
+ * Spring MVC も依存関係があれば CBOR / Smile のコンバーターを追加するが、その ObjectMapper には
+ * spring.jackson.* の設定（日時を文字列で書き出すなど）が反映されない。
+ * Spring Boot が設定した Jackson2ObjectMapperBuilder から作成し、JSONと同じ内容を書き出すようにする
+ * （同じクラスのBeanを定義すると、既定のコンバーターと置き換わる）。
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -1,84 +1,321 @@
 package com.example.simple_spring_rest_api.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.example.simple_spring_rest_api.cache.SerializedArticle;
 import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.domain.ArticleBulkResult;
+import com.example.simple_spring_rest_api.domain.ArticleMultiGetResult;
+import com.example.simple_spring_rest_api.domain.ArticlePage;
+import com.example.simple_spring_rest_api.domain.ArticlePageVersion;
+import com.example.simple_spring_rest_api.domain.ArticleSummaryPage;
+import com.example.simple_spring_rest_api.domain.ArticleVersion;
 import com.example.simple_spring_rest_api.service.ArticleService;
 
 /**
  * 記事のREST APIエンドポイントを提供するControllerクラス
+ *
+ * 記事が存在しない場合は Service から Optional / boolean で受け取り、例外を使わずに 404 を返す。
+ * 入力値の誤り(400)や書き込みの受付制限(503)は ArticleExceptionHandler でレスポンスに変換する。
+ * それ以外の例外（DBの障害など）は Spring Boot の既定のエラー処理に任せ、ログを出力して 500 を返す。
+ *
+ * 本文はJSONのほか CBOR / Smile でも送受信できる（ArticleFormat）。
+ * 作成・更新の本文と一覧などのレスポンスは HttpMessageConverter が Content-Type / Accept に応じて変換する。
  */
 @RequestMapping("/api/articles")
 @RestController
 public class ArticleController {
 
     private final ArticleService articleService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter exportWriter;
+    // 一括作成の本文を形式ごとに読み込むReader
+    private final Map<ArticleFormat, ObjectReader> bulkReaders = new EnumMap<>(ArticleFormat.class);
 
     @Autowired
-    public ArticleController(ArticleService articleService) {
+    public ArticleController(ArticleService articleService, ObjectMapper objectMapper,
+            MappingJackson2CborHttpMessageConverter cborConverter,
+            MappingJackson2SmileHttpMessageConverter smileConverter) {
         this.articleService = articleService;
+        this.objectMapper = objectMapper;
+        // 1行ごとにflushしないWriter（フラッシュはJsonGeneratorのバッファに任せる）
+        this.exportWriter = objectMapper.writerFor(Article.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        bulkReaders.put(ArticleFormat.JSON, objectMapper.readerFor(Article.class));
+        bulkReaders.put(ArticleFormat.CBOR, cborConverter.getObjectMapper().readerFor(Article.class));
+        bulkReaders.put(ArticleFormat.SMILE, smileConverter.getObjectMapper().readerFor(Article.class));
     }
 
     /**
-     * 全記事を取得
-     * GET /api/articles
-     * @return 全記事のリスト
+     * 次ページのカーソルを返すレスポンスヘッダー名
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * 記事一覧を取得（キーセットページング）
+     * GET /api/articles?after={id}&limit={n}&view={summary|full}
+     * デフォルトは概要（ID・タイトル・ティーザー・日時）で、本文が必要な場合は view=full を指定する
+     * 次ページが存在する場合は X-Next-Cursor ヘッダーと Link ヘッダー(rel="next")を返す
+     * If-None-Match が一致する場合は本文なしの 304 を返す
+     * （削除を Last-Modified で表現できないため、一覧は ETag のみで判定する）
+     * 本文の形式は Accept で選ぶ（JSON以外の形式では弱いETagにする）
+     * @param after 前ページの最後の記事ID（省略時は先頭から）
+     * @param limit 取得件数（省略時はデフォルト値、上限はサーバー側で制限）
+     * @param view 表現（省略時は summary）
+     * @param webRequest 条件付きリクエストの判定に使用するリクエスト
+     * @return 記事の概要、または記事のリスト
      */
     @GetMapping
-    public ResponseEntity<List<Article>> getAllArticles() {
-        try {
-            List<Article> articles = articleService.findAllArticles();
-            return ResponseEntity.ok(articles);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    public ResponseEntity<List<?>> getAllArticles(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view,
+            WebRequest webRequest) {
+        boolean full = ArticleView.parse(view) == ArticleView.FULL;
+        ArticleFormat format = ArticleFormat.negotiate(webRequest.getHeader(HttpHeaders.ACCEPT));
+        boolean weakETag = useWeakETag(webRequest, format);
+        if (isConditionalRequest(webRequest)) {
+            // content を読まずにページのETagを求め、一致すれば304を返す
+            ArticlePageVersion pageVersion = articleService.findArticlePageVersion(after, limit);
+            String eTag = full ? ArticleETags.forPage(pageVersion) : ArticleETags.forSummaryPage(pageVersion);
+            if (webRequest.checkNotModified(representationETag(eTag, weakETag))) {
+                return null;
+            }
+        }
+
+        List<?> items;
+        Long nextCursor;
+        if (full) {
+            ArticlePage page = articleService.findArticlePage(after, limit);
+            webRequest.checkNotModified(representationETag(ArticleETags.forPage(page.toVersion()), weakETag));
+            items = page.getArticles();
+            nextCursor = page.getNextCursor();
+        } else {
+            ArticleSummaryPage page = articleService.findArticleSummaryPage(after, limit);
+            webRequest.checkNotModified(representationETag(ArticleETags.forSummaryPage(page.toVersion()), weakETag));
+            items = page.getSummaries();
+            nextCursor = page.getNextCursor();
         }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (nextCursor != null) {
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", nextCursor)
+                    .replaceQueryParam("limit", items.size())
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(nextCursor))
+                    .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return response.body(items);
+    }
+
+    /**
+     * 複数IDによる記事の一括取得
+     * GET /api/articles?ids=1,2,3
+     * 1回のリクエスト・1回のDB接続でまとめて取得する（キャッシュにある記事はDBへ問い合わせない）
+     * @param ids 記事IDのリスト
+     * @return 見つかった記事（リクエストの順序）と見つからなかったID
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<ArticleMultiGetResult> getArticlesByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(articleService.findArticlesByIds(ids));
+    }
+
+    /**
+     * 記事の全文検索
+     * GET /api/articles/search?q={検索語}&limit={n}&view={summary|full}
+     * タイトル・本文を対象に、プロセス内の検索インデックスで検索する
+     * デフォルトは概要とスコアを返し、DBへは問い合わせない。
+     * view=full の場合は本文を含む記事を返す（キャッシュにない記事はDBからまとめて取得する）
+     * @param q 検索語
+     * @param limit 最大取得件数（省略時はデフォルト値、上限はサーバー側で制限）
+     * @param view 表現（省略時は summary）
+     * @return 検索結果（関連度の高い順）
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<?>> searchArticles(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view) {
+        if (ArticleView.parse(view) == ArticleView.FULL) {
+            return ResponseEntity.ok(articleService.searchArticlesWithContent(q, limit));
+        }
+        return ResponseEntity.ok(articleService.searchArticles(q, limit));
+    }
+
+    /**
+     * 全記事をNDJSON(改行区切りJSON)でエクスポート
+     * GET /api/articles/export
+     * DBから1行読むごとにレスポンスへ書き出すため、件数に関係なくメモリ使用量は一定
+     * @return 1行に1記事のJSONを書き出すストリーミングレスポンス
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportArticles() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // レスポンスのストリームはコンテナが閉じる
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                articleService.exportAllArticles(article -> {
+                    exportWriter.writeValue(generator, article);
+                    generator.writeRaw('\n');
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
      * IDによる記事の取得
      * GET /api/articles/{id}
+     * シリアライズ済みのJSONバイト列をそのまま書き出す（Jacksonでのシリアライズを省略する）
+     * Accept-Encoding に gzip が含まれ、圧縮済みのJSONがある場合はそれを返す
+     * Accept で CBOR / Smile が優先されている場合は、記事キャッシュの記事をその形式で書き出す
+     * ETag / Last-Modified を返し、If-None-Match / If-Modified-Since が一致する場合は本文なしの 304 を返す
+     * 記事が存在しない場合は例外を使わずに 404 を返す（存在しないIDへの大量のアクセスでも負荷が小さい）
      * @param id 記事ID
-     * @return 記事
+     * @param webRequest 条件付きリクエストの判定に使用するリクエスト
+     * @return 記事（JSONのバイト列、またはCBOR / Smile で書き出す記事）
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Article> getArticleById(@PathVariable Long id) {
-        try {
-            Article article = articleService.findArticleById(id);
-            return ResponseEntity.ok(article);
-        } catch (RuntimeException e) {
+    public ResponseEntity<?> getArticleById(@PathVariable Long id, WebRequest webRequest) {
+        // 表現（形式・gzip）は最初の条件判定より前に決める
+        // （ETagヘッダーは最初の checkNotModified で設定され、後から変えられないため）
+        ArticleFormat format = ArticleFormat.negotiate(webRequest.getHeader(HttpHeaders.ACCEPT));
+        boolean acceptsGzip = acceptsGzip(webRequest);
+        boolean weakETag = useWeakETag(webRequest, format);
+        if (isConditionalRequest(webRequest)) {
+            // content を読まずに更新日時だけで判定し、一致すれば304を返す
+            Optional<ArticleVersion> version = articleService.findArticleVersion(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (checkNotModified(webRequest, version.get(), weakETag)) {
+                return null;
+            }
+        }
+        if (format != ArticleFormat.JSON) {
+            return getArticleInBinaryFormat(id, format, webRequest);
+        }
+
+        Optional<SerializedArticle> found = articleService.findSerializedArticleById(id);
+        if (found.isEmpty()) {
             return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
+        SerializedArticle article = found.get();
+        boolean gzip = acceptsGzip && article.getGzipped() != null;
+        // 304でない場合もETag / Last-Modifiedヘッダーを設定するために呼び出す
+        checkNotModified(webRequest, article.getVersion(), weakETag);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return response.body(article.getGzipped());
+        }
+        return response.body(article.getJson());
+    }
+
+    /**
+     * 記事を CBOR / Smile で返す
+     * シリアライズ済みのキャッシュはJSONだけのため、記事キャッシュの記事をコンバーターで書き出す
+     * （圧縮はレスポンスの圧縮設定 server.compression.* に任せる）
+     * @param id 記事ID
+     * @param format レスポンスの形式
+     * @param webRequest 条件付きリクエストの判定に使用するリクエスト
+     * @return 記事
+     */
+    private ResponseEntity<?> getArticleInBinaryFormat(Long id, ArticleFormat format, WebRequest webRequest) {
+        Optional<Article> found = articleService.findArticleById(id);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Article article = found.get();
+        checkNotModified(webRequest, ArticleVersion.of(article), true);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .body(article);
     }
 
     /**
      * 新しい記事を作成
      * POST /api/articles
+     * グループコミットの書き込みキューが満杯の場合は 503 と Retry-After ヘッダーを返す（ArticleExceptionHandler）
      * @param article 作成する記事
      * @return 作成された記事
      */
     @PostMapping
     public ResponseEntity<Article> createArticle(@RequestBody Article article) {
-        try {
-            Article createdArticle = articleService.createArticle(article);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdArticle);
-        } catch (IllegalArgumentException e) {
+        Article createdArticle = articleService.createArticle(article);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdArticle);
+    }
+
+    /**
+     * 記事を一括作成
+     * POST /api/articles/bulk
+     * JSON配列、またはNDJSON(1行に1記事)を受け付け、読み込みながらバッチINSERTする
+     * CBOR / Smile の場合は、記事の配列または記事を続けて並べたものを受け付ける
+     * 1件でも不正な記事があればすべてロールバックして400を返す
+     * @param contentType リクエスト本文の Content-Type
+     * @param body リクエスト本文
+     * @return 生成された記事ID（リクエストでの順序と同じ）
+     */
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, ArticleFormat.APPLICATION_SMILE_VALUE })
+    public ResponseEntity<ArticleBulkResult> createArticlesBulk(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        ObjectReader reader = bulkReaders.get(ArticleFormat.fromContentType(contentType));
+        try (MappingIterator<Article> articles = reader.readValues(body)) {
+            List<Long> ids = articleService.createArticles(articles);
+            return ResponseEntity.status(HttpStatus.CREATED).body(new ArticleBulkResult(ids));
+        } catch (RuntimeJsonMappingException | IOException e) {
+            // 本文を読み込めない場合
             return ResponseEntity.badRequest().build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (RuntimeException e) {
+            // MappingIterator は読み込み途中の構文エラー（本文が途中で切れている場合など）を RuntimeException で包んで投げる
+            // （DBの障害などそれ以外の例外は 500 にする）
+            if (e.getCause() instanceof IOException) {
+                return ResponseEntity.badRequest().build();
+            }
+            throw e;
         }
     }
 
@@ -87,36 +324,90 @@ public class ArticleController {
      * PUT /api/articles/{id}
      * @param id 更新する記事のID
      * @param articleDetails 更新内容
-     * @return 更新された記事
+     * @return 更新された記事（存在しない場合は 404）
      */
     @PutMapping("/{id}")
     public ResponseEntity<Article> updateArticle(@PathVariable Long id, @RequestBody Article articleDetails) {
-        try {
-            Article updatedArticle = articleService.updateArticle(id, articleDetails);
-            return ResponseEntity.ok(updatedArticle);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        return ResponseEntity.of(articleService.updateArticle(id, articleDetails));
     }
 
     /**
      * 記事を削除
      * DELETE /api/articles/{id}
      * @param id 削除する記事のID
+     * @return 本文なしの 204（存在しない場合は 404）
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteArticle(@PathVariable Long id) {
-        try {
-            articleService.deleteArticle(id);
-            return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
+        if (!articleService.deleteArticle(id)) {
             return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 条件付きリクエスト（If-None-Match / If-Modified-Since）かどうかを判定
+     * @param webRequest リクエスト
+     * @return 条件付きリクエストの場合はtrue
+     */
+    private boolean isConditionalRequest(WebRequest webRequest) {
+        return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * 記事のETag / Last-Modifiedをレスポンスに設定し、変更がなければ304にする
+     * gzip圧縮した本文を返しうる場合やJSON以外の形式を返す場合は、バイト列が異なるため弱いETagにする
+     * （If-None-Match は弱い比較で判定するため、圧縮の有無・形式にかかわらず304にできる）
+     * ETagヘッダーは最初の呼び出しで設定されるため、1つのリクエストでは同じ weak で呼び出すこと
+     * @param webRequest リクエスト
+     * @param version 記事のバージョン情報
+     * @param weak 弱いETagにする場合はtrue
+     * @return 変更がない（304を返す）場合はtrue
+     */
+    private boolean checkNotModified(WebRequest webRequest, ArticleVersion version, boolean weak) {
+        String eTag = ArticleETags.forArticle(version);
+        return webRequest.checkNotModified(representationETag(eTag, weak), ArticleETags.lastModified(version));
+    }
+
+    /**
+     * 弱いETagにするかを判定
+     * JSON以外の形式を返す場合と、gzip圧縮して返しうる場合（シリアライズ済みのgzip、またはTomcatのレスポンスの圧縮
+     * server.compression.*）は弱いETagにする。Tomcatは強いETagを付けたレスポンスを圧縮しないため
+     * @param webRequest リクエスト
+     * @param format レスポンスの形式
+     * @return 弱いETagにする場合はtrue
+     */
+    private boolean useWeakETag(WebRequest webRequest, ArticleFormat format) {
+        return format != ArticleFormat.JSON || acceptsGzip(webRequest);
+    }
+
+    /**
+     * 表現に応じたETagを求める
+     * @param eTag 強いETag
+     * @param weak 弱いETagにする場合はtrue
+     * @return ETag
+     */
+    private String representationETag(String eTag, boolean weak) {
+        return weak ? "W/" + eTag : eTag;
+    }
+
+    /**
+     * Accept-Encoding に gzip が含まれるかを判定（q=0 で拒否されている場合は含まない）
+     * @param webRequest リクエスト
+     * @return gzip圧縮した本文を返せる場合はtrue
+     */
+    private boolean acceptsGzip(WebRequest webRequest) {
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 }
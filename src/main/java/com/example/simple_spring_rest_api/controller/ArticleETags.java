@@ -0,0 +1,93 @@
+package com.example.simple_spring_rest_api.controller;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+
+import com.example.simple_spring_rest_api.domain.ArticlePageVersion;
+import com.example.simple_spring_rest_api.domain.ArticleVersion;
+
+/**
+ * 記事の ETag / Last-Modified を求めるユーティリティ
+ * 記事のIDと更新日時(updated_at)だけから求めるため、content を読み込まずに判定できる
+ */
+public final class ArticleETags {
+
+    private ArticleETags() {
+    }
+
+    /**
+     * 記事1件分のETag（強いETag）
+     * @param version 記事のバージョン情報
+     * @return ダブルクォートで囲んだETag
+     */
+    public static String forArticle(ArticleVersion version) {
+        return "\"" + version.getId() + "-" + Long.toHexString(toEpochNanos(version.getUpdatedAt())) + "\"";
+    }
+
+    /**
+     * 記事一覧1ページ分のETag（強いETag）
+     * ページ内の記事のIDと更新日時、次ページのカーソルのダイジェストから求めるため、
+     * ページ内の記事の作成・更新・削除のいずれでも値が変わる
+     * @param pageVersion ページのバージョン情報
+     * @return ダブルクォートで囲んだETag
+     */
+    public static String forPage(ArticlePageVersion pageVersion) {
+        return "\"p-" + digest(pageVersion) + "\"";
+    }
+
+    /**
+     * 記事の概要一覧1ページ分のETag（強いETag）
+     * 同じページでも記事全体の一覧とは表現が異なるため、異なる値にする
+     * @param pageVersion ページのバージョン情報
+     * @return ダブルクォートで囲んだETag
+     */
+    public static String forSummaryPage(ArticlePageVersion pageVersion) {
+        return "\"s-" + digest(pageVersion) + "\"";
+    }
+
+    private static String digest(ArticlePageVersion pageVersion) {
+        ByteBuffer buffer = ByteBuffer.allocate((pageVersion.getVersions().size() * 2 + 1) * Long.BYTES);
+        for (ArticleVersion version : pageVersion.getVersions()) {
+            buffer.putLong(version.getId());
+            buffer.putLong(toEpochNanos(version.getUpdatedAt()));
+        }
+        buffer.putLong(pageVersion.getNextCursor() != null ? pageVersion.getNextCursor() : -1L);
+
+        byte[] digest = sha256().digest(buffer.array());
+        return HexFormat.of().formatHex(digest, 0, 16);
+    }
+
+    /**
+     * 記事1件分のLast-Modified
+     * @param version 記事のバージョン情報
+     * @return エポックミリ秒（更新日時が不明な場合は-1）
+     */
+    public static long lastModified(ArticleVersion version) {
+        LocalDateTime updatedAt = version.getUpdatedAt();
+        if (updatedAt == null) {
+            return -1L;
+        }
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long toEpochNanos(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return 0L;
+        }
+        Instant instant = dateTime.atZone(ZoneId.systemDefault()).toInstant();
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256が利用できません", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.simple_spring_rest_api.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.simple_spring_rest_api.event.ArticleChangeFeed;
+
+/**
+ * 記事の変更フィード（Server-Sent Events）を配信するControllerクラス
+ * 記事一覧を定期的に取得し直す代わりに、作成・更新・削除をプッシュで受け取る
+ */
+@RequestMapping("/api/articles/events")
+@RestController
+public class ArticleEventController {
+
+    private final ArticleChangeFeed changeFeed;
+
+    @Autowired
+    public ArticleEventController(ArticleChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * 記事の変更を購読
+     * GET /api/articles/events
+     * イベント名は created / updated / deleted。再接続時は Last-Event-ID の続きから送信し、
+     * 続きを送信できない場合は reset イベントを送る（クライアントは一覧を取得し直す）
+     * 購読者数が上限に達している場合は 503 と Retry-After ヘッダーを返す（ArticleExceptionHandler）
+     * @param lastEventId 最後に受信したイベントのID
+     * @return SSEのレスポンス
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return ResponseEntity.ok()
+                // リバースプロキシでのバッファリングを無効にする
+                .header("X-Accel-Buffering", "no")
+                .body(changeFeed.subscribe(lastEventId));
+    }
+}
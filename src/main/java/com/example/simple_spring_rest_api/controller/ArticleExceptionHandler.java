@@ -0,0 +1,66 @@
+package com.example.simple_spring_rest_api.controller;
+
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.example.simple_spring_rest_api.event.TooManySubscribersException;
+import com.example.simple_spring_rest_api.service.InvalidRequestException;
+import com.example.simple_spring_rest_api.service.WriteQueueFullException;
+import com.example.simple_spring_rest_api.service.WriteTimeoutException;
+
+/**
+ * 記事APIの例外をレスポンスに変換するクラス
+ *
+ * 記事が存在しない場合は例外ではなく Optional / boolean で扱うため、ここでは扱わない。
+ * ここにない例外（DBの障害など）は 404 や 400 にせず、Spring Boot の既定のエラー処理で 500 を返す。
+ * IllegalArgumentException 全体は扱わない（設定やプログラムの誤りによる例外を 400 として隠さないため）。
+ * パラメーターの型変換・本文の読み込みの失敗は Spring MVC の既定の処理で 400 になる。
+ */
+@RestControllerAdvice(assignableTypes = { ArticleController.class, ArticleEventController.class })
+public class ArticleExceptionHandler {
+
+    /**
+     * 入力値・パラメーターが不正な場合、Content-Type を解析できない場合は 400 を返す
+     * （Service の InvalidRequestException はスタックトレースを記録しない）
+     */
+    @ExceptionHandler({ InvalidRequestException.class, InvalidMediaTypeException.class })
+    public ResponseEntity<Void> handleInvalidRequest(RuntimeException e) {
+        return ResponseEntity.badRequest().build();
+    }
+
+    /**
+     * 書き込みが集中してキューが満杯の場合は、時間をおいて再試行してもらう
+     */
+    @ExceptionHandler(WriteQueueFullException.class)
+    public ResponseEntity<Void> handleWriteQueueFull(WriteQueueFullException e) {
+        return serviceUnavailable(e.getRetryAfter());
+    }
+
+    /**
+     * 書き込みが集中して時間内に保存が始まらなかった場合（取り消し済み）も、時間をおいて再試行してもらう
+     */
+    @ExceptionHandler(WriteTimeoutException.class)
+    public ResponseEntity<Void> handleWriteTimeout(WriteTimeoutException e) {
+        return serviceUnavailable(e.getRetryAfter());
+    }
+
+    /**
+     * 変更フィードの購読者数が上限に達している場合は、時間をおいて再接続してもらう
+     */
+    @ExceptionHandler(TooManySubscribersException.class)
+    public ResponseEntity<Void> handleTooManySubscribers(TooManySubscribersException e) {
+        return serviceUnavailable(e.getRetryAfter());
+    }
+
+    private static ResponseEntity<Void> serviceUnavailable(Duration retryAfter) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())))
+                .build();
+    }
+}
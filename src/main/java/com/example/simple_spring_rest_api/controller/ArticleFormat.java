@@ -0,0 +1,110 @@
+package com.example.simple_spring_rest_api.controller;
+
+import java.util.List;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * 記事APIの本文の形式（レスポンスは Accept、リクエストは Content-Type で選択する）
+ * CBOR / Smile はJSONと同じ構造をバイナリで表現したもので、サービス間の呼び出し向け
+ */
+public enum ArticleFormat {
+
+    /**
+     * JSON。Accept で他の形式の方が優先されていない場合のデフォルト
+     */
+    JSON(MediaType.APPLICATION_JSON),
+
+    /**
+     * CBOR (RFC 8949)
+     */
+    CBOR(MediaType.APPLICATION_CBOR),
+
+    /**
+     * Smile（Jackson のバイナリJSON形式）
+     */
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    /**
+     * Smile のメディアタイプ（@RequestMapping の consumes / produces 用）
+     */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private final MediaType mediaType;
+
+    ArticleFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Accept ヘッダーからレスポンスの形式を選ぶ
+     * q値が最も大きい形式を選び、同じ場合はJSONを優先する（Acceptがない・解釈できない場合はJSON）
+     * @param accept Accept ヘッダーの値
+     * @return レスポンスの形式
+     */
+    public static ArticleFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+
+        ArticleFormat selected = JSON;
+        double selectedQuality = quality(JSON.mediaType, acceptedTypes);
+        for (ArticleFormat format : values()) {
+            double quality = quality(format.mediaType, acceptedTypes);
+            if (quality > selectedQuality) {
+                selected = format;
+                selectedQuality = quality;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Content-Type ヘッダーからリクエスト本文の形式を求める（JSON・NDJSONなどはJSON）
+     * @param contentType Content-Type ヘッダーの値
+     * @return リクエスト本文の形式
+     */
+    public static ArticleFormat fromContentType(String contentType) {
+        if (contentType == null) {
+            return JSON;
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        for (ArticleFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(mediaType)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+
+    /**
+     * 形式に最も具体的に一致する範囲（type/subtype > type/* > *&#47;*）のq値を求める
+     * @return q値（一致する範囲がない場合は0）
+     */
+    private static double quality(MediaType mediaType, List<MediaType> acceptedTypes) {
+        double quality = 0;
+        int specificity = -1;
+        for (MediaType accepted : acceptedTypes) {
+            if (!accepted.includes(mediaType)) {
+                continue;
+            }
+            int acceptedSpecificity = accepted.isWildcardType() ? 0 : accepted.isWildcardSubtype() ? 1 : 2;
+            if (acceptedSpecificity > specificity) {
+                specificity = acceptedSpecificity;
+                quality = accepted.getQualityValue();
+            }
+        }
+        return quality;
+    }
+}
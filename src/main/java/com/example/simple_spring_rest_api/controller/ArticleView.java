@@ -0,0 +1,38 @@
+package com.example.simple_spring_rest_api.controller;
+
+import java.util.Locale;
+
+import com.example.simple_spring_rest_api.service.InvalidRequestException;
+
+/**
+ * 記事一覧・検索結果の表現（?view= で指定する）
+ */
+public enum ArticleView {
+
+    /**
+     * 概要（ID・タイトル・ティーザー・日時）。一覧・検索結果のデフォルト
+     */
+    SUMMARY,
+
+    /**
+     * 本文を含む記事全体
+     */
+    FULL;
+
+    /**
+     * クエリパラメーターの値から表現を求める
+     * @param value パラメーターの値（nullの場合はSUMMARY）
+     * @return 表現
+     * @throws InvalidRequestException 不明な値の場合
+     */
+    public static ArticleView parse(String value) {
+        if (value == null) {
+            return SUMMARY;
+        }
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "summary" -> SUMMARY;
+            case "full" -> FULL;
+            default -> throw new InvalidRequestException("viewには summary または full を指定してください");
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.simple_spring_rest_api.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.simple_spring_rest_api.cache.CacheStats;
+import com.example.simple_spring_rest_api.security.VerifiedCredentialAuthenticationProvider;
+import com.example.simple_spring_rest_api.service.ArticleService;
+import com.example.simple_spring_rest_api.service.UserDetailsServiceImpl;
+
+/**
+ * プロセス内キャッシュの統計情報を返すControllerクラス（運用監視用）
+ */
+@RequestMapping("/api/cache-stats")
+@RestController
+public class CacheStatsController {
+
+    private final ArticleService articleService;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final VerifiedCredentialAuthenticationProvider authenticationProvider;
+
+    @Autowired
+    public CacheStatsController(ArticleService articleService,
+            UserDetailsServiceImpl userDetailsService,
+            VerifiedCredentialAuthenticationProvider authenticationProvider) {
+        this.articleService = articleService;
+        this.userDetailsService = userDetailsService;
+        this.authenticationProvider = authenticationProvider;
+    }
+
+    /**
+     * キャッシュごとの統計情報を取得
+     * GET /api/cache-stats
+     * @return キャッシュ名と統計情報のマップ
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, CacheStats>> getCacheStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("articles", articleService.getArticleCacheStats());
+        stats.put("article-json", articleService.getArticleJsonCacheStats());
+        stats.put("users", userDetailsService.getUserCacheStats());
+        // credentials のヒット数 = BCryptでの照合を省略できた回数
+        stats.put("credentials", authenticationProvider.getCredentialCacheStats());
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.simple_spring_rest_api.domain;
 
 import java.time.LocalDateTime;
+import java.util.function.Supplier;
 
 /**
  * 記事を表すドメインクラス
@@ -14,6 +15,9 @@ public class Article {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    // 本文を最初に参照したときに読み込む処理（圧縮して保存された本文の展開用。読み込み後はnull）
+    private volatile Supplier<String> contentLoader;
+    
     // デフォルトコンストラクタ
     public Article() {
     }
@@ -43,6 +47,9 @@ public class Article {
     }
     
     public String getContent() {
+        if (contentLoader != null) {
+            loadContent();
+        }
         return content;
     }
     
@@ -65,6 +72,25 @@ public class Article {
     
     public void setContent(String content) {
         this.content = content;
+        this.contentLoader = null;
+    }
+    
+    /**
+     * 本文を最初に参照したときに読み込むようにする
+     * 一覧の変換などで本文を参照しない場合は、読み込み（展開）のコストがかからない
+     * @param loader 本文を読み込む処理（1回だけ呼び出される）
+     */
+    public void deferContent(Supplier<String> loader) {
+        this.content = null;
+        this.contentLoader = loader;
+    }
+    
+    private synchronized void loadContent() {
+        Supplier<String> loader = contentLoader;
+        if (loader != null) {
+            content = loader.get();
+            contentLoader = null;
+        }
     }
     
     public void setCreatedAt(LocalDateTime createdAt) {
@@ -76,12 +102,20 @@ public class Article {
     }
     
     // toString メソッド（デバッグ用）
+    // 本文は出力せず、長さ（未展開の場合はその旨）だけを出力する（ログ出力で本文を展開しないように）
     @Override
     public String toString() {
+        String contentState;
+        if (contentLoader != null) {
+            contentState = "deferred";
+        } else {
+            String current = content;
+            contentState = current != null ? "length=" + current.length() : "null";
+        }
         return "Article{" +
                 "id=" + id +
                 ", title='" + title + '\'' +
-                ", content='" + content + '\'' +
+                ", content=" + contentState +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
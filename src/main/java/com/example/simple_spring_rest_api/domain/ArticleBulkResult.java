@@ -0,0 +1,30 @@
+package com.example.simple_spring_rest_api.domain;
+
+import java.util.List;
+
+/**
+ * 記事の一括作成の結果を表すドメインクラス
+ */
+public class ArticleBulkResult {
+
+    private final int count;
+    private final List<Long> ids;
+
+    public ArticleBulkResult(List<Long> ids) {
+        this.count = ids.size();
+        this.ids = ids;
+    }
+
+    // ゲッターメソッド
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * 生成された記事ID
+     * @return 記事IDのリスト（リクエストでの記事の順序と同じ）
+     */
+    public List<Long> getIds() {
+        return ids;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.simple_spring_rest_api.domain;
+
+import java.util.List;
+
+/**
+ * 複数IDによる記事の一括取得の結果を表すドメインクラス
+ */
+public class ArticleMultiGetResult {
+
+    private final List<Article> articles;
+    private final List<Long> missingIds;
+
+    public ArticleMultiGetResult(List<Article> articles, List<Long> missingIds) {
+        this.articles = articles;
+        this.missingIds = missingIds;
+    }
+
+    // ゲッターメソッド
+    /**
+     * 見つかった記事
+     * @return 記事のリスト（リクエストでのIDの順序）
+     */
+    public List<Article> getArticles() {
+        return articles;
+    }
+
+    /**
+     * 見つからなかった記事ID
+     * @return 記事IDのリスト（リクエストでのIDの順序）
+     */
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+}
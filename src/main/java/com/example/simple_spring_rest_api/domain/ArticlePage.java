@@ -0,0 +1,43 @@
+package com.example.simple_spring_rest_api.domain;
+
+import java.util.List;
+
+/**
+ * 記事一覧の1ページ分を表すドメインクラス
+ * キーセット（カーソル）方式のページングで使用する
+ */
+public class ArticlePage {
+
+    private final List<Article> articles;
+    private final Long nextCursor;
+
+    public ArticlePage(List<Article> articles, Long nextCursor) {
+        this.articles = articles;
+        this.nextCursor = nextCursor;
+    }
+
+    // ゲッターメソッド
+    public List<Article> getArticles() {
+        return articles;
+    }
+
+    /**
+     * 次ページ取得用のカーソル
+     * @return 次ページの after に指定するID（最終ページの場合はnull）
+     */
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * ページのバージョン情報を取得
+     * @return 記事ごとのIDと更新日時、次ページのカーソル
+     */
+    public ArticlePageVersion toVersion() {
+        return new ArticlePageVersion(articles.stream().map(ArticleVersion::of).toList(), nextCursor);
+    }
+}
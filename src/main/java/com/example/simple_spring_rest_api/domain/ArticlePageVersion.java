@@ -0,0 +1,27 @@
+package com.example.simple_spring_rest_api.domain;
+
+import java.util.List;
+
+/**
+ * 記事一覧1ページ分のバージョン情報
+ * ページに含まれる記事のIDと更新日時、次ページのカーソルからページのETagを求める
+ */
+public class ArticlePageVersion {
+
+    private final List<ArticleVersion> versions;
+    private final Long nextCursor;
+
+    public ArticlePageVersion(List<ArticleVersion> versions, Long nextCursor) {
+        this.versions = versions;
+        this.nextCursor = nextCursor;
+    }
+
+    // ゲッターメソッド
+    public List<ArticleVersion> getVersions() {
+        return versions;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+}
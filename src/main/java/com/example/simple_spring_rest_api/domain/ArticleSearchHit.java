@@ -0,0 +1,55 @@
+package com.example.simple_spring_rest_api.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * 記事検索の結果1件を表すドメインクラス
+ */
+public class ArticleSearchHit {
+
+    private final Long id;
+    private final String title;
+    private final String teaser;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final double score;
+
+    public ArticleSearchHit(Long id, String title, String teaser, LocalDateTime createdAt, LocalDateTime updatedAt,
+            double score) {
+        this.id = id;
+        this.title = title;
+        this.teaser = teaser;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.score = score;
+    }
+
+    // ゲッターメソッド
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getTeaser() {
+        return teaser;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * 検索語との関連度（BM25）
+     * @return スコア（大きいほど関連度が高い）
+     */
+    public double getScore() {
+        return score;
+    }
+}
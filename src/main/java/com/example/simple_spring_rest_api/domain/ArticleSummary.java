@@ -0,0 +1,85 @@
+package com.example.simple_spring_rest_api.domain;
+
+import java.text.BreakIterator;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * 記事の概要（一覧・検索結果用）を表すドメインクラス
+ * 本文(content)は含まず、先頭の一部を抜き出したティーザーだけを持つ
+ */
+public class ArticleSummary {
+
+    /**
+     * ティーザーの最大文字数（コードポイント数。省略記号を除く）
+     * articles.teaser 列 (VARCHAR(255)) に収まる長さにする
+     */
+    public static final int TEASER_LENGTH = 140;
+
+    private static final String ELLIPSIS = "…";
+
+    private final Long id;
+    private final String title;
+    private final String teaser;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public ArticleSummary(Long id, String title, String teaser, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.teaser = teaser;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * 記事から概要を作成
+     * @param article 記事
+     * @return 記事の概要
+     */
+    public static ArticleSummary of(Article article) {
+        return new ArticleSummary(article.getId(), article.getTitle(), teaserOf(article.getContent()),
+                article.getCreatedAt(), article.getUpdatedAt());
+    }
+
+    /**
+     * 本文からティーザーを作成
+     * TEASER_LENGTH 文字を超える場合は文字の境界（サロゲートペアや結合文字を分割しない位置）で切り詰め、
+     * 末尾に省略記号を付ける
+     * @param content 本文
+     * @return ティーザー（本文がnullの場合はnull）
+     */
+    public static String teaserOf(String content) {
+        if (content == null || content.codePointCount(0, content.length()) <= TEASER_LENGTH) {
+            return content;
+        }
+        int end = content.offsetByCodePoints(0, TEASER_LENGTH);
+        BreakIterator characters = BreakIterator.getCharacterInstance(Locale.ROOT);
+        characters.setText(content);
+        if (!characters.isBoundary(end)) {
+            end = characters.preceding(end);
+        }
+        return content.substring(0, end) + ELLIPSIS;
+    }
+
+    // ゲッターメソッド
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getTeaser() {
+        return teaser;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
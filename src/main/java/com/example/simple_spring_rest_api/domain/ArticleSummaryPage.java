@@ -0,0 +1,45 @@
+package com.example.simple_spring_rest_api.domain;
+
+import java.util.List;
+
+/**
+ * 記事の概要一覧の1ページ分を表すドメインクラス
+ * キーセット（カーソル）方式のページングで使用する
+ */
+public class ArticleSummaryPage {
+
+    private final List<ArticleSummary> summaries;
+    private final Long nextCursor;
+
+    public ArticleSummaryPage(List<ArticleSummary> summaries, Long nextCursor) {
+        this.summaries = summaries;
+        this.nextCursor = nextCursor;
+    }
+
+    // ゲッターメソッド
+    public List<ArticleSummary> getSummaries() {
+        return summaries;
+    }
+
+    /**
+     * 次ページ取得用のカーソル
+     * @return 次ページの after に指定するID（最終ページの場合はnull）
+     */
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * ページのバージョン情報を取得
+     * @return 記事ごとのIDと更新日時、次ページのカーソル
+     */
+    public ArticlePageVersion toVersion() {
+        return new ArticlePageVersion(summaries.stream()
+                .map(summary -> new ArticleVersion(summary.getId(), summary.getUpdatedAt()))
+                .toList(), nextCursor);
+    }
+}
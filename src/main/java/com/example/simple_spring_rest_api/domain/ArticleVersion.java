@@ -0,0 +1,36 @@
+package com.example.simple_spring_rest_api.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * 記事のバージョン情報（IDと更新日時のみ）
+ * content を読み込まずに ETag / Last-Modified を求めるために使用する
+ */
+public class ArticleVersion {
+
+    private final Long id;
+    private final LocalDateTime updatedAt;
+
+    public ArticleVersion(Long id, LocalDateTime updatedAt) {
+        this.id = id;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * 記事からバージョン情報を作成
+     * @param article 記事
+     * @return バージョン情報
+     */
+    public static ArticleVersion of(Article article) {
+        return new ArticleVersion(article.getId(), article.getUpdatedAt());
+    }
+
+    // ゲッターメソッド
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
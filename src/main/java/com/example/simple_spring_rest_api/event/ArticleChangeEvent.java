@@ -0,0 +1,62 @@
+package com.example.simple_spring_rest_api.event;
+
+/**
+ * 記事の変更イベント（SSEで購読者に送信する1件分）
+ * data は送信のたびにシリアライズしないよう、発行時にJSONにしたものを保持する
+ */
+public class ArticleChangeEvent {
+
+    /**
+     * 変更の種類（SSEのイベント名として送信する）
+     */
+    public enum Type {
+        CREATED("created"),
+        UPDATED("updated"),
+        DELETED("deleted");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public String getEventName() {
+            return eventName;
+        }
+    }
+
+    private final long sequence;
+    private final String id;
+    private final Type type;
+    private final long articleId;
+    private final String data;
+
+    public ArticleChangeEvent(long sequence, String id, Type type, long articleId, String data) {
+        this.sequence = sequence;
+        this.id = id;
+        this.type = type;
+        this.articleId = articleId;
+        this.data = data;
+    }
+
+    // ゲッターメソッド
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getArticleId() {
+        return articleId;
+    }
+
+    public String getData() {
+        return data;
+    }
+}
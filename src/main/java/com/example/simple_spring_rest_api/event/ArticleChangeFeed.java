@@ -0,0 +1,432 @@
+package com.example.simple_spring_rest_api.event;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.domain.ArticleSummary;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 記事の変更フィード（Server-Sent Events）
+ *
+ * 記事の作成・更新・削除を上限付きのリングバッファに記録し、SSEの購読者に配信する。
+ * <ul>
+ * <li>購読者はリングバッファ上の送信済みの位置だけを持ち、イベントを個別にキューイングしない</li>
+ * <li>書き込み側はリングバッファへの追加と配信スレッドの起床だけを行い、購読者への送信を待たない</li>
+ * <li>送信は未送信のイベントがある購読者だけ仮想スレッドで行う（待機中の購読者はスレッドを使わない）</li>
+ * <li>Last-Event-ID がリングバッファに残っていれば続きから再送し、残っていなければ reset イベントを送る</li>
+ * <li>リングバッファ1周分以上遅れた購読者（遅い購読者）は切断する</li>
+ * <li>1回の送信が send-timeout を過ぎても終わらない購読者（受信しないクライアント）は、配信スレッドが切断する</li>
+ * </ul>
+ */
+@Component
+public class ArticleChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleChangeFeed.class);
+
+    private static final String RESET_EVENT = "reset";
+
+    private final ObjectMapper objectMapper;
+    private final AtomicReferenceArray<ArticleChangeEvent> ring;
+    private final int maxSubscribers;
+    private final Duration subscriberTimeout;
+    private final Duration heartbeatInterval;
+    private final Duration sendTimeout;
+    private final Duration retryAfter;
+
+    // 再起動前のイベントIDと区別するため、イベントIDに起動ごとに異なる接頭辞を付ける
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Object appendLock = new Object();
+    // 最後に追加したイベントの連番（0はイベントなし）。リングバッファへの書き込みの後に更新する
+    private volatile long lastSequence;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("article-events-sender-", 0).factory());
+    private final Counter publishedCounter;
+    private final Counter slowDroppedCounter;
+    private final Counter stalledDroppedCounter;
+
+    private volatile boolean running;
+    private Thread fanOutThread;
+
+    @Autowired
+    public ArticleChangeFeed(ObjectMapper objectMapper,
+            MeterRegistry registry,
+            @Value("${article.events.buffer-size:10000}") int bufferSize,
+            @Value("${article.events.max-subscribers:50000}") int maxSubscribers,
+            @Value("${article.events.subscriber-timeout:30m}") Duration subscriberTimeout,
+            @Value("${article.events.heartbeat-interval:30s}") Duration heartbeatInterval,
+            @Value("${article.events.send-timeout:10s}") Duration sendTimeout,
+            @Value("${article.events.retry-after:5s}") Duration retryAfter) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("article.events.buffer-size は1以上を指定してください");
+        }
+        if (sendTimeout.isZero() || sendTimeout.isNegative()) {
+            throw new IllegalArgumentException("article.events.send-timeout は正の値を指定してください");
+        }
+        this.objectMapper = objectMapper;
+        this.ring = new AtomicReferenceArray<>(bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.subscriberTimeout = subscriberTimeout;
+        this.heartbeatInterval = heartbeatInterval;
+        this.sendTimeout = sendTimeout;
+        this.retryAfter = retryAfter;
+        this.publishedCounter = Counter.builder("article.events.published")
+                .description("発行した記事の変更イベント")
+                .register(registry);
+        this.slowDroppedCounter = Counter.builder("article.events.dropped")
+                .description("イベントの受信が追いつかず切断した購読者")
+                .tag("reason", "slow")
+                .register(registry);
+        this.stalledDroppedCounter = Counter.builder("article.events.dropped")
+                .description("イベントの受信が追いつかず切断した購読者")
+                .tag("reason", "stalled")
+                .register(registry);
+        Gauge.builder("article.events.subscribers", subscribers, Set::size)
+                .description("変更フィードの購読者数")
+                .register(registry);
+    }
+
+    /**
+     * 配信スレッドを開始
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        fanOutThread = new Thread(this::runFanOut, "article-events-fan-out");
+        fanOutThread.setDaemon(true);
+        fanOutThread.start();
+    }
+
+    /**
+     * 配信を停止し、すべての購読者を切断する
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (fanOutThread != null) {
+            fanOutThread.interrupt();
+        }
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+            subscriber.emitter.complete();
+        }
+    }
+
+    /**
+     * 変更フィードを購読
+     * @param lastEventId 最後に受信したイベントのID（Last-Event-ID ヘッダー。初回はnull）
+     * @return SSEのレスポンス
+     * @throws TooManySubscribersException 購読者数が上限に達している場合
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new TooManySubscribersException(maxSubscribers, retryAfter);
+        }
+        SseEmitter emitter = new SseEmitter(subscriberTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+
+        long latest = lastSequence;
+        long resumeFrom = resumeSequence(lastEventId, latest);
+        if (resumeFrom < 0) {
+            // 再送できないため、クライアントに一覧の取得し直しを促す
+            subscriber.cursor = latest;
+            subscriber.resetPending = true;
+        } else {
+            subscriber.cursor = resumeFrom;
+        }
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.signal();
+        return emitter;
+    }
+
+    /**
+     * 記事の作成を通知
+     * @param article 作成された記事
+     */
+    public void articleCreated(Article article) {
+        publish(ArticleChangeEvent.Type.CREATED, article.getId(), ArticleSummary.of(article));
+    }
+
+    /**
+     * 記事の更新を通知
+     * @param article 更新された記事
+     */
+    public void articleUpdated(Article article) {
+        publish(ArticleChangeEvent.Type.UPDATED, article.getId(), ArticleSummary.of(article));
+    }
+
+    /**
+     * 記事の削除を通知
+     * @param id 削除された記事のID
+     */
+    public void articleDeleted(Long id) {
+        publish(ArticleChangeEvent.Type.DELETED, id, Map.of("id", id));
+    }
+
+    private void publish(ArticleChangeEvent.Type type, long articleId, Object payload) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            // 通知の失敗で書き込みのリクエストを失敗させない
+            log.warn("記事の変更イベントを作成できませんでした: id={}", articleId, e);
+            return;
+        }
+        synchronized (appendLock) {
+            long sequence = lastSequence + 1;
+            ring.set(index(sequence), new ArticleChangeEvent(sequence, eventId(sequence), type, articleId, data));
+            lastSequence = sequence;
+        }
+        publishedCounter.increment();
+        wakeUp.release();
+    }
+
+    /**
+     * Last-Event-ID から再送を始める位置を求める
+     * @return 送信済みとみなす連番（再送できない場合は -1）
+     */
+    private long resumeSequence(String lastEventId, long latest) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            // 初回の購読は、これから発生するイベントだけを送る
+            return latest;
+        }
+        int separator = lastEventId.indexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            // 再起動前のイベントID
+            return -1;
+        }
+        long sequence;
+        try {
+            sequence = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        if (sequence > latest || sequence < oldestSequence(latest) - 1) {
+            return -1;
+        }
+        return sequence;
+    }
+
+    /**
+     * 配信スレッド: イベントの発行を待ち、未送信のイベントがある購読者の送信を開始する
+     * イベントがないまま heartbeatInterval が経過した場合はハートビートを送り、切断された接続を検出する
+     * 送信が sendTimeout を過ぎても終わらない購読者は、イベントがなくても sendTimeout ごとに確認して切断する
+     */
+    private void runFanOut() {
+        long pollMillis = Math.min(heartbeatInterval.toMillis(), sendTimeout.toMillis());
+        long lastActivity = System.nanoTime();
+        while (running) {
+            boolean published;
+            try {
+                published = wakeUp.tryAcquire(pollMillis, TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+            } catch (InterruptedException e) {
+                return;
+            }
+            long now = System.nanoTime();
+            boolean heartbeat = !published && now - lastActivity >= heartbeatInterval.toNanos();
+            if (published || heartbeat) {
+                lastActivity = now;
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.isStalled(now)) {
+                    subscriber.dropStalled();
+                    continue;
+                }
+                if (heartbeat) {
+                    subscriber.heartbeatPending = true;
+                }
+                if (published || heartbeat) {
+                    subscriber.signal();
+                }
+            }
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private long oldestSequence(long latest) {
+        return Math.max(1, latest - ring.length() + 1);
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % ring.length());
+    }
+
+    /**
+     * 購読者
+     * 送信は scheduled フラグで1つのスレッドに限定するため、cursor はそのスレッドだけが更新する
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // 送信済みのイベントの連番
+        private long cursor;
+        // 送信中の場合、送信を始めた時刻（System.nanoTime）と送信しているスレッド
+        private volatile boolean sending;
+        private volatile long sendStartedAt;
+        private volatile Thread sender;
+        private volatile boolean resetPending;
+        private volatile boolean heartbeatPending;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * 送信中でなければ送信を開始する
+         */
+        private void signal() {
+            if (closed || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // 停止中
+                scheduled.set(false);
+                close();
+            }
+        }
+
+        /**
+         * 未送信のイベントをすべて送信する
+         */
+        private void drain() {
+            sender = Thread.currentThread();
+            try {
+                if (resetPending) {
+                    resetPending = false;
+                    send(SseEmitter.event()
+                            .id(eventId(cursor))
+                            .name(RESET_EVENT)
+                            .data("{\"reason\":\"resume-unavailable\"}", MediaType.APPLICATION_JSON));
+                }
+                if (heartbeatPending) {
+                    heartbeatPending = false;
+                    send(SseEmitter.event().comment("heartbeat"));
+                }
+                long latest;
+                while (!closed && cursor < (latest = lastSequence)) {
+                    long next = cursor + 1;
+                    ArticleChangeEvent event = ring.get(index(next));
+                    if (next < oldestSequence(latest) || event == null || event.getSequence() != next) {
+                        // 送信が遅れている間に未送信のイベントが上書きされた
+                        dropSlowConsumer();
+                        return;
+                    }
+                    send(SseEmitter.event()
+                            .id(event.getId())
+                            .name(event.getType().getEventName())
+                            .data(event.getData(), MediaType.APPLICATION_JSON));
+                    cursor = next;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // クライアントが切断した
+                close();
+            } finally {
+                sender = null;
+                scheduled.set(false);
+            }
+            // 送信中に発行されたイベントを取りこぼさない
+            if (!closed && (cursor < lastSequence || resetPending || heartbeatPending)) {
+                signal();
+            }
+        }
+
+        /**
+         * 1件送信する（送信中は配信スレッドが経過時間を確認する）
+         */
+        private void send(SseEventBuilder event) throws IOException {
+            sendStartedAt = System.nanoTime();
+            sending = true;
+            try {
+                emitter.send(event);
+            } finally {
+                sending = false;
+            }
+        }
+
+        /**
+         * 送信を始めてから sendTimeout を過ぎても終わっていないか
+         */
+        private boolean isStalled(long now) {
+            return sending && now - sendStartedAt >= sendTimeout.toNanos();
+        }
+
+        /**
+         * 送信が終わらない購読者を切断する（配信スレッドから呼び出す）
+         * 送信中のスレッドは emitter のロックを持っているため、配信スレッドでは complete を呼び出さない。
+         * 送信中のスレッドに割り込み、接続の終了は別の仮想スレッドで行う（送信が失敗して戻った後に終了する）。
+         */
+        private void dropStalled() {
+            if (closed) {
+                return;
+            }
+            stalledDroppedCounter.increment();
+            log.debug("送信が {} 以上終わらない購読者を切断しました: cursor={}", sendTimeout, cursor);
+            close();
+            Thread current = sender;
+            if (current != null) {
+                current.interrupt();
+            }
+            try {
+                senders.execute(emitter::complete);
+            } catch (RejectedExecutionException e) {
+                // 停止中（stop で終了する）
+            }
+        }
+
+        private void dropSlowConsumer() {
+            slowDroppedCounter.increment();
+            log.debug("イベントの受信が追いつかない購読者を切断しました: cursor={}, latest={}", cursor, lastSequence);
+            close();
+            // 再接続時の Last-Event-ID はリングバッファに残っていないため、reset イベントを受け取る
+            emitter.complete();
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+}
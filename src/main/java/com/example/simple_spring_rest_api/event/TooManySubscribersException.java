@@ -0,0 +1,20 @@
+package com.example.simple_spring_rest_api.event;
+
+import java.time.Duration;
+
+/**
+ * 変更フィードの購読者数が上限に達しているため、購読を受け付けられない場合の例外
+ */
+public class TooManySubscribersException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManySubscribersException(int maxSubscribers, Duration retryAfter) {
+        super("変更フィードの購読者数が上限(" + maxSubscribers + ")に達しています");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
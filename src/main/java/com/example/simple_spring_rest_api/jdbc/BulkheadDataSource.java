@@ -0,0 +1,131 @@
+package com.example.simple_spring_rest_api.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 同時に使用できる接続数をセマフォで制限するDataSource（バルクヘッド）
+ *
+ * 仮想スレッドではリクエストごとにスレッドが作られるため、数千のスレッドが同時に接続プールへ殺到し、
+ * 接続の取得待ちがタイムアウトする（pool-timeout storm）。
+ * 許可数を接続プールの最大サイズと同じにし、接続を取得できるスレッドだけがプールに到達するようにする。
+ * 待機中のスレッドはセマフォ上で公平（FIFO）に待つ。仮想スレッドの待機はキャリアスレッドを占有しない。
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * @param targetDataSource 接続プール
+     * @param poolName メトリクスのタグに使用する接続プール名
+     * @param maxConcurrent 同時に使用できる接続数（接続プールの最大サイズ）
+     * @param maxWait 許可の取得を待つ最大時間
+     * @param registry メトリクスの登録先
+     */
+    public BulkheadDataSource(DataSource targetDataSource, String poolName, int maxConcurrent, Duration maxWait,
+            MeterRegistry registry) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.waitTimer = Timer.builder("jdbc.bulkhead.wait")
+                .description("バルクヘッドの許可の取得待ち時間")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .tag("pool", poolName)
+                .register(registry);
+        this.rejectedCounter = Counter.builder("jdbc.bulkhead.rejected")
+                .description("待ち時間の上限を超えて拒否された接続の取得")
+                .tag("pool", poolName)
+                .register(registry);
+        Gauge.builder("jdbc.bulkhead.waiting", permits, Semaphore::getQueueLength)
+                .description("許可の取得を待っているスレッド数")
+                .tag("pool", poolName)
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return wrapConnection(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return wrapConnection(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("接続の取得待ち中に割り込まれました", e);
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejectedCounter.increment();
+            throw new SQLTransientConnectionException("同時に使用できる接続数の上限に達しています。待機スレッド数: "
+                    + permits.getQueueLength());
+        }
+    }
+
+    /**
+     * 接続をクローズしたときに許可を返却するプロキシで包む
+     */
+    private Connection wrapConnection(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                try {
+                    return invokeTarget(connection, method, args);
+                } finally {
+                    permits.release();
+                }
+            }
+            return invokeTarget(connection, method, args);
+        };
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { Connection.class }, handler);
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.simple_spring_rest_api.jdbc;
+
+/**
+ * 1リクエストあたりのSQL件数の上限を超えた場合の例外
+ * jdbc.tracing.fail-on-budget-exceeded=true の場合のみ発生する（テストで余分なクエリを検出するため）
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(int statementCount, int queryBudget, String sql) {
+        super("1リクエストあたりのSQL件数の上限を超えました。件数: " + statementCount
+                + ", 上限: " + queryBudget + ", SQL: " + sql);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.simple_spring_rest_api.jdbc;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * HTTPリクエストごとにSQLの件数・接続の取得回数を集計するフィルター
+ * 上限（クエリ予算）を超えたリクエストはWARNログに出力する
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final int queryBudget;
+    private final boolean failOnBudgetExceeded;
+    private final List<String> excludedPaths;
+    private final DistributionSummary statementsPerRequest;
+    private final DistributionSummary connectionsPerRequest;
+
+    public QueryBudgetFilter(int queryBudget, boolean failOnBudgetExceeded, List<String> excludedPaths,
+            MeterRegistry registry) {
+        this.queryBudget = queryBudget;
+        this.failOnBudgetExceeded = failOnBudgetExceeded;
+        this.excludedPaths = excludedPaths;
+        this.statementsPerRequest = DistributionSummary.builder("jdbc.request.statements")
+                .description("1リクエストあたりのSQLの件数")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.connectionsPerRequest = DistributionSummary.builder("jdbc.request.connections")
+                .description("1リクエストあたりの接続の取得回数")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // 一括作成・エクスポートのように件数に比例してSQLを実行するエンドポイントは対象外
+        return excludedPaths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.start(queryBudget, failOnBudgetExceeded);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.end();
+            if (stats.getStatementCount() > 0) {
+                statementsPerRequest.record(stats.getStatementCount());
+                connectionsPerRequest.record(stats.getConnectionCount());
+            }
+            if (stats.isBudgetExceeded()) {
+                log.warn("SQLの件数が上限を超えました: {} {} statements={} (上限 {}) connections={} time={}ms",
+                        request.getMethod(), request.getRequestURI(), stats.getStatementCount(),
+                        stats.getQueryBudget(), stats.getConnectionCount(),
+                        TimeUnit.NANOSECONDS.toMillis(stats.getStatementNanos()));
+            }
+        }
+    }
+}
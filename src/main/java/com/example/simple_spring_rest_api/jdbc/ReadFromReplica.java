@@ -0,0 +1,18 @@
+package com.example.simple_spring_rest_api.jdbc;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 読み取り専用のRepositoryメソッドに付けるアノテーション
+ * 読み取りレプリカが設定されている場合、このメソッド内で取得した接続はレプリカに振り分けられる
+ * （トランザクション中・書き込み直後のクライアントの場合はプライマリを使用する）
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadFromReplica {
+}
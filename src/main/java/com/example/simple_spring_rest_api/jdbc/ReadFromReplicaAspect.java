@@ -0,0 +1,22 @@
+package com.example.simple_spring_rest_api.jdbc;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * {@link ReadFromReplica} を付けたメソッドの実行中を読み取り専用の区間とするAspect
+ */
+@Aspect
+public class ReadFromReplicaAspect {
+
+    @Around("@annotation(com.example.simple_spring_rest_api.jdbc.ReadFromReplica)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = RoutingContext.enterReadOnly();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RoutingContext.restoreReadOnly(previous);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.simple_spring_rest_api.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 読み取りをレプリカ、書き込みをプライマリに振り分けるDataSource
+ *
+ * <ul>
+ * <li>{@link ReadFromReplica} を付けたメソッドの実行中に取得した接続だけをレプリカに振り分ける</li>
+ * <li>トランザクション中、書き込み直後のクライアントのリクエスト（{@link RoutingContext#isPrimaryOnly()}）は
+ * プライマリを使用する</li>
+ * <li>レプリカはラウンドロビン、または使用中の接続が最も少ないものを選ぶ</li>
+ * <li>接続の取得に失敗したレプリカは一定時間使用せず、使用できるレプリカがなければプライマリを使用する</li>
+ * </ul>
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    /**
+     * レプリカの選び方
+     */
+    public enum Selection {
+        ROUND_ROBIN, LEAST_BUSY
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Selection selection;
+    private final long unhealthyRetryNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter primaryCounter;
+    private final Counter replicaCounter;
+    private final Counter fallbackCounter;
+
+    /**
+     * @param primary プライマリ
+     * @param replicas レプリカ
+     * @param selection レプリカの選び方
+     * @param unhealthyRetryInterval 接続に失敗したレプリカを再び使用するまでの時間
+     * @param registry メトリクスの登録先
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, List<Replica> replicas, Selection selection,
+            Duration unhealthyRetryInterval, MeterRegistry registry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.unhealthyRetryNanos = unhealthyRetryInterval.toNanos();
+        this.primaryCounter = routedCounter(registry, "primary");
+        this.replicaCounter = routedCounter(registry, "replica");
+        this.fallbackCounter = routedCounter(registry, "fallback");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!shouldUseReplica()) {
+            primaryCounter.increment();
+            return primary.getConnection();
+        }
+
+        int start = startIndex();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.isHealthy()) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaCounter.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.markUnhealthy(unhealthyRetryNanos);
+                log.warn("レプリカ {} に接続できないため {}ms 使用しません", replica.name,
+                        unhealthyRetryNanos / 1_000_000, e);
+            }
+        }
+
+        // 使用できるレプリカがない場合はプライマリで読み取る
+        fallbackCounter.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private boolean shouldUseReplica() {
+        return !replicas.isEmpty()
+                && RoutingContext.isReadOnly()
+                && !RoutingContext.isPrimaryOnly()
+                && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    private int startIndex() {
+        if (selection == Selection.ROUND_ROBIN) {
+            return Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        }
+        int best = 0;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            int active = replica.activeConnections.getAsInt();
+            if (replica.isHealthy() && active < bestActive) {
+                best = i;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    private static Counter routedCounter(MeterRegistry registry, String target) {
+        return Counter.builder("jdbc.routing.connections")
+                .description("振り分け先ごとの接続の取得回数（fallback はレプリカの代わりにプライマリを使用した回数）")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    /**
+     * 読み取りレプリカ
+     */
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final IntSupplier activeConnections;
+        private volatile long unhealthyUntil;
+        private volatile boolean unhealthy;
+
+        /**
+         * @param name レプリカ名（ログ出力用）
+         * @param dataSource レプリカの接続プール
+         * @param activeConnections 使用中の接続数（LEAST_BUSY の選択に使用）
+         */
+        public Replica(String name, DataSource dataSource, IntSupplier activeConnections) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.activeConnections = activeConnections;
+        }
+
+        private boolean isHealthy() {
+            return !unhealthy || System.nanoTime() - unhealthyUntil >= 0;
+        }
+
+        private void markUnhealthy(long retryNanos) {
+            unhealthyUntil = System.nanoTime() + retryNanos;
+            unhealthy = true;
+        }
+    }
+}
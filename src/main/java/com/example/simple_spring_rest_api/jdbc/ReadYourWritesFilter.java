@@ -0,0 +1,87 @@
+package com.example.simple_spring_rest_api.jdbc;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import com.example.simple_spring_rest_api.cache.BoundedCache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 書き込んだ直後のクライアントの読み取りをプライマリに固定するフィルター（Read-your-writes）
+ *
+ * レプリカには遅延があるため、書き込み直後にレプリカから読むと書き込む前の値が返ることがある。
+ * 書き込み（GET / HEAD / OPTIONS 以外）を行ったクライアントは、sticky-window の間プライマリから読み取る。
+ * クライアントは認証済みユーザー名、または書き込みのレスポンスで発行するCookieで識別する。
+ * Spring Securityより後に実行し、認証済みユーザーを参照する。
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    /**
+     * 書き込み直後であることを示すCookie名
+     */
+    public static final String STICKY_COOKIE = "rw_sticky";
+
+    private final Duration stickyWindow;
+    private final BoundedCache<String, Boolean> stickyUsers;
+
+    public ReadYourWritesFilter(Duration stickyWindow, long maxStickyUsers) {
+        this.stickyWindow = stickyWindow;
+        this.stickyUsers = new BoundedCache<>(maxStickyUsers, stickyWindow);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String username = currentUsername();
+        boolean write = isWrite(request);
+        if (write || WebUtils.getCookie(request, STICKY_COOKIE) != null
+                || (username != null && stickyUsers.getIfPresent(username) != null)) {
+            RoutingContext.setPrimaryOnly();
+        }
+        if (write) {
+            // レスポンスがコミットされる前にCookieを発行する
+            ResponseCookie cookie = ResponseCookie.from(STICKY_COOKIE, "1")
+                    .path("/")
+                    .maxAge(stickyWindow)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RoutingContext.clearPrimaryOnly();
+            if (write && username != null) {
+                stickyUsers.put(username, Boolean.TRUE);
+            }
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.simple_spring_rest_api.jdbc;
+
+/**
+ * 1つのHTTPリクエストで実行したSQLの件数・接続の取得回数・実行時間
+ * リクエストを処理するスレッドに紐付けて保持する（QueryBudgetFilterが開始・終了する）
+ */
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private final int queryBudget;
+    private final boolean failOnBudgetExceeded;
+
+    private int statementCount;
+    private int connectionCount;
+    private long statementNanos;
+
+    private RequestQueryStats(int queryBudget, boolean failOnBudgetExceeded) {
+        this.queryBudget = queryBudget;
+        this.failOnBudgetExceeded = failOnBudgetExceeded;
+    }
+
+    /**
+     * 現在のスレッドで集計を開始
+     * @param queryBudget 1リクエストあたりのSQL件数の上限
+     * @param failOnBudgetExceeded 上限を超えた時点で例外にする場合はtrue（テスト用）
+     * @return 集計結果
+     */
+    public static RequestQueryStats start(int queryBudget, boolean failOnBudgetExceeded) {
+        RequestQueryStats stats = new RequestQueryStats(queryBudget, failOnBudgetExceeded);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * 現在のスレッドでの集計を終了
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 接続の取得を記録
+     */
+    static void recordConnection() {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.connectionCount++;
+        }
+    }
+
+    /**
+     * SQLの実行前に件数を記録し、上限を超えた場合は設定に応じて例外にする
+     * @param sql 実行するSQL
+     */
+    static void beforeStatement(String sql) {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats == null) {
+            return;
+        }
+        stats.statementCount++;
+        if (stats.failOnBudgetExceeded && stats.isBudgetExceeded()) {
+            throw new QueryBudgetExceededException(stats.statementCount, stats.queryBudget, sql);
+        }
+    }
+
+    /**
+     * SQLの実行時間を記録
+     * @param elapsedNanos 実行時間（ナノ秒）
+     */
+    static void afterStatement(long elapsedNanos) {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statementNanos += elapsedNanos;
+        }
+    }
+
+    public boolean isBudgetExceeded() {
+        return statementCount > queryBudget;
+    }
+
+    // ゲッターメソッド
+    public int getQueryBudget() {
+        return queryBudget;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    public long getStatementNanos() {
+        return statementNanos;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.simple_spring_rest_api.jdbc;
+
+/**
+ * 現在のスレッドで取得する接続の振り分け先を決めるための情報
+ * <ul>
+ * <li>readOnly: {@link ReadFromReplica} を付けたメソッドの実行中</li>
+ * <li>primaryOnly: 直前に書き込んだクライアントのリクエスト（Read-your-writesのためプライマリに固定する）、
+ * またはキャッシュに入れる値の読み込み中</li>
+ * </ul>
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private RoutingContext() {
+    }
+
+    /**
+     * 読み取り専用の区間を開始
+     * @return 開始前の状態（{@link #restoreReadOnly(boolean)} に渡す）
+     */
+    public static boolean enterReadOnly() {
+        boolean previous = isReadOnly();
+        READ_ONLY.set(Boolean.TRUE);
+        return previous;
+    }
+
+    /**
+     * 読み取り専用の区間を終了し、開始前の状態に戻す
+     * @param previous {@link #enterReadOnly()} の戻り値
+     */
+    public static void restoreReadOnly(boolean previous) {
+        if (previous) {
+            READ_ONLY.set(Boolean.TRUE);
+        } else {
+            READ_ONLY.remove();
+        }
+    }
+
+    public static boolean isReadOnly() {
+        return READ_ONLY.get() != null;
+    }
+
+    /**
+     * 現在のリクエストの接続をプライマリに固定する
+     */
+    public static void setPrimaryOnly() {
+        PRIMARY_ONLY.set(Boolean.TRUE);
+    }
+
+    public static void clearPrimaryOnly() {
+        PRIMARY_ONLY.remove();
+    }
+
+    /**
+     * プライマリに固定する区間を開始（キャッシュに入れる値をプライマリから読み込む場合など）
+     * @return 開始前の状態（{@link #restorePrimaryOnly(boolean)} に渡す）
+     */
+    public static boolean enterPrimaryOnly() {
+        boolean previous = isPrimaryOnly();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        return previous;
+    }
+
+    /**
+     * プライマリに固定する区間を終了し、開始前の状態に戻す
+     * @param previous {@link #enterPrimaryOnly()} の戻り値
+     */
+    public static void restorePrimaryOnly(boolean previous) {
+        if (previous) {
+            PRIMARY_ONLY.set(Boolean.TRUE);
+        } else {
+            PRIMARY_ONLY.remove();
+        }
+    }
+
+    public static boolean isPrimaryOnly() {
+        return PRIMARY_ONLY.get() != null;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.simple_spring_rest_api.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * SQLの実行を計測するDataSource
+ *
+ * <ul>
+ * <li>取得した接続・ステートメントをプロキシで包み、SQLごとの実行時間を jdbc.statements に記録する</li>
+ * <li>しきい値を超えたSQLは、SQL文とバインド変数の型（値は出力しない）をWARNログに出力する</li>
+ * <li>実行中のHTTPリクエストごとにSQL件数・接続の取得回数を {@link RequestQueryStats} に集計する</li>
+ * </ul>
+ * 計測はプロキシのメソッド呼び出しとカウンターの加算だけなので、本番環境でも有効にしておける。
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(TracingDataSource.class);
+
+    private final long slowQueryThresholdNanos;
+    private final Timer queryTimer;
+    private final Timer updateTimer;
+    private final Timer batchTimer;
+    private final Counter slowQueryCounter;
+
+    public TracingDataSource(DataSource targetDataSource, long slowQueryThresholdMillis, MeterRegistry registry) {
+        super(targetDataSource);
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMillis);
+        this.queryTimer = statementTimer(registry, "query");
+        this.updateTimer = statementTimer(registry, "update");
+        this.batchTimer = statementTimer(registry, "batch");
+        this.slowQueryCounter = Counter.builder("jdbc.statements.slow")
+                .description("しきい値を超えたSQLの件数")
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        RequestQueryStats.recordConnection();
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        RequestQueryStats.recordConnection();
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { Connection.class }, new ConnectionHandler(connection));
+    }
+
+    private static Timer statementTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("jdbc.statements")
+                .description("SQLの実行時間")
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(registry);
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * 接続のプロキシ。作成したステートメントをプロキシで包む
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(target, method, args);
+            if (!(result instanceof Statement statement)) {
+                return result;
+            }
+
+            // prepareStatement / prepareCall の場合は第1引数がSQL
+            String sql = (args != null && args.length > 0 && args[0] instanceof String s) ? s : null;
+            Class<?> statementInterface = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class
+                    : Statement.class;
+            return Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { statementInterface }, new StatementHandler(statement, sql));
+        }
+    }
+
+    /**
+     * ステートメントのプロキシ。バインド変数の型を記録し、execute系メソッドの実行時間を計測する
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private String[] bindTypes = new String[0];
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                recordBindType(index, name.substring(3));
+                return invokeTarget(target, method, args);
+            }
+            if (!name.startsWith("execute")) {
+                return invokeTarget(target, method, args);
+            }
+
+            String sql = (args != null && args.length > 0 && args[0] instanceof String s) ? s : preparedSql;
+            RequestQueryStats.beforeStatement(sql);
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                RequestQueryStats.afterStatement(elapsed);
+                timerFor(name).record(elapsed, TimeUnit.NANOSECONDS);
+                if (elapsed >= slowQueryThresholdNanos) {
+                    slowQueryCounter.increment();
+                    log.warn("遅いSQLを検出しました: {}ms sql=[{}] binds={}",
+                            TimeUnit.NANOSECONDS.toMillis(elapsed), sql, Arrays.toString(bindTypes));
+                }
+            }
+        }
+
+        private void recordBindType(int index, String type) {
+            if (index < 1 || index > 1000) {
+                return;
+            }
+            if (index > bindTypes.length) {
+                bindTypes = Arrays.copyOf(bindTypes, index);
+            }
+            bindTypes[index - 1] = type;
+        }
+
+        private Timer timerFor(String methodName) {
+            if (methodName.equals("executeQuery")) {
+                return queryTimer;
+            }
+            if (methodName.startsWith("executeBatch") || methodName.startsWith("executeLargeBatch")) {
+                return batchTimer;
+            }
+            return updateTimer;
+        }
+    }
+}
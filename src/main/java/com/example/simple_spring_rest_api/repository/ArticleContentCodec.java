@@ -0,0 +1,165 @@
+package com.example.simple_spring_rest_api.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 記事本文の圧縮・展開を行うクラス（articles.content_compressed 列の形式）
+ *
+ * 圧縮したデータの先頭には8バイトのヘッダーを付ける。
+ * <pre>
+ * 0-1: マジックナンバー ("AC")
+ * 2  : 形式のバージョン (1)
+ * 3  : 圧縮方式 (1 = DEFLATE / zlib形式)
+ * 4-7: 展開後のバイト数 (UTF-8, ビッグエンディアン)
+ * </pre>
+ * 展開後のバイト数はヘッダーの値を信用せず、上限（MAX_CONTENT_LENGTH）と圧縮データの大きさから見積もれる範囲を確認する。
+ * 出力バッファは圧縮データの大きさに合わせた大きさから必要な分だけ広げる（壊れたヘッダーで大きな配列を確保しない）。
+ * 圧縮方式を変える場合は新しい番号を割り当て、既存の行は読めるままにする。
+ */
+@Component
+public class ArticleContentCodec {
+
+    private static final byte MAGIC_1 = 'A';
+    private static final byte MAGIC_2 = 'C';
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte ALGORITHM_DEFLATE = 1;
+    private static final int HEADER_LENGTH = 8;
+
+    // 展開後のバイト数の上限（content_compressed 列の MEDIUMBLOB と同じ 16MB）
+    static final int MAX_CONTENT_LENGTH = 16 * 1024 * 1024 - 1;
+
+    // DEFLATE の最大の圧縮率（これを超える展開後のバイト数はヘッダーが壊れている）
+    private static final int MAX_DEFLATE_RATIO = 1032;
+
+    // 展開時の出力バッファの初期サイズの見積もり（圧縮データのバイト数の何倍か）
+    private static final int INITIAL_EXPANSION = 4;
+
+    // UTF-8 で1文字（char）あたりの最大バイト数
+    private static final int MAX_BYTES_PER_CHAR = 3;
+
+    private final boolean enabled;
+    private final int minSize;
+    private final int level;
+
+    @Autowired
+    public ArticleContentCodec(@Value("${article.content-compression.enabled:false}") boolean enabled,
+            @Value("${article.content-compression.min-size:8KB}") DataSize minSize,
+            @Value("${article.content-compression.level:6}") int level) {
+        this.enabled = enabled;
+        this.minSize = (int) minSize.toBytes();
+        this.level = level;
+    }
+
+    /**
+     * 圧縮しない設定のインスタンスを作成（圧縮済みの行の展開はできる）
+     * @return 圧縮しない ArticleContentCodec
+     */
+    public static ArticleContentCodec disabled() {
+        return new ArticleContentCodec(false, DataSize.ofBytes(Integer.MAX_VALUE), Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * 本文を圧縮する
+     * 圧縮が無効な場合、本文が min-size 未満の場合、圧縮しても小さくならない場合は圧縮しない
+     * @param content 本文
+     * @return ヘッダー付きの圧縮データ（圧縮しない場合はnull）
+     */
+    public byte[] compress(String content) {
+        // 文字数から最大バイト数を見積もり、明らかに小さい本文はUTF-8への変換を省く
+        if (!enabled || content == null || (long) content.length() * MAX_BYTES_PER_CHAR < minSize) {
+            return null;
+        }
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < minSize) {
+            return null;
+        }
+
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + HEADER_LENGTH);
+            out.write(MAGIC_1);
+            out.write(MAGIC_2);
+            out.write(FORMAT_VERSION);
+            out.write(ALGORITHM_DEFLATE);
+            out.writeBytes(ByteBuffer.allocate(4).putInt(bytes.length).array());
+
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+                if (out.size() >= bytes.length) {
+                    return null;
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 圧縮データを展開する
+     * @param data ヘッダー付きの圧縮データ
+     * @return 本文
+     */
+    public static String decompress(byte[] data) {
+        if (data.length < HEADER_LENGTH || data[0] != MAGIC_1 || data[1] != MAGIC_2) {
+            throw new RuntimeException("圧縮された本文の形式が不正です");
+        }
+        if (data[2] != FORMAT_VERSION || data[3] != ALGORITHM_DEFLATE) {
+            throw new RuntimeException("未対応の圧縮形式です。バージョン: " + data[2] + ", 圧縮方式: " + data[3]);
+        }
+        int length = ByteBuffer.wrap(data, 4, 4).getInt();
+        long compressedLength = data.length - HEADER_LENGTH;
+        if (length < 0 || length > MAX_CONTENT_LENGTH || length > compressedLength * MAX_DEFLATE_RATIO) {
+            throw new RuntimeException("圧縮された本文の長さが不正です: " + length);
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(
+                    (int) Math.min(length, compressedLength * INITIAL_EXPANSION));
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                // ヘッダーの値を超えて展開しない
+                if (out.size() + inflated > length) {
+                    throw new RuntimeException("圧縮された本文がヘッダーの長さを超えています: " + length);
+                }
+                out.write(buffer, 0, inflated);
+            }
+            if (out.size() != length) {
+                throw new RuntimeException("圧縮された本文の長さが一致しません。期待値: " + length + ", 実際: " + out.size());
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new RuntimeException("圧縮された本文の展開に失敗しました", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // ゲッターメソッド
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+}
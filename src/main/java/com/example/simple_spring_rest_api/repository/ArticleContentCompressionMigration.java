@@ -0,0 +1,175 @@
+package com.example.simple_spring_rest_api.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * 既存の記事の本文を圧縮するクラス
+ *
+ * 列の追加は起動時には行わない（db/migration/V3__add_articles_content_compressed.sql をデプロイ前に実行する）。
+ * 本文の圧縮保存が有効な場合は、min-size 以上でまだ圧縮されていない記事をバックグラウンドで少しずつ圧縮する。
+ * <ul>
+ * <li>1回に batch-size 件だけ SELECT ... FOR UPDATE で読み込み、同じトランザクションで更新する
+ *     （移行中に更新された記事を古い本文で上書きしない）</li>
+ * <li>バッチの間は interval だけ待ち、リクエストの処理と接続を取り合わないようにする</li>
+ * <li>updated_at は変更しない（ETag / Last-Modified が変わらないように）</li>
+ * </ul>
+ * 圧縮保存を無効に戻しても、圧縮済みの記事はそのまま読める（展開して平文に戻す処理は行わない）。
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class ArticleContentCompressionMigration implements SmartLifecycle {
+
+    // Webサーバーを起動する WebServerStartStopLifecycle のフェーズ（Spring Boot の定義と同じ値）
+    private static final int WEB_SERVER_START_PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024;
+
+    // Webサーバーの起動より前、teaser の補完より前に開始する
+    private static final int PHASE = WEB_SERVER_START_PHASE - 3;
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleContentCompressionMigration.class);
+
+    private final DataSource dataSource;
+    private final ArticleContentCodec contentCodec;
+    private final int batchSize;
+    private final Duration interval;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    // 圧縮した記事数（ワーカースレッドだけが読み書きする）
+    private int compressedCount;
+
+    @Autowired
+    public ArticleContentCompressionMigration(DataSource dataSource, ArticleContentCodec contentCodec,
+            @Value("${article.content-compression.migration.batch-size:50}") int batchSize,
+            @Value("${article.content-compression.migration.interval:200ms}") Duration interval) {
+        this.dataSource = dataSource;
+        this.contentCodec = contentCodec;
+        this.batchSize = batchSize;
+        this.interval = interval;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (contentCodec.isEnabled()) {
+            worker = Thread.ofPlatform()
+                    .name("article-content-compression")
+                    .daemon(true)
+                    .start(this::compressExisting);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * 圧縮されていない大きな本文をID順に batchSize 件ずつ圧縮する（停止されるか、対象がなくなるまで）
+     */
+    private void compressExisting() {
+        long start = System.nanoTime();
+        long afterId = 0;
+
+        try {
+            while (running) {
+                long lastId = compressBatch(afterId);
+                if (lastId < 0) {
+                    break;
+                }
+                afterId = lastId;
+                Thread.sleep(interval.toMillis());
+            }
+            if (compressedCount > 0) {
+                log.info("既存の記事の本文を圧縮しました: {}件 ({}ms)", compressedCount, (System.nanoTime() - start) / 1_000_000);
+            }
+        } catch (InterruptedException e) {
+            log.info("記事の本文の圧縮を中断しました: {}件まで完了 (ID: {}まで)", compressedCount, afterId);
+        } catch (RuntimeException e) {
+            log.error("記事の本文の圧縮に失敗しました (ID: {}まで完了)", afterId, e);
+        }
+    }
+
+    /**
+     * 指定したIDより後ろの、圧縮の対象になりうる記事を1バッチ分圧縮する
+     * 圧縮しても小さくならない本文はそのままにする
+     * @param afterId このIDより大きい記事を対象にする
+     * @return 読み込んだ最後の記事のID（対象がなくなった場合は-1）
+     */
+    private long compressBatch(long afterId) {
+        // OCTET_LENGTH は UTF-8 のバイト数（DBで絞り込み、小さな本文は転送しない）
+        String selectSql = "SELECT id, content FROM articles"
+                + " WHERE id > ? AND content_compressed IS NULL AND OCTET_LENGTH(content) >= ?"
+                + " ORDER BY id LIMIT ? FOR UPDATE";
+        String updateSql = "UPDATE articles SET content = '', content_compressed = ?, updated_at = updated_at WHERE id = ?";
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement select = connection.prepareStatement(selectSql);
+                 PreparedStatement update = connection.prepareStatement(updateSql)) {
+                long lastId = -1;
+                int compressedInBatch = 0;
+                select.setLong(1, afterId);
+                select.setInt(2, contentCodec.getMinSize());
+                select.setInt(3, batchSize);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        lastId = resultSet.getLong("id");
+                        byte[] compressed = contentCodec.compress(resultSet.getString("content"));
+                        if (compressed != null) {
+                            update.setBytes(1, compressed);
+                            update.setLong(2, lastId);
+                            update.addBatch();
+                            compressedInBatch++;
+                        }
+                    }
+                }
+                if (compressedInBatch > 0) {
+                    update.executeBatch();
+                }
+                connection.commit();
+                compressedCount += compressedInBatch;
+                return lastId;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("記事の本文の圧縮に失敗しました。after: " + afterId, e);
+        }
+    }
+}
@@ -1,43 +1,73 @@
 package com.example.simple_spring_rest_api.repository;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
 import javax.sql.DataSource;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.domain.ArticleSummary;
+import com.example.simple_spring_rest_api.domain.ArticleVersion;
+import com.example.simple_spring_rest_api.jdbc.ReadFromReplica;
+
+import io.micrometer.core.annotation.Timed;
 
 /**
  * 記事データベースアクセス用Repository
  * 生JDBCで実装（Spring Data JPAを使用しない）
+ * 読み取り専用のメソッドには @ReadFromReplica を付け、レプリカが設定されている場合はレプリカから読み取る
+ * 本文の圧縮保存が有効な場合、大きな本文は圧縮して content_compressed 列に保存し（content は空文字にする）、
+ * 読み込んだ記事の本文は最初に参照したときに展開する（API・Service からは違いが見えない）
  */
 @Repository
+@Timed(value = "repository.calls", description = "Repositoryのメソッドごとの実行時間", histogram = true)
 public class ArticleRepository {
     
+    // IN句に並べるIDの最大数（これを超える場合は複数回に分けて問い合わせる）
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+    
     private final DataSource dataSource;
+    private final int exportFetchSize;
+    private final ArticleContentCodec contentCodec;
     
     @Autowired
-    public ArticleRepository(DataSource dataSource) {
+    public ArticleRepository(DataSource dataSource,
+            @Value("${article.export.fetch-size:1000}") int exportFetchSize,
+            ArticleContentCodec contentCodec) {
         this.dataSource = dataSource;
+        this.exportFetchSize = exportFetchSize;
+        this.contentCodec = contentCodec;
+    }
+    
+    // 本文を圧縮せずに保存するコンストラクタ（ベンチマーク・負荷試験のデータ投入用）
+    public ArticleRepository(DataSource dataSource, int exportFetchSize) {
+        this(dataSource, exportFetchSize, ArticleContentCodec.disabled());
     }
     
     /**
      * 全記事を取得
      * @return 全記事のリスト
      */
+    @ReadFromReplica
     public List<Article> findAll() {
-        String sql = "SELECT id, title, content, created_at, updated_at FROM articles ORDER BY id";
+        String sql = "SELECT id, title, content, content_compressed, created_at, updated_at FROM articles ORDER BY id";
         List<Article> articles = new ArrayList<>();
         
         try (Connection connection = dataSource.getConnection();
@@ -56,13 +86,115 @@ public class ArticleRepository {
         return articles;
     }
     
+    /**
+     * 全記事をID順に1件ずつハンドラーへ渡す（エクスポート用）
+     * 前方専用・読み取り専用のResultSetを使い、MySQLでは行ストリーミングモードで読み込むため
+     * テーブルの件数に関係なくメモリ使用量は一定になる
+     * @param handler 1件ごとに呼び出されるハンドラー
+     * @throws IOException ハンドラーでの書き込みに失敗した場合（クライアント切断など）
+     */
+    @ReadFromReplica
+    public void streamAll(ArticleRowHandler handler) throws IOException {
+        String sql = "SELECT id, title, content, content_compressed, created_at, updated_at FROM articles ORDER BY id";
+        
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            statement.setFetchSize(resolveStreamingFetchSize(connection));
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    try {
+                        handler.handle(mapResultSetToArticle(resultSet));
+                    } catch (IOException e) {
+                        // クライアントが切断した場合、残りの行を読み切らずにサーバー側のクエリを中断して
+                        // すぐに接続をプールへ返す
+                        cancelQuietly(statement);
+                        throw e;
+                    }
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("記事のエクスポートに失敗しました", e);
+        }
+    }
+    
+    /**
+     * 指定したIDより後ろの記事をID順に取得（キーセットページング）
+     * OFFSETを使わず主キーの範囲検索にすることで、テーブルが大きくなっても1回あたりのコストが一定になる
+     * @param afterId このIDより大きい記事を取得する（先頭ページの場合は0）
+     * @param limit 最大取得件数
+     * @return 記事のリスト
+     */
+    @ReadFromReplica
+    public List<Article> findPage(long afterId, int limit) {
+        String sql = "SELECT id, title, content, content_compressed, created_at, updated_at FROM articles WHERE id > ? ORDER BY id LIMIT ?";
+        List<Article> articles = new ArrayList<>(limit);
+        
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            
+            statement.setLong(1, afterId);
+            statement.setInt(2, limit);
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    articles.add(mapResultSetToArticle(resultSet));
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("記事一覧の取得に失敗しました。after: " + afterId, e);
+        }
+        
+        return articles;
+    }
+    
+    /**
+     * 指定したIDより後ろの記事の概要をID順に取得（キーセットページング）
+     * content は読まず、保存時に作成した teaser 列だけを読む（大きな本文をDBから転送しない）
+     * @param afterId このIDより大きい記事を取得する（先頭ページの場合は0）
+     * @param limit 最大取得件数
+     * @return 記事の概要のリスト
+     */
+    @ReadFromReplica
+    public List<ArticleSummary> findSummaryPage(long afterId, int limit) {
+        String sql = "SELECT id, title, teaser, created_at, updated_at FROM articles WHERE id > ? ORDER BY id LIMIT ?";
+        List<ArticleSummary> summaries = new ArrayList<>(limit);
+        
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            
+            statement.setLong(1, afterId);
+            statement.setInt(2, limit);
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    summaries.add(new ArticleSummary(resultSet.getLong("id"),
+                            resultSet.getString("title"),
+                            resultSet.getString("teaser"),
+                            toLocalDateTime(resultSet.getTimestamp("created_at")),
+                            toLocalDateTime(resultSet.getTimestamp("updated_at"))));
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("記事の概要一覧の取得に失敗しました。after: " + afterId, e);
+        }
+        
+        return summaries;
+    }
+    
     /**
      * IDによる記事の取得
      * @param id 記事ID
      * @return 記事（存在しない場合はOptional.empty()）
      */
+    @ReadFromReplica
     public Optional<Article> findById(Long id) {
-        String sql = "SELECT id, title, content, created_at, updated_at FROM articles WHERE id = ?";
+        String sql = "SELECT id, title, content, content_compressed, created_at, updated_at FROM articles WHERE id = ?";
         
         try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
@@ -83,13 +215,111 @@ public class ArticleRepository {
         return Optional.empty();
     }
     
+    /**
+     * 複数IDによる記事の取得
+     * IDを IN_CLAUSE_CHUNK_SIZE 件ずつに分けた WHERE id IN (...) を1つの接続で実行する
+     * @param ids 記事IDのリスト
+     * @return 見つかった記事のリスト（順序は不定。存在しないIDの記事は含まない）
+     */
+    @ReadFromReplica
+    public List<Article> findAllByIds(Collection<Long> ids) {
+        List<Article> articles = new ArrayList<>(ids.size());
+        if (ids.isEmpty()) {
+            return articles;
+        }
+        List<Long> idList = new ArrayList<>(ids);
+        
+        try (Connection connection = dataSource.getConnection()) {
+            for (int from = 0; from < idList.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+                List<Long> chunk = idList.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, idList.size()));
+                String sql = "SELECT id, title, content, content_compressed, created_at, updated_at FROM articles WHERE id IN ("
+                        + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+                
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        statement.setLong(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            articles.add(mapResultSetToArticle(resultSet));
+                        }
+                    }
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("記事の一括取得に失敗しました。件数: " + ids.size(), e);
+        }
+        
+        return articles;
+    }
+    
+    /**
+     * IDによる記事の更新日時の取得（条件付きGETの判定用）
+     * content を読み込まないため findById より軽い
+     * @param id 記事ID
+     * @return 記事のバージョン情報（存在しない場合はOptional.empty()）
+     */
+    @ReadFromReplica
+    public Optional<ArticleVersion> findVersionById(Long id) {
+        String sql = "SELECT id, updated_at FROM articles WHERE id = ?";
+        
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            
+            statement.setLong(1, id);
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return Optional.of(mapResultSetToArticleVersion(resultSet));
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("記事の更新日時の取得に失敗しました。ID: " + id, e);
+        }
+        
+        return Optional.empty();
+    }
+    
+    /**
+     * 指定したIDより後ろの記事のバージョン情報をID順に取得（条件付きGETの判定用）
+     * findPage と同じ範囲を content を読み込まずに取得する
+     * @param afterId このIDより大きい記事を取得する（先頭ページの場合は0）
+     * @param limit 最大取得件数
+     * @return バージョン情報のリスト
+     */
+    @ReadFromReplica
+    public List<ArticleVersion> findPageVersions(long afterId, int limit) {
+        String sql = "SELECT id, updated_at FROM articles WHERE id > ? ORDER BY id LIMIT ?";
+        List<ArticleVersion> versions = new ArrayList<>(limit);
+        
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            
+            statement.setLong(1, afterId);
+            statement.setInt(2, limit);
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    versions.add(mapResultSetToArticleVersion(resultSet));
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("記事一覧の更新日時の取得に失敗しました。after: " + afterId, e);
+        }
+        
+        return versions;
+    }
+    
     /**
      * 記事の保存（新規作成）
      * @param article 保存する記事
      * @return 保存された記事（IDが設定される）
      */
     public Article save(Article article) {
-        String sql = "INSERT INTO articles (title, content, created_at, updated_at) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO articles (title, content, content_compressed, teaser, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
         
         try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -97,9 +327,10 @@ public class ArticleRepository {
             LocalDateTime now = LocalDateTime.now();
             
             statement.setString(1, article.getTitle());
-            statement.setString(2, article.getContent());
-            statement.setTimestamp(3, Timestamp.valueOf(now));
-            statement.setTimestamp(4, Timestamp.valueOf(now));
+            setContent(statement, 2, article.getContent());
+            statement.setString(4, ArticleSummary.teaserOf(article.getContent()));
+            statement.setTimestamp(5, Timestamp.valueOf(now));
+            statement.setTimestamp(6, Timestamp.valueOf(now));
             
             int affectedRows = statement.executeUpdate();
             
@@ -125,34 +356,124 @@ public class ArticleRepository {
         return article;
     }
     
+    /**
+     * 記事の一括保存（新規作成）
+     * 1つの接続・1つのトランザクションで、batchSize件ごとに executeBatch する
+     * 途中で例外が発生した場合はすべてロールバックする
+     * @param articles 保存する記事（入力順に読み出す）
+     * @param batchSize 1回の executeBatch で送信する件数
+     * @return 生成された記事IDのリスト（入力順）
+     */
+    public List<Long> saveAll(Iterator<? extends Article> articles, int batchSize) {
+        return insertAll(articles, batchSize, LocalDateTime.now());
+    }
+    
+    /**
+     * 記事をまとめて保存（新規作成）し、生成されたIDと作成日時を各記事に設定する
+     * 1回の executeBatch・1回のコミットで保存する（グループコミット用）
+     * 途中で例外が発生した場合はすべてロールバックし、記事には何も設定しない
+     * @param articles 保存する記事
+     * @return 保存された記事（IDが設定される。引数と同じ順序）
+     */
+    public List<Article> saveBatch(List<Article> articles) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = insertAll(articles.iterator(), Math.max(articles.size(), 1), now);
+        for (int i = 0; i < articles.size(); i++) {
+            Article article = articles.get(i);
+            article.setId(ids.get(i));
+            article.setCreatedAt(now);
+            article.setUpdatedAt(now);
+        }
+        return articles;
+    }
+    
+    private List<Long> insertAll(Iterator<? extends Article> articles, int batchSize, LocalDateTime createdAt) {
+        String sql = "INSERT INTO articles (title, content, content_compressed, teaser, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+        List<Long> ids = new ArrayList<>();
+        
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            
+            try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                Timestamp now = Timestamp.valueOf(createdAt);
+                int pending = 0;
+                
+                while (articles.hasNext()) {
+                    Article article = articles.next();
+                    statement.setString(1, article.getTitle());
+                    setContent(statement, 2, article.getContent());
+                    statement.setString(4, ArticleSummary.teaserOf(article.getContent()));
+                    statement.setTimestamp(5, now);
+                    statement.setTimestamp(6, now);
+                    statement.addBatch();
+                    
+                    if (++pending == batchSize) {
+                        executeBatch(statement, pending, ids);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    executeBatch(statement, pending, ids);
+                }
+                
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("記事の一括保存に失敗しました", e);
+        }
+        
+        return ids;
+    }
+    
     /**
      * 記事の更新
+     * 記事の存在は UPDATE の更新件数で判定し、更新後の値は同じ接続で取得する
+     * （MySQLには UPDATE ... RETURNING がないため、UPDATE と SELECT の2文を1つの接続で実行する。
+     * Service の @Transactional から呼び出した場合は同じトランザクション内で実行される）
      * @param id 更新する記事のID
      * @param article 更新内容
-     * @return 更新された記事
+     * @return 更新された記事（存在しない場合はOptional.empty()）
      */
-    public Article update(Long id, Article article) {
-        String sql = "UPDATE articles SET title = ?, content = ?, updated_at = ? WHERE id = ?";
+    public Optional<Article> update(Long id, Article article) {
+        String updateSql = "UPDATE articles SET title = ?, content = ?, content_compressed = ?, teaser = ?, updated_at = ? WHERE id = ?";
+        String selectSql = "SELECT created_at, updated_at FROM articles WHERE id = ?";
         
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (Connection connection = dataSource.getConnection()) {
             
-            LocalDateTime now = LocalDateTime.now();
-            
-            statement.setString(1, article.getTitle());
-            statement.setString(2, article.getContent());
-            statement.setTimestamp(3, Timestamp.valueOf(now));
-            statement.setLong(4, id);
-            
-            int affectedRows = statement.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new RuntimeException("記事が見つかりません。ID: " + id);
+            try (PreparedStatement statement = connection.prepareStatement(updateSql)) {
+                statement.setString(1, article.getTitle());
+                setContent(statement, 2, article.getContent());
+                statement.setString(4, ArticleSummary.teaserOf(article.getContent()));
+                statement.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                statement.setLong(6, id);
+                
+                if (statement.executeUpdate() == 0) {
+                    return Optional.empty();
+                }
             }
             
-            // 更新された記事を取得して返す
-            return findById(id).orElseThrow(() -> 
-                new RuntimeException("更新後の記事取得に失敗しました。ID: " + id));
+            // content は送信した値そのものなので読み直さず、日時だけを取得する
+            try (PreparedStatement statement = connection.prepareStatement(selectSql)) {
+                statement.setLong(1, id);
+                
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        return Optional.empty();
+                    }
+                    Article updatedArticle = new Article(article.getTitle(), article.getContent());
+                    updatedArticle.setId(id);
+                    updatedArticle.setCreatedAt(toLocalDateTime(resultSet.getTimestamp("created_at")));
+                    updatedArticle.setUpdatedAt(toLocalDateTime(resultSet.getTimestamp("updated_at")));
+                    return Optional.of(updatedArticle);
+                }
+            }
             
         } catch (SQLException e) {
             throw new RuntimeException("記事の更新に失敗しました。ID: " + id, e);
@@ -161,9 +482,11 @@ public class ArticleRepository {
     
     /**
      * 記事の削除
+     * 記事の存在は DELETE の削除件数で判定する
      * @param id 削除する記事のID
+     * @return 削除した場合はtrue（存在しない場合はfalse）
      */
-    public void deleteById(Long id) {
+    public boolean deleteById(Long id) {
         String sql = "DELETE FROM articles WHERE id = ?";
         
         try (Connection connection = dataSource.getConnection();
@@ -171,28 +494,99 @@ public class ArticleRepository {
             
             statement.setLong(1, id);
             
-            int affectedRows = statement.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new RuntimeException("記事が見つかりません。ID: " + id);
-            }
+            return statement.executeUpdate() > 0;
             
         } catch (SQLException e) {
             throw new RuntimeException("記事の削除に失敗しました。ID: " + id, e);
         }
     }
     
+    /**
+     * バッチを実行し、自動生成されたIDを追加
+     * @param statement バッチを登録したステートメント
+     * @param expectedCount バッチに登録した件数
+     * @param ids 生成されたIDの追加先
+     * @throws SQLException SQL例外、または生成されたIDの件数が一致しない場合
+     */
+    private void executeBatch(PreparedStatement statement, int expectedCount, List<Long> ids) throws SQLException {
+        statement.executeBatch();
+        
+        int generatedCount = 0;
+        try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+            while (generatedKeys.next()) {
+                ids.add(generatedKeys.getLong(1));
+                generatedCount++;
+            }
+        }
+        if (generatedCount != expectedCount) {
+            throw new SQLException("生成されたIDの件数が一致しません。期待値: " + expectedCount + ", 実際: " + generatedCount);
+        }
+    }
+    
+    /**
+     * 本文を content 列と content_compressed 列に設定
+     * 圧縮する場合は content に空文字、content_compressed に圧縮データを設定する（content は NOT NULL のため）
+     * teaser は圧縮の有無に関係なく平文の本文から作成する
+     * @param statement ステートメント
+     * @param index content 列のパラメーター位置（content_compressed はその次）
+     * @param content 本文
+     * @throws SQLException SQL例外
+     */
+    private void setContent(PreparedStatement statement, int index, String content) throws SQLException {
+        byte[] compressed = contentCodec.compress(content);
+        if (compressed != null) {
+            statement.setString(index, "");
+            statement.setBytes(index + 1, compressed);
+        } else {
+            statement.setString(index, content);
+            statement.setNull(index + 1, Types.BLOB);
+        }
+    }
+    
+    /**
+     * ストリーミング読み込み時のフェッチサイズを決定
+     * MySQL(Connector/J)は Integer.MIN_VALUE を指定した場合のみ1行ずつ読み込むストリーミングモードになる
+     * @param connection 接続
+     * @return フェッチサイズ
+     * @throws SQLException SQL例外
+     */
+    private int resolveStreamingFetchSize(Connection connection) throws SQLException {
+        if ("MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+            return Integer.MIN_VALUE;
+        }
+        return exportFetchSize;
+    }
+    
+    /**
+     * 実行中のクエリを中断（中断自体の失敗は無視する）
+     * @param statement 中断するステートメント
+     */
+    private void cancelQuietly(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException ignored) {
+            // 接続のクローズ時に後始末されるため、ここでは何もしない
+        }
+    }
+    
     /**
      * ResultSetからArticleオブジェクトにマッピング
+     * 圧縮された本文はここでは展開せず、Article.getContent() を最初に呼び出したときに展開する
+     * （ベンチマークから直接計測できるようパッケージプライベートにしている）
      * @param resultSet データベースの結果セット
      * @return Articleオブジェクト
      * @throws SQLException SQL例外
      */
-    private Article mapResultSetToArticle(ResultSet resultSet) throws SQLException {
+    Article mapResultSetToArticle(ResultSet resultSet) throws SQLException {
         Article article = new Article();
         article.setId(resultSet.getLong("id"));
         article.setTitle(resultSet.getString("title"));
-        article.setContent(resultSet.getString("content"));
+        byte[] compressed = resultSet.getBytes("content_compressed");
+        if (compressed != null) {
+            article.deferContent(() -> ArticleContentCodec.decompress(compressed));
+        } else {
+            article.setContent(resultSet.getString("content"));
+        }
         
         Timestamp createdAt = resultSet.getTimestamp("created_at");
         if (createdAt != null) {
@@ -206,4 +600,19 @@ public class ArticleRepository {
         
         return article;
     }
+    
+    /**
+     * ResultSetからArticleVersionオブジェクトにマッピング
+     * @param resultSet データベースの結果セット（id, updated_at を含む）
+     * @return ArticleVersionオブジェクト
+     * @throws SQLException SQL例外
+     */
+    private ArticleVersion mapResultSetToArticleVersion(ResultSet resultSet) throws SQLException {
+        return new ArticleVersion(resultSet.getLong("id"),
+                toLocalDateTime(resultSet.getTimestamp("updated_at")));
+    }
+    
+    private LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
 }
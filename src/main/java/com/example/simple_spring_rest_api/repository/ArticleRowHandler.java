@@ -0,0 +1,20 @@
+package com.example.simple_spring_rest_api.repository;
+
+import java.io.IOException;
+
+import com.example.simple_spring_rest_api.domain.Article;
+
+/**
+ * ResultSetから1行ずつ取り出した記事を処理するコールバック
+ * 全件をListに溜め込まずに逐次処理するために使用する
+ */
+@FunctionalInterface
+public interface ArticleRowHandler {
+
+    /**
+     * 1件分の記事を処理する
+     * @param article 記事
+     * @throws IOException 出力先への書き込みに失敗した場合（クライアント切断など）
+     */
+    void handle(Article article) throws IOException;
+}
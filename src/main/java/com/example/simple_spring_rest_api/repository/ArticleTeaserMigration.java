@@ -0,0 +1,161 @@
+package com.example.simple_spring_rest_api.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.example.simple_spring_rest_api.domain.ArticleSummary;
+
+/**
+ * teaser が未設定の既存の記事に articles.teaser を補完するクラス
+ *
+ * 列の追加は起動時には行わない（db/migration/V2__add_articles_teaser.sql をデプロイ前に実行する）。
+ * 起動時は teaser が未設定の記事があるかだけを確認し（SELECT 1 ... LIMIT 1）、なければ何もしない。
+ * ある場合はバックグラウンドで少しずつ読み込んで設定する（補完が終わるまで、その記事の一覧の teaser は null になる）。
+ *
+ * Bean の初期化（@PostConstruct）ではなく、Webサーバーがリクエストの受け付けを始める直前に確認する。
+ * CDSアーカイブを作成する学習実行（spring.context.exit=onRefresh）はこの前に終了するため、DBに接続せずに済む。
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class ArticleTeaserMigration implements SmartLifecycle {
+
+    // Webサーバーを起動する WebServerStartStopLifecycle のフェーズ（Spring Boot の定義と同じ値）
+    private static final int WEB_SERVER_START_PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024;
+
+    // Webサーバーの起動より前、検索インデックスの構築より前に実行する
+    private static final int PHASE = WEB_SERVER_START_PHASE - 2;
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleTeaserMigration.class);
+
+    // 1回に読み込んで更新する記事数
+    private static final int BATCH_SIZE = 500;
+
+    private final DataSource dataSource;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    @Autowired
+    public ArticleTeaserMigration(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (hasMissingTeaser()) {
+            worker = Thread.ofPlatform()
+                    .name("article-teaser-backfill")
+                    .daemon(true)
+                    .start(this::migrate);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * teaser が未設定の記事があるか
+     */
+    private boolean hasMissingTeaser() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT 1 FROM articles WHERE teaser IS NULL LIMIT 1")) {
+            return resultSet.next();
+        } catch (SQLException e) {
+            throw new RuntimeException("articles.teaser の確認に失敗しました（db/migration のスクリプトを実行したか確認してください）", e);
+        }
+    }
+
+    /**
+     * teaser が未設定の記事への補完（停止されるか、対象がなくなるまで）
+     */
+    private void migrate() {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            int updated = backfill(connection);
+            if (updated > 0) {
+                log.info("記事のティーザーを補完しました: {}件 ({}ms)", updated, (System.nanoTime() - start) / 1_000_000);
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.error("記事のティーザーの補完に失敗しました", e);
+        }
+    }
+
+    /**
+     * teaser が未設定の記事をID順に BATCH_SIZE 件ずつ読み込み、teaser を設定する
+     * updated_at は変更しない（ETag / Last-Modified が変わらないように）
+     * 停止された場合は、そのバッチまでで終了する
+     * @return 更新した記事数
+     */
+    private int backfill(Connection connection) throws SQLException {
+        String selectSql = "SELECT id, content, content_compressed FROM articles WHERE teaser IS NULL AND id > ? ORDER BY id LIMIT ?";
+        String updateSql = "UPDATE articles SET teaser = ?, updated_at = updated_at WHERE id = ? AND teaser IS NULL";
+        int updated = 0;
+        long afterId = 0;
+
+        try (PreparedStatement select = connection.prepareStatement(selectSql);
+             PreparedStatement update = connection.prepareStatement(updateSql)) {
+            while (running && !Thread.currentThread().isInterrupted()) {
+                Map<Long, String> teasers = new LinkedHashMap<>();
+                select.setLong(1, afterId);
+                select.setInt(2, BATCH_SIZE);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        // 圧縮して保存された本文は展開してから切り出す
+                        byte[] compressed = resultSet.getBytes("content_compressed");
+                        String content = compressed != null
+                                ? ArticleContentCodec.decompress(compressed)
+                                : resultSet.getString("content");
+                        teasers.put(resultSet.getLong("id"), ArticleSummary.teaserOf(content));
+                    }
+                }
+                if (teasers.isEmpty()) {
+                    return updated;
+                }
+
+                for (Map.Entry<Long, String> entry : teasers.entrySet()) {
+                    update.setString(1, entry.getValue());
+                    update.setLong(2, entry.getKey());
+                    update.addBatch();
+                    afterId = entry.getKey();
+                }
+                update.executeBatch();
+                updated += teasers.size();
+            }
+            log.info("記事のティーザーの補完を中断しました: {}件まで完了 (ID: {}まで)", updated, afterId);
+            return updated;
+        }
+    }
+}
@@ -11,8 +11,12 @@ import javax.sql.DataSource;
 import org.springframework.stereotype.Repository;
 
 import com.example.simple_spring_rest_api.domain.User;
+import com.example.simple_spring_rest_api.jdbc.ReadFromReplica;
+
+import io.micrometer.core.annotation.Timed;
 
 @Repository
+@Timed(value = "repository.calls", description = "Repositoryのメソッドごとの実行時間", histogram = true)
 public class UserRepository {
 
     private final DataSource dataSource;
@@ -21,6 +25,7 @@ public class UserRepository {
         this.dataSource = dataSource;
     }
 
+    @ReadFromReplica
     public Optional<User> findByUsername(String username) {
         String sql = "SELECT * FROM users WHERE username = ?";
         try (Connection connection = dataSource.getConnection();
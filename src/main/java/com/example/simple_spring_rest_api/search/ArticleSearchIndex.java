@@ -0,0 +1,354 @@
+package com.example.simple_spring_rest_api.search;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.domain.ArticleSearchHit;
+import com.example.simple_spring_rest_api.domain.ArticleSummary;
+
+/**
+ * 記事のタイトル・本文を対象としたプロセス内の全文検索インデックス
+ *
+ * <ul>
+ * <li>トークンは {@link BigramTokenizer} で切り出す（日本語はバイグラム）</li>
+ * <li>トークンごとに int配列の転置リストを持ち、BM25でスコアを計算する
+ *     （スコアは一致した文書だけを {@link ScoreAccumulator} に集計し、全文書数の配列は作らない）</li>
+ * <li>タイトルのトークンは TITLE_BOOST 回出現したものとして数える</li>
+ * <li>更新・削除された文書は削除済みとして印を付け、一定数たまったら転置リストを詰め直す
+ *     （文書頻度は削除のたびに減らし、詰め直す前でも削除済みの文書を数えない）</li>
+ * <li>コミット後の反映は順序が前後しうるため、更新日時が古い記事では置き換えない。
+ *     直近に削除した記事IDも覚えておき、削除の後に届いた追加・更新は反映しない</li>
+ * </ul>
+ * 検索時にDBへは問い合わせないため、結果に必要な項目（タイトル・ティーザー・日時）もインデックスに保持する。
+ * インデックスはプロセスごとに持つため、他のプロセスでの更新は反映されない。
+ */
+@Component
+public class ArticleSearchIndex {
+
+    // BM25のパラメータ
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int TITLE_BOOST = 3;
+
+    // 削除済み文書がこの件数と生存文書数の半分の両方を超えたら詰め直す
+    private static final int MIN_DEAD_DOCS_FOR_COMPACTION = 1024;
+
+    // 削除の後に届いた追加・更新を無視するために覚えておく、直近に削除した記事IDの数
+    private static final int MAX_REMOVED_IDS = 10_000;
+
+    private final BigramTokenizer tokenizer = new BigramTokenizer();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> docNumbers = new HashMap<>();
+
+    // 直近に削除した記事ID（記事IDは再利用されないため、削除後の put は順序が前後した古い反映）
+    private final Map<Long, Boolean> removedIds = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > MAX_REMOVED_IDS;
+        }
+    };
+
+    // 文書番号ごとの保持項目と文書長（削除済みの文書は null / 0）
+    private StoredDocument[] documents = new StoredDocument[1024];
+    private int[] documentLengths = new int[1024];
+    private int nextDocNumber;
+    private int liveDocCount;
+    private long totalLiveLength;
+
+    /**
+     * 記事をインデックスに追加（既に存在する場合は置き換える）
+     * 登録済みの記事より更新日時が古い場合、直近に削除した記事の場合は何もしない
+     * @param article 記事
+     */
+    public void put(Article article) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        int length = 0;
+        for (String token : tokenizer.tokenize(article.getTitle())) {
+            termFrequencies.merge(token, TITLE_BOOST, Integer::sum);
+            length += TITLE_BOOST;
+        }
+        for (String token : tokenizer.tokenize(article.getContent())) {
+            termFrequencies.merge(token, 1, Integer::sum);
+            length++;
+        }
+        String teaser = ArticleSummary.teaserOf(article.getContent());
+
+        lock.writeLock().lock();
+        try {
+            if (removedIds.containsKey(article.getId()) || isNewerThan(article.getId(), article.getUpdatedAt())) {
+                return;
+            }
+            removeLocked(article.getId());
+
+            int doc = nextDocNumber++;
+            PostingList[] postingLists = new PostingList[termFrequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                PostingList postingList = postings.computeIfAbsent(entry.getKey(), key -> new PostingList());
+                postingList.add(doc, entry.getValue());
+                postingLists[i++] = postingList;
+            }
+
+            ensureCapacity(doc + 1);
+            documents[doc] = new StoredDocument(article.getId(), article.getTitle(), teaser,
+                    article.getCreatedAt(), article.getUpdatedAt(), postingLists);
+            documentLengths[doc] = length;
+            docNumbers.put(article.getId(), doc);
+            liveDocCount++;
+            totalLiveLength += length;
+
+            compactIfNecessary();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 記事をインデックスから削除
+     * @param articleId 記事ID
+     */
+    public void remove(Long articleId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(articleId);
+            removedIds.put(articleId, Boolean.TRUE);
+            compactIfNecessary();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 全文書を削除
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings = new HashMap<>();
+            docNumbers.clear();
+            removedIds.clear();
+            documents = new StoredDocument[1024];
+            documentLengths = new int[1024];
+            nextDocNumber = 0;
+            liveDocCount = 0;
+            totalLiveLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 検索語に関連する記事をスコアの高い順に取得
+     * 検索語の各トークンのいずれかを含む記事が対象（OR検索）
+     * @param query 検索語
+     * @param limit 最大取得件数
+     * @return 検索結果（スコアの降順）
+     */
+    public List<ArticleSearchHit> search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenizer.tokenize(query)));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveDocCount == 0) {
+                return new ArrayList<>();
+            }
+            double averageLength = (double) totalLiveLength / liveDocCount;
+
+            // 一致しうる文書数（検索語の転置リストの長さの合計）だけの表を用意する
+            List<PostingList> postingLists = new ArrayList<>(queryTerms.size());
+            long postingCount = 0;
+            for (String term : queryTerms) {
+                PostingList postingList = postings.get(term);
+                if (postingList != null) {
+                    postingLists.add(postingList);
+                    postingCount += postingList.size();
+                }
+            }
+            if (postingLists.isEmpty()) {
+                return new ArrayList<>();
+            }
+            ScoreAccumulator scores = new ScoreAccumulator((int) Math.min(postingCount, nextDocNumber));
+
+            for (PostingList postingList : postingLists) {
+                int documentFrequency = postingList.liveCount();
+                if (documentFrequency == 0) {
+                    continue;
+                }
+                double idf = Math.log(1 + (liveDocCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+
+                for (int i = 0; i < postingList.size(); i++) {
+                    int doc = postingList.docAt(i);
+                    if (documents[doc] == null) {
+                        continue;
+                    }
+                    int frequency = postingList.frequencyAt(i);
+                    double norm = K1 * (1 - B + B * documentLengths[doc] / averageLength);
+                    scores.add(doc, idf * frequency * (K1 + 1) / (frequency + norm));
+                }
+            }
+
+            // スコア上位 limit 件だけを保持する（キューには ScoreAccumulator での位置を入れる）
+            int matchedCount = scores.size();
+            Comparator<Integer> byScore = Comparator.comparingDouble(scores::scoreAt);
+            PriorityQueue<Integer> topDocs = new PriorityQueue<>(Math.min(limit, Math.max(matchedCount, 1)) + 1, byScore);
+            for (int i = 0; i < matchedCount; i++) {
+                topDocs.offer(i);
+                if (topDocs.size() > limit) {
+                    topDocs.poll();
+                }
+            }
+
+            List<ArticleSearchHit> hits = new ArrayList<>(topDocs.size());
+            while (!topDocs.isEmpty()) {
+                int index = topDocs.poll();
+                StoredDocument document = documents[scores.docAt(index)];
+                hits.add(new ArticleSearchHit(document.articleId, document.title, document.teaser,
+                        document.createdAt, document.updatedAt, scores.scoreAt(index)));
+            }
+            // 取り出した順はスコアの昇順なので反転する
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * インデックスに登録されている記事数
+     * @return 記事数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long articleId) {
+        Integer doc = docNumbers.remove(articleId);
+        if (doc == null) {
+            return;
+        }
+        for (PostingList postingList : documents[doc].postingLists) {
+            postingList.removeDocument();
+        }
+        documents[doc] = null;
+        liveDocCount--;
+        totalLiveLength -= documentLengths[doc];
+        documentLengths[doc] = 0;
+    }
+
+    /**
+     * 登録済みの記事の更新日時が指定した更新日時より新しいか（新しい場合、指定した記事は順序が前後した古い反映）
+     */
+    private boolean isNewerThan(Long articleId, LocalDateTime updatedAt) {
+        Integer doc = docNumbers.get(articleId);
+        if (doc == null || updatedAt == null) {
+            return false;
+        }
+        LocalDateTime current = documents[doc].updatedAt;
+        return current != null && current.isAfter(updatedAt);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > documents.length) {
+            int newCapacity = Math.max(capacity, documents.length + (documents.length >> 1));
+            documents = Arrays.copyOf(documents, newCapacity);
+            documentLengths = Arrays.copyOf(documentLengths, newCapacity);
+        }
+    }
+
+    /**
+     * 削除済みの文書が一定数たまったら、文書番号を振り直して転置リストを詰め直す
+     */
+    private void compactIfNecessary() {
+        int deadDocCount = nextDocNumber - liveDocCount;
+        if (deadDocCount < MIN_DEAD_DOCS_FOR_COMPACTION || deadDocCount < liveDocCount / 2) {
+            return;
+        }
+
+        int[] newDocNumbers = new int[nextDocNumber];
+        StoredDocument[] newDocuments = new StoredDocument[Math.max(1024, liveDocCount * 2)];
+        int[] newDocumentLengths = new int[newDocuments.length];
+        int next = 0;
+        for (int doc = 0; doc < nextDocNumber; doc++) {
+            if (documents[doc] == null) {
+                newDocNumbers[doc] = -1;
+                continue;
+            }
+            newDocNumbers[doc] = next;
+            newDocuments[next] = documents[doc];
+            newDocumentLengths[next] = documentLengths[doc];
+            docNumbers.put(documents[doc].articleId, next);
+            next++;
+        }
+
+        Map<String, PostingList> newPostings = new HashMap<>();
+        Map<PostingList, PostingList> remappedLists = new IdentityHashMap<>();
+        for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+            PostingList remapped = entry.getValue().remap(newDocNumbers);
+            if (remapped.size() > 0) {
+                newPostings.put(entry.getKey(), remapped);
+                remappedLists.put(entry.getValue(), remapped);
+            }
+        }
+        // 文書が参照する転置リストを新しいものに置き換える（削除時に文書頻度を減らすため）
+        for (int doc = 0; doc < next; doc++) {
+            PostingList[] postingLists = newDocuments[doc].postingLists;
+            for (int i = 0; i < postingLists.length; i++) {
+                postingLists[i] = remappedLists.get(postingLists[i]);
+            }
+        }
+
+        postings = newPostings;
+        documents = newDocuments;
+        documentLengths = newDocumentLengths;
+        nextDocNumber = next;
+    }
+
+    /**
+     * 検索結果として返すためにインデックスに保持する項目
+     */
+    private static final class StoredDocument {
+        private final long articleId;
+        private final String title;
+        private final String teaser;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+        // この文書のトークンの転置リスト（削除時に文書頻度を減らす）
+        private final PostingList[] postingLists;
+
+        private StoredDocument(long articleId, String title, String teaser, LocalDateTime createdAt,
+                LocalDateTime updatedAt, PostingList[] postingLists) {
+            this.articleId = articleId;
+            this.title = title;
+            this.teaser = teaser;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+            this.postingLists = postingLists;
+        }
+    }
+}
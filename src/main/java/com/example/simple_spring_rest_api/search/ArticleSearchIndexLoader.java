@@ -0,0 +1,78 @@
+package com.example.simple_spring_rest_api.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.example.simple_spring_rest_api.repository.ArticleRepository;
+
+/**
+ * 起動時に全記事を読み込んで検索インデックスを構築するクラス
+ * スキーマ初期化(schema.sql / data.sql)の完了後、Webサーバーがリクエストを受け付ける前に実行する
+ * （CDSアーカイブの学習実行ではDBに接続しないよう、Bean の初期化ではなく起動フェーズで実行する）
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class ArticleSearchIndexLoader implements SmartLifecycle {
+
+    // Webサーバーを起動する WebServerStartStopLifecycle のフェーズ（Spring Boot の定義と同じ値）
+    private static final int WEB_SERVER_START_PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024;
+
+    // teaser 列の移行の後、Webサーバーの起動より前に実行する
+    private static final int PHASE = WEB_SERVER_START_PHASE - 1;
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleSearchIndexLoader.class);
+
+    private final ArticleRepository articleRepository;
+    private final ArticleSearchIndex searchIndex;
+
+    private volatile boolean running;
+
+    public ArticleSearchIndexLoader(ArticleRepository articleRepository, ArticleSearchIndex searchIndex) {
+        this.articleRepository = articleRepository;
+        this.searchIndex = searchIndex;
+    }
+
+    @Override
+    public void start() {
+        try {
+            load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("検索インデックスの構築に失敗しました", e);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * 全記事をストリーミングで読み込み、インデックスを構築する
+     * @throws IOException 読み込みに失敗した場合
+     */
+    public void load() throws IOException {
+        long start = System.nanoTime();
+        searchIndex.clear();
+        articleRepository.streamAll(searchIndex::put);
+        log.info("検索インデックスを構築しました: {}件 ({}ms)",
+                searchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
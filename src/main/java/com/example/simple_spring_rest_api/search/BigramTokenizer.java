@@ -0,0 +1,89 @@
+package com.example.simple_spring_rest_api.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 日本語向けのバイグラム(2-gram)トークナイザー
+ *
+ * 形態素解析を使わずに日本語を検索できるよう、文字列を次のように分割する。
+ * <ul>
+ * <li>NFKC正規化と小文字化を行う（全角英数字・半角カナの表記ゆれを吸収）</li>
+ * <li>漢字・ひらがな・カタカナ・ハングルの連続は2文字ずつずらして切り出す（1文字だけの場合はその1文字）</li>
+ * <li>それ以外の英数字の連続は1つの単語として切り出す</li>
+ * <li>記号・空白は区切りとして扱う</li>
+ * </ul>
+ * 例: 「Spring Bootの基本」→ [spring, boot, の基, 基本]
+ */
+public class BigramTokenizer {
+
+    // 長音符「ー」は文字種がCOMMONだが、カタカナ語の一部として扱う
+    private static final int PROLONGED_SOUND_MARK = 0x30FC;
+
+    /**
+     * 文字列をトークンに分割
+     * @param text 文字列（nullの場合は空リスト）
+     * @return トークンのリスト（出現順、重複あり）
+     */
+    public List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+
+        int length = normalized.length();
+        int index = 0;
+        while (index < length) {
+            int codePoint = normalized.codePointAt(index);
+            if (!Character.isLetterOrDigit(codePoint)) {
+                index += Character.charCount(codePoint);
+                continue;
+            }
+
+            // 同じ文字種（CJKかどうか）が続く範囲を切り出す
+            boolean cjk = isCjk(codePoint);
+            int end = index;
+            while (end < length) {
+                int next = normalized.codePointAt(end);
+                if (!Character.isLetterOrDigit(next) || isCjk(next) != cjk) {
+                    break;
+                }
+                end += Character.charCount(next);
+            }
+
+            String run = normalized.substring(index, end);
+            if (cjk) {
+                addBigrams(run, tokens);
+            } else {
+                tokens.add(run);
+            }
+            index = end;
+        }
+        return tokens;
+    }
+
+    private void addBigrams(String run, List<String> tokens) {
+        int[] codePoints = run.codePoints().toArray();
+        if (codePoints.length == 1) {
+            tokens.add(run);
+            return;
+        }
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            tokens.add(new String(codePoints, i, 2));
+        }
+    }
+
+    private boolean isCjk(int codePoint) {
+        if (codePoint == PROLONGED_SOUND_MARK) {
+            return true;
+        }
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
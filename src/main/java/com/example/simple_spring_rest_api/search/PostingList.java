@@ -0,0 +1,68 @@
+package com.example.simple_spring_rest_api.search;
+
+import java.util.Arrays;
+
+/**
+ * 1つのトークンの転置リスト（文書番号と出現回数）
+ * ボクシングを避けるため、int配列で保持する。文書番号は追加順（昇順）に並ぶ
+ * 削除済みの文書は詰め直すまでリストに残るため、文書頻度（BM25のdf）は liveCount で別に数える
+ */
+class PostingList {
+
+    private int[] docs = new int[4];
+    private int[] frequencies = new int[4];
+    private int size;
+    // 削除済みでない文書の数
+    private int liveCount;
+
+    void add(int doc, int frequency) {
+        if (size == docs.length) {
+            int newCapacity = size + (size >> 1) + 1;
+            docs = Arrays.copyOf(docs, newCapacity);
+            frequencies = Arrays.copyOf(frequencies, newCapacity);
+        }
+        docs[size] = doc;
+        frequencies[size] = frequency;
+        size++;
+        liveCount++;
+    }
+
+    /**
+     * リスト内の文書が削除されたことを記録する（リストからは詰め直すときに取り除く）
+     */
+    void removeDocument() {
+        liveCount--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int liveCount() {
+        return liveCount;
+    }
+
+    int docAt(int index) {
+        return docs[index];
+    }
+
+    int frequencyAt(int index) {
+        return frequencies[index];
+    }
+
+    /**
+     * 削除済みの文書を除き、文書番号を振り直した転置リストを作成
+     * @param newDocNumbers 旧文書番号から新文書番号への対応（削除済みは-1）
+     * @return 新しい転置リスト（すべて削除済みの場合は空）
+     */
+    PostingList remap(int[] newDocNumbers) {
+        PostingList remapped = new PostingList();
+        for (int i = 0; i < size; i++) {
+            int newDoc = newDocNumbers[docs[i]];
+            if (newDoc >= 0) {
+                remapped.add(newDoc, frequencies[i]);
+            }
+        }
+        return remapped;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.simple_spring_rest_api.search;
+
+import java.util.Arrays;
+
+/**
+ * 検索中に文書ごとのスコアを足し合わせる表（文書番号 → スコア）
+ *
+ * 全文書数の配列ではなくオープンアドレス法のハッシュ表で保持するため、
+ * 1回の検索のメモリと時間は、インデックス全体ではなく一致した転置リストの長さに比例する。
+ * ボクシングを避けるため、int / double の配列で実装する。
+ * 容量は作成時に一致しうる文書数の上限から決め、拡張しない。
+ */
+class ScoreAccumulator {
+
+    private static final int EMPTY = -1;
+
+    private final int[] keys;
+    private final double[] scores;
+    private final int mask;
+
+    // 一致した文書のスロット位置（追加順）
+    private final int[] slots;
+    private int size;
+
+    /**
+     * @param maxDocs 一致しうる文書数の上限
+     */
+    ScoreAccumulator(int maxDocs) {
+        int capacity = 16;
+        while (capacity < maxDocs * 2L) {
+            capacity <<= 1;
+        }
+        this.keys = new int[capacity];
+        this.scores = new double[capacity];
+        this.mask = capacity - 1;
+        this.slots = new int[Math.max(maxDocs, 0)];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * 文書のスコアに加算する（初めての文書の場合は追加する）
+     * @param doc 文書番号
+     * @param score 加算するスコア
+     */
+    void add(int doc, double score) {
+        int slot = hash(doc) & mask;
+        while (true) {
+            int key = keys[slot];
+            if (key == doc) {
+                scores[slot] += score;
+                return;
+            }
+            if (key == EMPTY) {
+                keys[slot] = doc;
+                scores[slot] = score;
+                slots[size++] = slot;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * 一致した文書数
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * index 番目（追加順）に一致した文書の文書番号
+     */
+    int docAt(int index) {
+        return keys[slots[index]];
+    }
+
+    /**
+     * index 番目（追加順）に一致した文書のスコア
+     */
+    double scoreAt(int index) {
+        return scores[slots[index]];
+    }
+
+    private static int hash(int doc) {
+        // 連続した文書番号が隣り合うスロットに偏らないよう混ぜる
+        int h = doc * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
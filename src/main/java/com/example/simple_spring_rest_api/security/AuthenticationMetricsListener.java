@@ -0,0 +1,36 @@
+package com.example.simple_spring_rest_api.security;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 認証の成功・失敗の件数を記録するリスナー
+ * Spring Securityが発行する認証イベントを受け取り、結果ごとにカウントする
+ */
+@Component
+public class AuthenticationMetricsListener {
+
+    private static final String METRIC_NAME = "auth.attempts";
+
+    private final MeterRegistry registry;
+
+    public AuthenticationMetricsListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        registry.counter(METRIC_NAME, "outcome", "success", "reason", "none").increment();
+    }
+
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        // 失敗の理由（BadCredentialsException など）ごとに分けて数える
+        registry.counter(METRIC_NAME, "outcome", "failure",
+                "reason", event.getException().getClass().getSimpleName()).increment();
+    }
+}
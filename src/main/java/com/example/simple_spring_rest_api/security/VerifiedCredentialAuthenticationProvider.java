@@ -0,0 +1,155 @@
+package com.example.simple_spring_rest_api.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.authentication.AccountStatusException;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.simple_spring_rest_api.cache.BoundedCache;
+import com.example.simple_spring_rest_api.cache.CacheStats;
+
+/**
+ * 検証済みの資格情報を短時間キャッシュするAuthenticationProvider
+ *
+ * Basic認証ではリクエストごとにBCryptでのパスワード照合（数十ミリ秒のCPU）が発生するため、
+ * 一度照合に成功した「ユーザー名＋パスワード」の組をキャッシュし、2回目以降の照合を省略する。
+ * <ul>
+ * <li>キャッシュのキーは平文ではなく、起動ごとに生成する秘密鍵によるHMAC-SHA256</li>
+ * <li>照合時点のパスワードハッシュを保持し、usersテーブルのパスワードが変わった場合は無効とする</li>
+ * <li>キャッシュにヒットした場合も、ユーザーを読み込み直してアカウントの状態（ロック・無効・期限切れ）を確認する</li>
+ * <li>キャッシュにない場合は通常どおりDaoAuthenticationProvider（BCrypt）で照合する</li>
+ * </ul>
+ * ユーザーの削除・パスワードの変更・ロックは、読み込み直したユーザーで判定するため、
+ * ユーザーのキャッシュを消せば（UserDetailsServiceImpl#evictUser）次のリクエストから反映される。
+ */
+public class VerifiedCredentialAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final UserDetailsService userDetailsService;
+    private final DaoAuthenticationProvider delegate;
+    private final UserDetailsChecker accountStatusChecker = new AccountStatusUserDetailsChecker();
+    private final SecretKeySpec hmacKey;
+
+    // キャッシュにヒットし、BCryptでの照合を省略した回数
+    private final LongAdder skippedPasswordChecks = new LongAdder();
+
+    // HMAC(ユーザー名, パスワード) → 照合時点のパスワードハッシュ
+    private final BoundedCache<String, String> verifiedCredentials;
+
+    public VerifiedCredentialAuthenticationProvider(UserDetailsService userDetailsService,
+            PasswordEncoder passwordEncoder, long maxEntries, Duration ttl) {
+        this.userDetailsService = userDetailsService;
+        this.delegate = new DaoAuthenticationProvider(userDetailsService);
+        this.delegate.setPasswordEncoder(passwordEncoder);
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.hmacKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.verifiedCredentials = new BoundedCache<>(maxEntries, ttl);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        Object credentials = authentication.getCredentials();
+        if (credentials == null) {
+            throw new BadCredentialsException("資格情報がありません");
+        }
+
+        String key = credentialKey(username, credentials.toString());
+        String verifiedPasswordHash = verifiedCredentials.getIfPresent(key);
+        if (verifiedPasswordHash != null) {
+            UserDetails user = loadUserOrNull(username);
+            if (user != null && verifiedPasswordHash.equals(user.getPassword())) {
+                try {
+                    accountStatusChecker.check(user);
+                } catch (AccountStatusException e) {
+                    // ロック・無効化されたアカウント（BCryptで照合し直しても結果は変わらない）
+                    verifiedCredentials.invalidate(key);
+                    throw e;
+                }
+                skippedPasswordChecks.increment();
+                return createSuccessAuthentication(authentication, user);
+            }
+            // ユーザーが削除された、またはパスワードが変更された
+            verifiedCredentials.invalidate(key);
+        }
+
+        Authentication result = delegate.authenticate(authentication);
+        if (result.getPrincipal() instanceof UserDetails user && user.getPassword() != null) {
+            verifiedCredentials.put(key, user.getPassword());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    /**
+     * 資格情報キャッシュの統計情報を取得
+     * ヒット数がBCryptでの照合を省略できた回数になる
+     * @return 統計情報
+     */
+    public CacheStats getCredentialCacheStats() {
+        return verifiedCredentials.stats();
+    }
+
+    /**
+     * キャッシュにヒットし、BCryptでの照合を省略した回数を取得
+     * @return 照合を省略した回数
+     */
+    public long getSkippedPasswordCheckCount() {
+        return skippedPasswordChecks.sum();
+    }
+
+    private UserDetails loadUserOrNull(String username) {
+        try {
+            return userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    private Authentication createSuccessAuthentication(Authentication authentication, UserDetails user) {
+        UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                user, authentication.getCredentials(), user.getAuthorities());
+        result.setDetails(authentication.getDetails());
+        return result;
+    }
+
+    private String credentialKey(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            // ユーザー名とパスワードの区切り（"ab"+"c" と "a"+"bc" を区別する）
+            mac.update((byte) 0);
+            mac.update(password.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("資格情報キャッシュのキー生成に失敗しました", e);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.simple_spring_rest_api.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.repository.ArticleRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 記事作成のグループコミット
+ *
+ * 作成リクエストを上限付きのキューに入れ、1つの書き込みスレッドが複数件をまとめて
+ * 1回のバッチINSERT・1回のコミットで保存する。コミット待ちの時間を複数のリクエストで共有するため、
+ * アクセスが集中したときの作成のスループットが上がる。
+ * <ul>
+ * <li>1回にまとめる件数は max-batch-size まで</li>
+ * <li>最初の1件を取り出してから最大 max-linger だけ後続のリクエストを待つ</li>
+ * <li>キューが満杯の場合は {@link WriteQueueFullException} で即座に拒否する（ヒープを際限なく使わない）</li>
+ * </ul>
+ * バッチの保存に失敗した場合は1件ずつ保存し直し、失敗した記事のリクエストだけをエラーにする。
+ * write-timeout までに保存が始まらなかった記事はキューから取り除き、後から保存しない
+ * （タイムアウトを返したリクエストの記事が作成されていることはない）。
+ */
+@Component
+public class ArticleGroupCommitWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleGroupCommitWriter.class);
+
+    private final ArticleRepository articleRepository;
+    private final boolean enabled;
+    private final int queueCapacity;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final Duration writeTimeout;
+    private final Duration retryAfter;
+    private final BlockingQueue<PendingWrite> queue;
+    private final DistributionSummary batchSizes;
+    private final Counter rejectedCounter;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    @Autowired
+    public ArticleGroupCommitWriter(ArticleRepository articleRepository,
+            MeterRegistry registry,
+            @Value("${article.group-commit.enabled:false}") boolean enabled,
+            @Value("${article.group-commit.queue-capacity:10000}") int queueCapacity,
+            @Value("${article.group-commit.max-batch-size:200}") int maxBatchSize,
+            @Value("${article.group-commit.max-linger:2ms}") Duration maxLinger,
+            @Value("${article.group-commit.write-timeout:30s}") Duration writeTimeout,
+            @Value("${article.group-commit.retry-after:1s}") Duration retryAfter) {
+        this.articleRepository = articleRepository;
+        this.enabled = enabled;
+        this.queueCapacity = queueCapacity;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = maxLinger.toNanos();
+        this.writeTimeout = writeTimeout;
+        this.retryAfter = retryAfter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("article.group-commit.batch.size")
+                .description("1回のコミットでまとめて保存した記事数")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.rejectedCounter = Counter.builder("article.group-commit.rejected")
+                .description("キューが満杯で拒否した書き込み")
+                .register(registry);
+        Gauge.builder("article.group-commit.queue.size", queue, BlockingQueue::size)
+                .description("保存待ちの記事数")
+                .register(registry);
+    }
+
+    /**
+     * 書き込みスレッドを開始（グループコミットが有効な場合のみ）
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "article-group-commit");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * 書き込みスレッドを停止
+     * キューに残っている記事は保存してから停止する
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        // 保存中のJDBC呼び出しを中断しないよう割り込みはせず、キューが空になるのを待つ
+        running = false;
+        writerThread.join(writeTimeout.toMillis());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 記事を保存キューに入れ、保存されるまで待つ
+     * write-timeout までに保存が始まらなかった場合は取り消してタイムアウトにする。
+     * 既に保存が始まっていた場合は、結果（コミットされたかどうか）が分かるまで待つ
+     * @param article 保存する記事
+     * @return 保存された記事（ID・作成日時が設定される）
+     * @throws WriteQueueFullException キューが満杯の場合
+     * @throws WriteTimeoutException 保存が始まる前にタイムアウトした場合、待機中に割り込まれた場合
+     */
+    public Article write(Article article) {
+        PendingWrite write = enqueue(article);
+        try {
+            return write.future.get(writeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw failure(e);
+        } catch (TimeoutException e) {
+            if (cancel(write)) {
+                throw new WriteTimeoutException("記事の保存がタイムアウトしました", retryAfter, e);
+            }
+            return awaitClaimed(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(write);
+            throw new WriteTimeoutException("記事の保存待ち中に割り込まれました", retryAfter, e);
+        }
+    }
+
+    /**
+     * 記事を保存キューに入れる（保存を待たない。テスト用）
+     * 返したFutureを保存が始まる前にキャンセルした場合、その記事は保存しない（保存が始まった後のキャンセルでは取り消せない）
+     * @param article 保存する記事
+     * @return 保存されたときに完了するFuture
+     * @throws WriteQueueFullException キューが満杯の場合
+     */
+    CompletableFuture<Article> submit(Article article) {
+        return enqueue(article).future;
+    }
+
+    private PendingWrite enqueue(Article article) {
+        if (!running) {
+            throw new IllegalStateException("グループコミットが開始されていません");
+        }
+        PendingWrite write = new PendingWrite(article);
+        if (!queue.offer(write)) {
+            rejectedCounter.increment();
+            throw new WriteQueueFullException(queueCapacity, retryAfter);
+        }
+        return write;
+    }
+
+    /**
+     * 保存が始まっていない記事を取り消し、キューから取り除く
+     * @param write 保存待ちの記事
+     * @return 取り消した場合はtrue（既に保存が始まっていた場合はfalse）
+     */
+    private boolean cancel(PendingWrite write) {
+        if (!write.cancel()) {
+            return false;
+        }
+        queue.remove(write);
+        return true;
+    }
+
+    /**
+     * 保存が始まった記事の結果を待つ（コミットされた記事をタイムアウトとして返さないため）
+     */
+    private Article awaitClaimed(PendingWrite write) {
+        try {
+            return write.future.get();
+        } catch (ExecutionException e) {
+            throw failure(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WriteTimeoutException("記事の保存待ち中に割り込まれました", retryAfter, e);
+        }
+    }
+
+    private static RuntimeException failure(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        return new RuntimeException("記事の保存に失敗しました", e.getCause());
+    }
+
+    private void runWriter() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // 取り出し済みの記事は保存し、残りはループの条件に従って保存し続ける
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * キューから最大 maxBatchSize 件を取り出す
+     * 最初の1件を取り出してから maxLinger を過ぎるか、件数が上限に達したら戻る
+     */
+    private void collectBatch(List<PendingWrite> batch) throws InterruptedException {
+        PendingWrite first = running ? queue.poll(100, TimeUnit.MILLISECONDS) : queue.poll();
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + maxLingerNanos;
+        while (batch.size() < maxBatchSize) {
+            // 既にキューにある記事はまとめて取り出す
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !running) {
+                return;
+            }
+            PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        // 取り消された記事（タイムアウトしたリクエストの記事）は保存しない
+        batch.removeIf(write -> !write.claim());
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+        List<Article> articles = new ArrayList<>(batch.size());
+        for (PendingWrite write : batch) {
+            articles.add(write.article);
+        }
+
+        try {
+            List<Article> saved = articleRepository.saveBatch(articles);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(saved.get(i));
+            }
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+            log.warn("記事のバッチ保存に失敗したため1件ずつ保存し直します: {}件", batch.size(), e);
+        }
+
+        for (PendingWrite write : batch) {
+            try {
+                write.future.complete(articleRepository.save(write.article));
+            } catch (RuntimeException e) {
+                write.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * 保存待ちの記事と、保存されたときに完了するFuture
+     * 書き込みスレッドが保存を始める（claim）か、Futureがキャンセルされるかのどちらか一方だけが成功する
+     */
+    private static final class PendingWrite {
+        private static final int QUEUED = 0;
+        private static final int CLAIMED = 1;
+        private static final int CANCELLED = 2;
+
+        private final Article article;
+        private final CompletableFuture<Article> future = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private PendingWrite(Article article) {
+            this.article = article;
+            // キャンセルしたスレッドで同期的に呼ばれる（保存が始まっていなければ取り消し済みにする）
+            future.whenComplete((saved, error) -> {
+                if (future.isCancelled()) {
+                    state.compareAndSet(QUEUED, CANCELLED);
+                }
+            });
+        }
+
+        /**
+         * 書き込みスレッドが保存を始める
+         * @return 保存してよい場合はtrue（取り消されていた場合はfalse）
+         */
+        private boolean claim() {
+            return state.compareAndSet(QUEUED, CLAIMED);
+        }
+
+        /**
+         * 保存が始まっていなければ取り消す
+         * @return 取り消した場合はtrue（既に保存が始まっていた場合はfalse）
+         */
+        private boolean cancel() {
+            if (!state.compareAndSet(QUEUED, CANCELLED)) {
+                return false;
+            }
+            future.cancel(false);
+            return true;
+        }
+    }
+}
@@ -1,24 +1,108 @@
 package com.example.simple_spring_rest_api.service;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.example.simple_spring_rest_api.cache.ArticleJsonCache;
+import com.example.simple_spring_rest_api.cache.BoundedCache;
+import com.example.simple_spring_rest_api.cache.CacheStats;
+import com.example.simple_spring_rest_api.cache.SerializedArticle;
+import com.example.simple_spring_rest_api.cache.SingleFlight;
+import com.example.simple_spring_rest_api.cache.SingleFlightStats;
 import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.domain.ArticleMultiGetResult;
+import com.example.simple_spring_rest_api.domain.ArticlePage;
+import com.example.simple_spring_rest_api.domain.ArticlePageVersion;
+import com.example.simple_spring_rest_api.domain.ArticleSearchHit;
+import com.example.simple_spring_rest_api.domain.ArticleSummary;
+import com.example.simple_spring_rest_api.domain.ArticleSummaryPage;
+import com.example.simple_spring_rest_api.domain.ArticleVersion;
+import com.example.simple_spring_rest_api.event.ArticleChangeFeed;
+import com.example.simple_spring_rest_api.jdbc.RoutingContext;
 import com.example.simple_spring_rest_api.repository.ArticleRepository;
+import com.example.simple_spring_rest_api.repository.ArticleRowHandler;
+import com.example.simple_spring_rest_api.search.ArticleSearchIndex;
 
 /**
  * 記事のビジネスロジック処理を担当するServiceクラス
+ *
+ * 記事キャッシュ・シリアライズ済みJSONのキャッシュには、プライマリから読み込んだ記事だけを入れる
+ * （レプリカの遅延で古い記事がキャッシュされ、TTLの間すべてのクライアントに返るのを防ぐ）。
+ * 書き込み直後のクライアントのリクエスト（{@link RoutingContext#isPrimaryOnly()}）はキャッシュを使わない。
  */
 @Service
 public class ArticleService {
 
+    // バルク作成後に検索インデックスへ登録するとき、DBから読み直す件数の単位
+    private static final int SEARCH_INDEX_RELOAD_CHUNK_SIZE = 500;
+
     private final ArticleRepository articleRepository;
+    private final ArticleSearchIndex searchIndex;
+    private final ArticleJsonCache articleJsonCache;
+    private final ArticleGroupCommitWriter groupCommitWriter;
+    private final ArticleChangeFeed changeFeed;
+    private final int defaultPageLimit;
+    private final int maxPageLimit;
+    private final int bulkBatchSize;
+    private final int bulkMaxItems;
+    private final int multiGetMaxIds;
+
+    // IDごとの記事キャッシュ。存在しないIDも Optional.empty() として短いTTLでキャッシュする
+    private final BoundedCache<Long, Optional<Article>> articleCache;
+
+    // 同じ記事・同じページへの同時の読み込みを1回のDB問い合わせにまとめる
+    private final SingleFlight<Long, Optional<Article>> articleLoads;
+    private final SingleFlight<Long, Optional<ArticleVersion>> versionLoads;
+    private final SingleFlight<List<Object>, Object> pageLoads;
 
     @Autowired
-    public ArticleService(ArticleRepository articleRepository) {
+    public ArticleService(ArticleRepository articleRepository,
+            ArticleSearchIndex searchIndex,
+            ArticleJsonCache articleJsonCache,
+            ArticleGroupCommitWriter groupCommitWriter,
+            ArticleChangeFeed changeFeed,
+            @Value("${article.pagination.default-limit:20}") int defaultPageLimit,
+            @Value("${article.pagination.max-limit:100}") int maxPageLimit,
+            @Value("${article.cache.max-entries:10000}") long cacheMaxEntries,
+            @Value("${article.cache.ttl:60s}") Duration cacheTtl,
+            @Value("${article.cache.negative-ttl:10s}") Duration cacheNegativeTtl,
+            @Value("${article.bulk.batch-size:1000}") int bulkBatchSize,
+            @Value("${article.bulk.max-items:100000}") int bulkMaxItems,
+            @Value("${article.multi-get.max-ids:100}") int multiGetMaxIds,
+            @Value("${article.single-flight.max-wait:2s}") Duration singleFlightMaxWait) {
         this.articleRepository = articleRepository;
+        this.searchIndex = searchIndex;
+        this.articleJsonCache = articleJsonCache;
+        this.groupCommitWriter = groupCommitWriter;
+        this.changeFeed = changeFeed;
+        this.defaultPageLimit = defaultPageLimit;
+        this.maxPageLimit = maxPageLimit;
+        this.bulkBatchSize = bulkBatchSize;
+        this.bulkMaxItems = bulkMaxItems;
+        this.multiGetMaxIds = multiGetMaxIds;
+        this.articleCache = new BoundedCache<>(cacheMaxEntries, article -> 1L,
+                article -> article.isPresent() ? cacheTtl : cacheNegativeTtl);
+        this.articleLoads = new SingleFlight<>(singleFlightMaxWait);
+        this.versionLoads = new SingleFlight<>(singleFlightMaxWait);
+        this.pageLoads = new SingleFlight<>(singleFlightMaxWait);
     }
 
     /**
@@ -30,67 +114,492 @@ public class ArticleService {
         return articleRepository.findAll();
     }
 
+    /**
+     * 全記事を1件ずつハンドラーへ渡す（エクスポート用）
+     * 
+     * @param handler 1件ごとに呼び出されるハンドラー
+     * @throws IOException 出力先への書き込みに失敗した場合
+     */
+    public void exportAllArticles(ArticleRowHandler handler) throws IOException {
+        articleRepository.streamAll(handler);
+    }
+
+    /**
+     * 記事一覧を1ページ分取得
+     * 
+     * @param after 前ページの最後の記事ID（先頭ページの場合はnull）
+     * @param limit 取得件数（nullの場合はデフォルト値、上限を超える場合は上限値に丸める）
+     * @return 記事一覧のページ
+     * @throws InvalidRequestException after または limit が不正な場合
+     */
+    public ArticlePage findArticlePage(Long after, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+
+        // 1件多く取得して、次ページが存在するかを判定する
+        long afterId = resolveAfterId(after);
+        List<Article> articles = loadPage("full", afterId, pageSize + 1,
+                () -> articleRepository.findPage(afterId, pageSize + 1));
+        if (articles.size() <= pageSize) {
+            return new ArticlePage(articles, null);
+        }
+
+        List<Article> pageArticles = articles.subList(0, pageSize);
+        Long nextCursor = pageArticles.get(pageSize - 1).getId();
+        return new ArticlePage(pageArticles, nextCursor);
+    }
+
+    /**
+     * 記事の概要一覧を1ページ分取得
+     * 本文(content)はDBから読み込まず、ティーザーだけを返す
+     * 
+     * @param after 前ページの最後の記事ID（先頭ページの場合はnull）
+     * @param limit 取得件数（nullの場合はデフォルト値、上限を超える場合は上限値に丸める）
+     * @return 記事の概要一覧のページ
+     * @throws InvalidRequestException after または limit が不正な場合
+     */
+    public ArticleSummaryPage findArticleSummaryPage(Long after, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+
+        // 1件多く取得して、次ページが存在するかを判定する
+        long afterId = resolveAfterId(after);
+        List<ArticleSummary> summaries = loadPage("summary", afterId, pageSize + 1,
+                () -> articleRepository.findSummaryPage(afterId, pageSize + 1));
+        if (summaries.size() <= pageSize) {
+            return new ArticleSummaryPage(summaries, null);
+        }
+
+        List<ArticleSummary> pageSummaries = summaries.subList(0, pageSize);
+        Long nextCursor = pageSummaries.get(pageSize - 1).getId();
+        return new ArticleSummaryPage(pageSummaries, nextCursor);
+    }
+
+    /**
+     * 記事一覧1ページ分のバージョン情報を取得（条件付きGETの判定用）
+     * findArticlePage と同じページを content を読み込まずに求める
+     * 
+     * @param after 前ページの最後の記事ID（先頭ページの場合はnull）
+     * @param limit 取得件数
+     * @return ページのバージョン情報
+     * @throws InvalidRequestException after または limit が不正な場合
+     */
+    public ArticlePageVersion findArticlePageVersion(Long after, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+
+        long afterId = resolveAfterId(after);
+        List<ArticleVersion> versions = loadPage("version", afterId, pageSize + 1,
+                () -> articleRepository.findPageVersions(afterId, pageSize + 1));
+        if (versions.size() <= pageSize) {
+            return new ArticlePageVersion(versions, null);
+        }
+
+        List<ArticleVersion> pageVersions = versions.subList(0, pageSize);
+        Long nextCursor = pageVersions.get(pageSize - 1).getId();
+        return new ArticlePageVersion(pageVersions, nextCursor);
+    }
+
+    /**
+     * 記事の全文検索
+     * プロセス内の検索インデックスだけを使い、DBへは問い合わせない
+     * 
+     * @param query 検索語
+     * @param limit 最大取得件数（nullの場合はデフォルト値、上限を超える場合は上限値に丸める）
+     * @return 検索結果（関連度の高い順）
+     * @throws InvalidRequestException 検索語が空の場合、または limit が不正な場合
+     */
+    public List<ArticleSearchHit> searchArticles(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("検索語は必須です");
+        }
+        return searchIndex.search(query, resolvePageSize(limit));
+    }
+
+    /**
+     * 記事の全文検索（本文を含む記事を返す）
+     * インデックスで検索したIDの記事を、キャッシュまたはDBからまとめて取得する
+     * 
+     * @param query 検索語
+     * @param limit 最大取得件数（nullの場合はデフォルト値、上限を超える場合は上限値に丸める）
+     * @return 検索結果の記事（関連度の高い順）
+     * @throws InvalidRequestException 検索語が空の場合、または limit が不正な場合
+     */
+    public List<Article> searchArticlesWithContent(String query, Integer limit) {
+        List<Long> ids = searchArticles(query, limit).stream().map(ArticleSearchHit::getId).toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Article> articles = new ArrayList<>(ids.size());
+        // インデックスの反映前に削除された記事は除く
+        loadArticles(ids).values().forEach(article -> article.ifPresent(articles::add));
+        return articles;
+    }
+
     /**
      * IDによる記事の取得
+     * キャッシュにあればDBへは問い合わせない（書き込み直後のクライアントはキャッシュを使わずプライマリから読む）
+     * 
+     * @param id 記事ID
+     * @return 記事（存在しない場合はOptional.empty()）
+     */
+    public Optional<Article> findArticleById(Long id) {
+        if (RoutingContext.isPrimaryOnly()) {
+            return articleRepository.findById(id);
+        }
+        return articleCache.getOrLoad(id, key -> coalesce(articleLoads, key,
+                () -> readFromPrimary(() -> articleRepository.findById(key))));
+    }
+
+    /**
+     * IDによるJSONシリアライズ済みの記事の取得
+     * 記事キャッシュの記事と更新日時が同じシリアライズ済みのバイト列がキャッシュにあれば、シリアライズを行わない
+     * 記事が存在しない場合も例外は投げない（存在しないIDへのアクセスが多くても例外の生成コストがかからない）
+     * 
+     * @param id 記事ID
+     * @return シリアライズ済みの記事（存在しない場合はOptional.empty()）
+     */
+    public Optional<SerializedArticle> findSerializedArticleById(Long id) {
+        if (RoutingContext.isPrimaryOnly()) {
+            return findArticleById(id).map(articleJsonCache::serialize);
+        }
+        return articleJsonCache.getOrSerialize(id, this::findArticleById);
+    }
+
+    /**
+     * 複数IDによる記事の一括取得
+     * キャッシュにある記事はそのまま使い、キャッシュにないIDだけをまとめてDBへ問い合わせる
+     * 
+     * @param ids 記事IDのリスト（重複は1つにまとめる）
+     * @return 見つかった記事（リクエストの順序）と見つからなかったID
+     * @throws InvalidRequestException IDが指定されていない場合、空・0以下のIDを含む場合、
+     *         または重複を除いた件数が上限を超える場合
+     */
+    public ArticleMultiGetResult findArticlesByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidRequestException("idsは必須です");
+        }
+        // ?ids=1,,2 のような空の要素は null として渡される
+        Set<Long> distinctIds = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id == null || id <= 0) {
+                throw new InvalidRequestException("idsには1以上の記事IDを指定してください");
+            }
+            distinctIds.add(id);
+        }
+        if (distinctIds.size() > multiGetMaxIds) {
+            throw new InvalidRequestException("一度に取得できる記事は" + multiGetMaxIds + "件までです");
+        }
+
+        Map<Long, Optional<Article>> found = loadArticles(distinctIds);
+
+        List<Article> articles = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        found.forEach((id, article) -> {
+            if (article.isPresent()) {
+                articles.add(article.get());
+            } else {
+                missingIds.add(id);
+            }
+        });
+        return new ArticleMultiGetResult(articles, missingIds);
+    }
+
+    /**
+     * IDによる記事のバージョン情報の取得（条件付きGETの判定用）
+     * キャッシュにあればそれを使い、なければ更新日時だけをDBから取得する
      * 
      * @param id 記事ID
-     * @return 記事
-     * @throws RuntimeException 記事が見つからない場合
+     * @return バージョン情報（記事が存在しない場合はOptional.empty()）
      */
-    public Article findArticleById(Long id) {
-        return articleRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("記事が見つかりません。ID: " + id));
+    public Optional<ArticleVersion> findArticleVersion(Long id) {
+        Optional<Article> cached = RoutingContext.isPrimaryOnly() ? null : articleCache.getIfPresent(id);
+        if (cached != null) {
+            return cached.map(ArticleVersion::of);
+        }
+        return coalesce(versionLoads, id, () -> articleRepository.findVersionById(id));
     }
 
     /**
      * 記事の作成
+     * グループコミットが有効な場合は、他のリクエストの記事とまとめて保存されるまで待つ
      * 
      * @param article 作成する記事
      * @return 作成された記事
+     * @throws InvalidRequestException 記事の内容が不正な場合
+     * @throws WriteQueueFullException グループコミットの書き込みキューが満杯の場合
      */
     public Article createArticle(Article article) {
         // 入力値の検証
-        if (article.getTitle() == null || article.getTitle().trim().isEmpty()) {
-            throw new IllegalArgumentException("タイトルは必須です");
-        }
-        if (article.getContent() == null || article.getContent().trim().isEmpty()) {
-            throw new IllegalArgumentException("内容は必須です");
-        }
+        validateArticle(article);
+
+        Article createdArticle = groupCommitWriter.isEnabled()
+                ? groupCommitWriter.write(article)
+                : articleRepository.save(article);
+        // 作成前に「存在しない」としてキャッシュされていた場合に備えて削除する
+        invalidateCaches(createdArticle.getId());
+        searchIndex.put(createdArticle);
+        changeFeed.articleCreated(createdArticle);
+        return createdArticle;
+    }
+
+    /**
+     * 記事の一括作成
+     * 1件ずつ検証しながらバッチINSERTし、1つのトランザクションでコミットする
+     * 途中で不正な記事があった場合はすべてロールバックする
+     * 
+     * @param articles 作成する記事（入力順に読み出す）
+     * @return 生成された記事IDのリスト（入力順）
+     * @throws InvalidRequestException 不正な記事が含まれる場合、または件数が上限を超える場合
+     */
+    public List<Long> createArticles(Iterator<Article> articles) {
+        Iterator<Article> validatedArticles = new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return articles.hasNext();
+            }
+
+            @Override
+            public Article next() {
+                if (index >= bulkMaxItems) {
+                    throw new InvalidRequestException("一括作成できる記事は" + bulkMaxItems + "件までです");
+                }
+                Article article = articles.next();
+                try {
+                    validateArticle(article);
+                } catch (InvalidRequestException e) {
+                    throw new InvalidRequestException("[" + index + "] " + e.getMessage(), e);
+                }
+                index++;
+                return article;
+            }
+        };
 
-        return articleRepository.save(article);
+        List<Long> ids = articleRepository.saveAll(validatedArticles, bulkBatchSize);
+        // 作成前に「存在しない」としてキャッシュされていた場合に備えて削除する
+        ids.forEach(this::invalidateCaches);
+
+        // 全件をメモリに保持しないよう、コミット後に少しずつ読み直して検索インデックスへの登録・変更の通知を行う
+        for (int from = 0; from < ids.size(); from += SEARCH_INDEX_RELOAD_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + SEARCH_INDEX_RELOAD_CHUNK_SIZE, ids.size()));
+            for (Article article : articleRepository.findAllByIds(chunk)) {
+                searchIndex.put(article);
+                changeFeed.articleCreated(article);
+            }
+        }
+        return ids;
     }
 
     /**
      * 記事の更新
+     * 1つのトランザクション（1つの接続）で実行し、存在確認は UPDATE の更新件数で行う
      * 
      * @param id             更新する記事のID
      * @param articleDetails 更新内容
-     * @return 更新された記事
+     * @return 更新された記事（存在しない場合はOptional.empty()）
+     * @throws InvalidRequestException 更新内容が不正な場合
      */
-    public Article updateArticle(Long id, Article articleDetails) {
+    @Transactional
+    public Optional<Article> updateArticle(Long id, Article articleDetails) {
         // 入力値の検証
-        if (articleDetails.getTitle() == null || articleDetails.getTitle().trim().isEmpty()) {
-            throw new IllegalArgumentException("タイトルは必須です");
-        }
-        if (articleDetails.getContent() == null || articleDetails.getContent().trim().isEmpty()) {
-            throw new IllegalArgumentException("内容は必須です");
-        }
-
-        // 記事の存在確認
-        findArticleById(id);
+        validateArticle(articleDetails);
 
-        return articleRepository.update(id, articleDetails);
+        invalidateAfterCompletion(id);
+        Optional<Article> updatedArticle = articleRepository.update(id, articleDetails);
+        updatedArticle.ifPresent(article -> afterCommit(() -> {
+            searchIndex.put(article);
+            changeFeed.articleUpdated(article);
+        }));
+        return updatedArticle;
     }
 
     /**
      * 記事の削除
+     * 1つのトランザクション（1つの接続）で実行し、存在確認は DELETE の削除件数で行う
      * 
      * @param id 削除する記事のID
+     * @return 削除した場合はtrue（存在しない場合はfalse）
      */
-    public void deleteArticle(Long id) {
-        // 記事の存在確認
-        findArticleById(id);
+    @Transactional
+    public boolean deleteArticle(Long id) {
+        invalidateAfterCompletion(id);
+        if (!articleRepository.deleteById(id)) {
+            return false;
+        }
+        afterCommit(() -> {
+            searchIndex.remove(id);
+            changeFeed.articleDeleted(id);
+        });
+        return true;
+    }
+
+    /**
+     * 記事キャッシュの統計情報を取得
+     * 
+     * @return ヒット数・ミス数・追い出し数などの統計情報
+     */
+    public CacheStats getArticleCacheStats() {
+        return articleCache.stats();
+    }
 
-        articleRepository.deleteById(id);
+    /**
+     * シリアライズ済みJSONのキャッシュの統計情報を取得
+     * 
+     * @return ヒット数・ミス数・追い出し数・合計バイト数などの統計情報
+     */
+    public CacheStats getArticleJsonCacheStats() {
+        return articleJsonCache.stats();
+    }
+
+    /**
+     * single-flight の統計情報を取得
+     * 
+     * @return 読み込みの種類ごとの、実行・相乗り・待ちのタイムアウトの件数
+     */
+    public Map<String, SingleFlightStats> getSingleFlightStats() {
+        return Map.of(
+                "articles", articleLoads.stats(),
+                "article-versions", versionLoads.stats(),
+                "pages", pageLoads.stats());
+    }
+
+    /**
+     * 記事一覧の1ページを読み込む。同じページの読み込みが実行中の場合はその結果を共有する
+     * 
+     * @param kind ページの種類（全文・概要・バージョン）
+     * @param afterId 前ページの最後の記事ID
+     * @param limit 取得件数
+     * @param loader 読み込み処理
+     * @return ページの内容（共有するため変更しないこと）
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> loadPage(String kind, long afterId, int limit, Supplier<List<T>> loader) {
+        return (List<T>) coalesce(pageLoads, List.of(kind, afterId, limit), loader::get);
+    }
+
+    /**
+     * 同じキーの読み込みが実行中の場合はその結果を共有する
+     * 書き込み直後でプライマリから読む必要があるリクエストは、レプリカから読んでいる可能性のある読み込みと共有しない
+     */
+    private <K, V> V coalesce(SingleFlight<K, V> flight, K key, Supplier<? extends V> loader) {
+        if (RoutingContext.isPrimaryOnly()) {
+            return loader.get();
+        }
+        return flight.execute(key, loader);
+    }
+
+    /**
+     * キャッシュに入れる値をプライマリから読み込む
+     */
+    private static <T> T readFromPrimary(Supplier<T> loader) {
+        boolean previous = RoutingContext.enterPrimaryOnly();
+        try {
+            return loader.get();
+        } finally {
+            RoutingContext.restorePrimaryOnly(previous);
+        }
+    }
+
+    /**
+     * 複数IDの記事をキャッシュから取得し、キャッシュにないIDだけをまとめてDBから取得する
+     * 書き込み直後のクライアントはキャッシュを使わず、すべてのIDをプライマリから取得する
+     * 
+     * @param ids 記事IDのリスト
+     * @return IDごとの記事（指定した順序。存在しない場合はOptional.empty()）
+     */
+    private Map<Long, Optional<Article>> loadArticles(Collection<Long> ids) {
+        if (RoutingContext.isPrimaryOnly()) {
+            Map<Long, Optional<Article>> loaded = findAllByIds(ids);
+            Map<Long, Optional<Article>> ordered = new LinkedHashMap<>();
+            for (Long id : ids) {
+                ordered.put(id, loaded.get(id));
+            }
+            return ordered;
+        }
+        return articleCache.getAllOrLoad(ids, missingIds -> readFromPrimary(() -> findAllByIds(missingIds)));
+    }
+
+    private Map<Long, Optional<Article>> findAllByIds(Collection<Long> ids) {
+        Map<Long, Optional<Article>> loaded = new HashMap<>();
+        for (Long id : ids) {
+            loaded.put(id, Optional.empty());
+        }
+        for (Article article : articleRepository.findAllByIds(ids)) {
+            loaded.put(article.getId(), Optional.of(article));
+        }
+        return loaded;
+    }
+
+    /**
+     * 記事キャッシュとシリアライズ済みJSONのキャッシュを削除する
+     * 実行中の読み込みは更新前の値を読んでいる可能性があるため、以降のリクエストとは共有しない
+     * （キャッシュより先に切り離し、切り離した後に始まった読み込みだけがキャッシュに書き込めるようにする）
+     */
+    private void invalidateCaches(Long id) {
+        articleLoads.forget(id);
+        versionLoads.forget(id);
+        pageLoads.forgetAll();
+        articleCache.invalidate(id);
+        articleJsonCache.invalidate(id);
+    }
+
+    /**
+     * トランザクション完了後に記事キャッシュを削除する
+     * コミット前に削除すると、その間に読み込まれた古い値が再びキャッシュされてしまうため
+     */
+    private void invalidateAfterCompletion(Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateCaches(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidateCaches(id);
+            }
+        });
+    }
+
+    /**
+     * トランザクションのコミット後に処理を実行する（トランザクション外の場合はすぐに実行する）
+     * ロールバックされた変更を検索インデックス・変更フィードに反映しないため
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void validateArticle(Article article) {
+        if (article == null) {
+            throw new InvalidRequestException("記事がありません");
+        }
+        if (article.getTitle() == null || article.getTitle().trim().isEmpty()) {
+            throw new InvalidRequestException("タイトルは必須です");
+        }
+        if (article.getContent() == null || article.getContent().trim().isEmpty()) {
+            throw new InvalidRequestException("内容は必須です");
+        }
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new InvalidRequestException("limitは1以上を指定してください");
+        }
+        return (limit == null) ? defaultPageLimit : Math.min(limit, maxPageLimit);
+    }
+
+    private long resolveAfterId(Long after) {
+        if (after != null && after < 0) {
+            throw new InvalidRequestException("afterは0以上を指定してください");
+        }
+        return (after == null) ? 0L : after;
     }
 }
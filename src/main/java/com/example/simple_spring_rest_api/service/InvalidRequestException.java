@@ -0,0 +1,24 @@
+package com.example.simple_spring_rest_api.service;
+
+/**
+ * リクエストの内容（入力値・パラメーター）が不正な場合の例外
+ * Controllerでは 400 Bad Request を返す
+ *
+ * 入力値の誤りはクライアント側の問題で発生箇所の情報は不要なため、スタックトレースを記録しない
+ * （不正なリクエストが大量に送られても、例外の生成にCPUを使わないようにする）。
+ */
+public class InvalidRequestException extends IllegalArgumentException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
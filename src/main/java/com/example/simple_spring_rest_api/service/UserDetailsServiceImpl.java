@@ -1,8 +1,11 @@
 package com.example.simple_spring_rest_api.service;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,21 +13,39 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.example.simple_spring_rest_api.cache.BoundedCache;
+import com.example.simple_spring_rest_api.cache.CacheStats;
 import com.example.simple_spring_rest_api.domain.User;
 import com.example.simple_spring_rest_api.repository.UserRepository;
 
+/**
+ * 認証用のユーザー情報を提供するServiceクラス
+ * Basic認証ではリクエストごとに呼び出されるため、usersテーブルの検索結果を短時間キャッシュする
+ *
+ * usersテーブルの行を変更する処理は、コミット後に evictUser を呼び出してキャッシュを消す。
+ * 資格情報のキャッシュ（VerifiedCredentialAuthenticationProvider）もこのキャッシュから読み込んだユーザーで判定するため、
+ * パスワードの変更・削除・ロックは次のリクエストから反映される。
+ * アプリケーションの外で変更した場合は、有効期間 (auth.cache.user-ttl) が過ぎてから反映される。
+ */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    // ユーザー名ごとの検索結果キャッシュ。存在しないユーザーも Optional.empty() としてキャッシュする
+    private final BoundedCache<String, Optional<User>> userCache;
+
+    public UserDetailsServiceImpl(UserRepository userRepository,
+            @Value("${auth.cache.user-max-entries:1000}") long userCacheMaxEntries,
+            @Value("${auth.cache.user-ttl:60s}") Duration userCacheTtl) {
         this.userRepository = userRepository;
+        this.userCache = new BoundedCache<>(userCacheMaxEntries, userCacheTtl);
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        // 認証後に資格情報が消去されてもキャッシュに影響しないよう、毎回新しいUserDetailsを作成して返す
+        User user = userCache.getOrLoad(username, userRepository::findByUsername)
                 .orElseThrow(() -> new UsernameNotFoundException("ユーザーが見つかりませんでした: " + username));
 
         List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(user.getRole()));
@@ -35,4 +56,21 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 authorities
         );
     }
-} 
\ No newline at end of file
+
+    /**
+     * ユーザーのキャッシュを削除
+     * usersテーブルの行（パスワード・ロール・削除）を変更した場合に、コミット後に呼び出す
+     * @param username ユーザー名
+     */
+    public void evictUser(String username) {
+        userCache.invalidate(username);
+    }
+
+    /**
+     * ユーザーキャッシュの統計情報を取得
+     * @return 統計情報
+     */
+    public CacheStats getUserCacheStats() {
+        return userCache.stats();
+    }
+}
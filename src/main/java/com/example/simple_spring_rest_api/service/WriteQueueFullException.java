@@ -0,0 +1,25 @@
+package com.example.simple_spring_rest_api.service;
+
+import java.time.Duration;
+
+/**
+ * 書き込みキューが満杯で、書き込みを受け付けられない場合の例外
+ * Controllerでは 503 Service Unavailable と Retry-After ヘッダーを返す
+ */
+public class WriteQueueFullException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public WriteQueueFullException(int capacity, Duration retryAfter) {
+        super("書き込みキューが満杯です。容量: " + capacity);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * 再試行までの目安の時間
+     * @return 再試行までの時間
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
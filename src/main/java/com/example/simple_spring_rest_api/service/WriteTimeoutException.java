@@ -0,0 +1,25 @@
+package com.example.simple_spring_rest_api.service;
+
+import java.time.Duration;
+
+/**
+ * 書き込みキューに入れた記事が時間内に保存されなかった場合（待機中の割り込みを含む）の例外
+ * Controllerでは 503 Service Unavailable と Retry-After ヘッダーを返す
+ */
+public class WriteTimeoutException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public WriteTimeoutException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * 再試行までの目安の時間
+     * @return 再試行までの時間
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,5 @@
+-- articles.teaser 列の追加（teaser 列より前の schema.sql で作成したテーブルに、デプロイ前に1回だけ実行する）
+-- schema.sql は CREATE TABLE IF NOT EXISTS のため、既存のテーブルには列が追加されない
+-- 既存の記事の teaser は、アプリケーションの起動後にバックグラウンドで補完する（ArticleTeaserMigration）
+
+ALTER TABLE articles ADD COLUMN teaser VARCHAR(255) NULL AFTER content;
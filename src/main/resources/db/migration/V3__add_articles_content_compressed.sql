@@ -0,0 +1,5 @@
+-- articles.content_compressed 列の追加（この列より前の schema.sql で作成したテーブルに、デプロイ前に1回だけ実行する）
+-- schema.sql は CREATE TABLE IF NOT EXISTS のため、既存のテーブルには列が追加されない
+-- 既存の記事の本文の圧縮は、article.content-compression.enabled=true の場合に起動後にバックグラウンドで行う（ArticleContentCompressionMigration）
+
+ALTER TABLE articles ADD COLUMN content_compressed MEDIUMBLOB NULL AFTER content;
@@ -5,6 +5,10 @@ CREATE TABLE IF NOT EXISTS articles (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     title VARCHAR(255) NOT NULL,
     content TEXT NOT NULL,
+    -- 圧縮して保存した本文（ヘッダー付き。圧縮した場合の content は空文字。article.content-compression.* を参照）
+    content_compressed MEDIUMBLOB NULL,
+    -- 一覧・検索結果用に本文の先頭を切り出したもの（保存時にアプリケーションで設定する）
+    teaser VARCHAR(255),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
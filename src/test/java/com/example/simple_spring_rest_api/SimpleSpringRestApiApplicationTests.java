@@ -1,13 +1,96 @@
 package com.example.simple_spring_rest_api;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.repository.ArticleRepository;
 
-@SpringBootTest
+/**
+ * 一覧・詳細のエンドポイントが1リクエストあたりのSQL件数の上限（jdbc.tracing.query-budget）に収まることを確認する
+ * 上限を超えると QueryBudgetExceededException でリクエストが失敗するため、N+1 などの余分なクエリを検出できる
+ * （上限を超えた場合に失敗すること自体は QueryBudgetIntegrationTest で確認する）
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:application_tests;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"jdbc.tracing.fail-on-budget-exceeded=true" })
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class SimpleSpringRestApiApplicationTests {
 
+	private static final int ARTICLE_COUNT = 30;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ArticleRepository articleRepository;
+
+	private final List<Long> articleIds = new ArrayList<>();
+
+	@BeforeAll
+	void setUp() {
+		for (int i = 1; i <= ARTICLE_COUNT; i++) {
+			Article article = articleRepository.save(new Article("記事" + i, "本文" + i));
+			articleIds.add(article.getId());
+		}
+	}
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void listSummariesWithinQueryBudget() throws Exception {
+		mockMvc.perform(get("/api/articles"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].id").value(articleIds.get(0)));
+	}
+
+	@Test
+	void listFullArticlesWithinQueryBudget() throws Exception {
+		mockMvc.perform(get("/api/articles").param("view", "full"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].content").value("本文1"));
+	}
+
+	@Test
+	void detailWithinQueryBudget() throws Exception {
+		Long id = articleIds.get(1);
+		mockMvc.perform(get("/api/articles/{id}", id))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.title").value("記事2"));
+	}
+
+	@Test
+	void invalidParametersReturnBadRequest() throws Exception {
+		mockMvc.perform(get("/api/articles").param("view", "unknown"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/articles").param("limit", "0"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/articles").param("after", "abc"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void multiGetWithinQueryBudget() throws Exception {
+		mockMvc.perform(get("/api/articles").param("ids", articleIds.get(2) + "," + articleIds.get(3)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.articles.length()").value(2));
+	}
+
 }
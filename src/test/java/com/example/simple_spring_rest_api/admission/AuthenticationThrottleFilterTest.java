@@ -0,0 +1,80 @@
+package com.example.simple_spring_rest_api.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+class AuthenticationThrottleFilterTest {
+
+	private final AuthenticationThrottleFilter filter = new AuthenticationThrottleFilter(
+			new ClientRateLimiter(1.0 / 60, 2, Duration.ofMinutes(10), 100, 4),
+			new AdmissionMetrics(new SimpleMeterRegistry()));
+
+	@Test
+	void successfulAttemptsDoNotUseTokens() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			assertThat(perform((request, response) -> ((MockHttpServletResponse) response).setStatus(200)))
+					.isEqualTo(HttpStatus.OK.value());
+		}
+	}
+
+	@Test
+	void failedAttemptsAreThrottled() throws Exception {
+		FilterChain unauthorized = (request, response) ->
+				((MockHttpServletResponse) response).setStatus(HttpStatus.UNAUTHORIZED.value());
+
+		assertThat(perform(unauthorized)).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+		assertThat(perform(unauthorized)).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+		assertThat(perform(unauthorized)).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+	}
+
+	@Test
+	void concurrentSuccessfulRequestsAreNotLimited() throws Exception {
+		// 処理中の成功したリクエストはトークンを使わないため、burst を超えて同時に処理できる
+		int[] statuses = new int[3];
+		FilterChain nested = (request, response) -> {
+			statuses[0] = perform((r1, s1) -> {
+				statuses[1] = perform((r2, s2) -> statuses[2] = perform((r3, s3) -> { }));
+			});
+		};
+
+		assertThat(perform(nested)).isEqualTo(HttpStatus.OK.value());
+		assertThat(statuses).containsOnly(HttpStatus.OK.value());
+	}
+
+	@Test
+	void propagatedExceptionsAreNotCountedAsFailures() throws Exception {
+		FilterChain failing = (request, response) -> {
+			throw new IllegalStateException("記事の保存がタイムアウトしました");
+		};
+		for (int i = 0; i < 5; i++) {
+			assertThatThrownBy(() -> perform(failing)).isInstanceOf(IllegalStateException.class);
+		}
+
+		FilterChain unauthorized = (request, response) ->
+				((MockHttpServletResponse) response).setStatus(HttpStatus.UNAUTHORIZED.value());
+		assertThat(perform(unauthorized)).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+	}
+
+	private int perform(FilterChain chain) throws IOException, ServletException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/articles");
+		request.setRemoteAddr("10.0.0.1");
+		request.addHeader(HttpHeaders.AUTHORIZATION, "Basic dXNlcjpwYXNz");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, chain);
+		return response.getStatus();
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.example.simple_spring_rest_api.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class ClientRateLimiterTest {
+
+	@Test
+	void admitsUpToBurstAndThenRejectsWithRetryAfter() {
+		ClientRateLimiter limiter = new ClientRateLimiter(1, 3, Duration.ofMinutes(1), 100, 4);
+
+		assertThat(limiter.tryAcquire("ip:10.0.0.1")).isZero();
+		assertThat(limiter.tryAcquire("ip:10.0.0.1")).isZero();
+		assertThat(limiter.tryAcquire("ip:10.0.0.1")).isZero();
+
+		long waitNanos = limiter.tryAcquire("ip:10.0.0.1");
+		assertThat(waitNanos).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(1).toNanos());
+		assertThat(limiter.nanosUntilAvailable("ip:10.0.0.1")).isPositive();
+	}
+
+	@Test
+	void clientsHaveIndependentBuckets() {
+		ClientRateLimiter limiter = new ClientRateLimiter(1, 1, Duration.ofMinutes(1), 100, 4);
+
+		assertThat(limiter.tryAcquire("user:alice")).isZero();
+		assertThat(limiter.tryAcquire("user:alice")).isPositive();
+		assertThat(limiter.tryAcquire("user:bob")).isZero();
+		assertThat(limiter.nanosUntilAvailable("user:carol")).isZero();
+	}
+
+}
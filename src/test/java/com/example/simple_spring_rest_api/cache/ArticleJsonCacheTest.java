@@ -0,0 +1,65 @@
+package com.example.simple_spring_rest_api.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ArticleJsonCacheTest {
+
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+	private final ArticleJsonCache cache = new ArticleJsonCache(new ObjectMapper().findAndRegisterModules(),
+			DataSize.ofMegabytes(1), Duration.ofMinutes(10), false, DataSize.ofKilobytes(1));
+
+	// 記事キャッシュの代わり（現在の記事）
+	private final AtomicReference<Optional<Article>> current = new AtomicReference<>();
+
+	@Test
+	void reusesSerializedArticleWhileVersionIsUnchanged() {
+		current.set(Optional.of(article("タイトル", CREATED_AT)));
+
+		SerializedArticle first = cache.getOrSerialize(1L, id -> current.get()).orElseThrow();
+		SerializedArticle second = cache.getOrSerialize(1L, id -> current.get()).orElseThrow();
+
+		assertThat(second).isSameAs(first);
+	}
+
+	@Test
+	void reserializesWhenUpdatedAtChanges() {
+		current.set(Optional.of(article("更新前", CREATED_AT)));
+		cache.getOrSerialize(1L, id -> current.get());
+
+		// 他のインスタンスで更新された（このインスタンスのキャッシュは削除されていない）
+		current.set(Optional.of(article("更新後", CREATED_AT.plusSeconds(1))));
+		SerializedArticle serialized = cache.getOrSerialize(1L, id -> current.get()).orElseThrow();
+
+		assertThat(new String(serialized.getJson(), StandardCharsets.UTF_8)).contains("更新後");
+		assertThat(serialized.getVersion().getUpdatedAt()).isEqualTo(CREATED_AT.plusSeconds(1));
+	}
+
+	@Test
+	void returnsEmptyForDeletedArticle() {
+		current.set(Optional.of(article("タイトル", CREATED_AT)));
+		cache.getOrSerialize(1L, id -> current.get());
+
+		current.set(Optional.empty());
+
+		assertThat(cache.getOrSerialize(1L, id -> current.get())).isEmpty();
+		assertThat(cache.stats().getSize()).isZero();
+	}
+
+	private static Article article(String title, LocalDateTime updatedAt) {
+		return new Article(1L, title, "本文", CREATED_AT, updatedAt);
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.example.simple_spring_rest_api.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+	@Test
+	void evictsLeastRecentlyUsedEntryWhenFull() {
+		BoundedCache<Long, String> cache = new BoundedCache<>(2, Duration.ofMinutes(1));
+		cache.put(1L, "a");
+		cache.put(2L, "b");
+		cache.getIfPresent(1L);
+		cache.put(3L, "c");
+
+		assertThat(cache.getIfPresent(1L)).isEqualTo("a");
+		assertThat(cache.getIfPresent(2L)).isNull();
+		assertThat(cache.getIfPresent(3L)).isEqualTo("c");
+		assertThat(cache.stats().getEvictionCount()).isEqualTo(1);
+	}
+
+	@Test
+	void expiredEntriesAreNotReturned() {
+		BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ZERO);
+		cache.put(1L, "a");
+
+		assertThat(cache.getIfPresent(1L)).isNull();
+		assertThat(cache.stats().getMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	void getOrLoadCallsLoaderOnlyOnMiss() {
+		BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.getOrLoad(1L, id -> "v" + loads.incrementAndGet());
+		String second = cache.getOrLoad(1L, id -> "v" + loads.incrementAndGet());
+
+		assertThat(second).isEqualTo("v1");
+		assertThat(loads).hasValue(1);
+		assertThat(cache.stats().getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void valueLoadedDuringInvalidationIsNotCached() {
+		BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+		cache.getOrLoad(1L, id -> {
+			cache.invalidate(id);
+			return "stale";
+		});
+
+		assertThat(cache.getIfPresent(1L)).isNull();
+	}
+
+	@Test
+	void invalidatingAnotherKeyDoesNotDiscardLoadedValue() {
+		BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+		cache.getOrLoad(1L, id -> {
+			cache.invalidate(2L);
+			cache.invalidateAll();
+			return "stale";
+		});
+		cache.getOrLoad(3L, id -> {
+			cache.invalidate(4L);
+			return "fresh";
+		});
+
+		assertThat(cache.getIfPresent(1L)).isNull();
+		assertThat(cache.getIfPresent(3L)).isEqualTo("fresh");
+	}
+
+	@Test
+	void valuePutDuringLoadIsNotOverwritten() {
+		BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+		String loaded = cache.getOrLoad(1L, id -> {
+			cache.put(id, "newer");
+			return "older";
+		});
+
+		assertThat(loaded).isEqualTo("older");
+		assertThat(cache.getIfPresent(1L)).isEqualTo("newer");
+		assertThat(cache.stats().getSize()).isEqualTo(1);
+	}
+
+	@Test
+	void failedLoadDoesNotBlockLaterLoads() {
+		BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+		assertThatThrownBy(() -> cache.getOrLoad(1L, id -> {
+			throw new IllegalStateException("失敗");
+		})).isInstanceOf(IllegalStateException.class);
+		cache.getOrLoad(1L, id -> "loaded");
+
+		assertThat(cache.getIfPresent(1L)).isEqualTo("loaded");
+		assertThat(cache.stats().getSize()).isEqualTo(1);
+	}
+
+	@Test
+	void weightBoundEvictsUntilUnderLimit() {
+		BoundedCache<Long, String> cache = new BoundedCache<>(5, String::length, value -> Duration.ofMinutes(1));
+		cache.put(1L, "aaa");
+		cache.put(2L, "bbb");
+
+		assertThat(cache.getIfPresent(1L)).isNull();
+		assertThat(cache.stats().getWeight()).isEqualTo(3);
+	}
+
+	@Test
+	void getAllOrLoadLoadsOnlyMissingKeysAndKeepsRequestOrder() {
+		BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+		cache.put(2L, "cached");
+		AtomicReference<Set<Long>> requested = new AtomicReference<>();
+
+		Map<Long, String> result = cache.getAllOrLoad(List.of(3L, 2L, 1L), missing -> {
+			requested.set(missing);
+			return Map.of(3L, "loaded");
+		});
+
+		assertThat(requested.get()).containsExactly(3L, 1L);
+		assertThat(result).containsExactly(Map.entry(3L, "loaded"), Map.entry(2L, "cached"));
+		assertThat(cache.getIfPresent(3L)).isEqualTo("loaded");
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.simple_spring_rest_api.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+	@Test
+	void concurrentCallsShareOneLoad() throws Exception {
+		SingleFlight<Long, String> flight = new SingleFlight<>(Duration.ofSeconds(10));
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ConcurrentLinkedQueue<String> results = new ConcurrentLinkedQueue<>();
+
+		Thread leader = new Thread(() -> results.add(flight.execute(1L, () -> {
+			loads.incrementAndGet();
+			started.countDown();
+			awaitQuietly(release);
+			return "a";
+		})));
+		leader.start();
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		List<Thread> waiters = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			Thread waiter = new Thread(() -> results.add(flight.execute(1L, () -> {
+				loads.incrementAndGet();
+				return "b";
+			})));
+			waiter.start();
+			waiters.add(waiter);
+		}
+		// すべてのスレッドがリーダーの完了を待つまで待機する
+		for (Thread waiter : waiters) {
+			while (waiter.getState() != Thread.State.TIMED_WAITING) {
+				Thread.sleep(1);
+			}
+		}
+		release.countDown();
+
+		leader.join(5000);
+		for (Thread waiter : waiters) {
+			waiter.join(5000);
+		}
+
+		assertThat(results).hasSize(8).containsOnly("a");
+		assertThat(loads.get()).isEqualTo(1);
+		assertThat(flight.stats().getCoalescedCount()).isEqualTo(7);
+		assertThat(flight.stats().getInFlightCount()).isZero();
+	}
+
+	@Test
+	void failureIsNotSharedWithNextCall() {
+		SingleFlight<Long, String> flight = new SingleFlight<>(Duration.ofSeconds(10));
+
+		assertThatThrownBy(() -> flight.execute(1L, () -> {
+			throw new IllegalStateException("失敗");
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(flight.execute(1L, () -> "a")).isEqualTo("a");
+		assertThat(flight.stats().getExecutedCount()).isEqualTo(2);
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package com.example.simple_spring_rest_api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.simple_spring_rest_api.support.TestDatabase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * POST /api/articles/bulk が入力順にIDを返し、件数の上限・不正な記事ではすべてロールバックすることを確認する
+ * （バッチのサイズより多い件数で、複数回の executeBatch を1つのトランザクションで実行する）
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:article_bulk;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"article.bulk.batch-size=2",
+		"article.bulk.max-items=3" })
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ArticleBulkCreateTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		TestDatabase.ensureUser(dataSource, passwordEncoder);
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement()) {
+			statement.executeUpdate("DELETE FROM articles");
+		}
+	}
+
+	@Test
+	void jsonArrayReturnsIdsInInputOrder() throws Exception {
+		String response = mockMvc.perform(bulk(MediaType.APPLICATION_JSON,
+				"[" + article("一件目") + "," + article("二件目") + "," + article("三件目") + "]"))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.count").value(3))
+				.andReturn().getResponse().getContentAsString();
+
+		JsonNode ids = objectMapper.readTree(response).get("ids");
+		assertThat(ids).hasSize(3);
+		String[] titles = { "一件目", "二件目", "三件目" };
+		for (int i = 0; i < titles.length; i++) {
+			mockMvc.perform(get("/api/articles/{id}", ids.get(i).asLong()))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.title").value(titles[i]));
+		}
+	}
+
+	@Test
+	void ndjsonIsAccepted() throws Exception {
+		mockMvc.perform(bulk(MediaType.APPLICATION_NDJSON, article("一件目") + "\n" + article("二件目") + "\n"))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.count").value(2));
+
+		assertThat(countArticles()).isEqualTo(2);
+	}
+
+	@Test
+	void moreThanMaxItemsIsRejectedWithoutSaving() throws Exception {
+		mockMvc.perform(bulk(MediaType.APPLICATION_JSON,
+				"[" + article("1") + "," + article("2") + "," + article("3") + "," + article("4") + "]"))
+				.andExpect(status().isBadRequest());
+
+		// 上限に達する前にINSERTしたバッチもロールバックする
+		assertThat(countArticles()).isZero();
+	}
+
+	@Test
+	void invalidArticleRollsBackEarlierBatches() throws Exception {
+		mockMvc.perform(bulk(MediaType.APPLICATION_JSON,
+				"[" + article("1") + "," + article("2") + ",{\"title\":\"\",\"content\":\"本文\"}]"))
+				.andExpect(status().isBadRequest());
+
+		assertThat(countArticles()).isZero();
+	}
+
+	@Test
+	void unreadableBodyIsRejectedWithoutSaving() throws Exception {
+		mockMvc.perform(bulk(MediaType.APPLICATION_JSON, "[" + article("1") + ",{\"title\":"))
+				.andExpect(status().isBadRequest());
+
+		assertThat(countArticles()).isZero();
+	}
+
+	@Test
+	void requiresAuthentication() throws Exception {
+		mockMvc.perform(post("/api/articles/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[" + article("1") + "]"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	private static MockHttpServletRequestBuilder bulk(MediaType contentType, String body) {
+		return post("/api/articles/bulk")
+				.header(HttpHeaders.AUTHORIZATION, TestDatabase.basicAuthorization())
+				.contentType(contentType)
+				.content(body);
+	}
+
+	private static String article(String title) {
+		return "{\"title\":\"" + title + "\",\"content\":\"本文\"}";
+	}
+
+	private long countArticles() throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM articles")) {
+			resultSet.next();
+			return resultSet.getLong(1);
+		}
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.example.simple_spring_rest_api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.repository.ArticleRepository;
+
+/**
+ * GET /api/articles/{id} のETagが、返す表現（gzip圧縮の有無）に応じて決まることを確認する
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:article_etag;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ArticleETagTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ArticleRepository articleRepository;
+
+	@Test
+	void gzipResponseHasWeakETag() throws Exception {
+		Long id = saveLargeArticle();
+
+		String eTag = mockMvc.perform(get("/api/articles/{id}", id)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(eTag).startsWith("W/");
+
+		mockMvc.perform(get("/api/articles/{id}", id)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+				.header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void conditionalGzipRequestGetsWeakETag() throws Exception {
+		Long id = saveLargeArticle();
+
+		// 条件判定で一致しなかった場合も、返すgzipの本文に合わせた弱いETagになる
+		String eTag = mockMvc.perform(get("/api/articles/{id}", id)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(eTag).startsWith("W/");
+	}
+
+	@Test
+	void identityResponseHasStrongETag() throws Exception {
+		Long id = saveLargeArticle();
+
+		String eTag = mockMvc.perform(get("/api/articles/{id}", id)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(eTag).startsWith("\"");
+	}
+
+	private Long saveLargeArticle() {
+		// gzip圧縮済みのJSONを保持する大きさ（article.json-cache.gzip-min-size 以上）の本文
+		return articleRepository.save(new Article("タイトル", "本文".repeat(2000))).getId();
+	}
+
+}
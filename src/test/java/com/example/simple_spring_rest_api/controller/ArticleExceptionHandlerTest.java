@@ -0,0 +1,108 @@
+package com.example.simple_spring_rest_api.controller;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.simple_spring_rest_api.support.TestDatabase;
+
+/**
+ * 記事APIのエラーの変換を確認する
+ * 存在しない記事は例外を使わずに 404、入力値の誤りは ArticleExceptionHandler で 400 にし、
+ * DBの障害は 404 や 400 にせず既定のエラー処理（500）に任せる
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:article_errors;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ArticleExceptionHandlerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		TestDatabase.ensureUser(dataSource, passwordEncoder);
+	}
+
+	@Test
+	void missingArticleIsNotFoundWithoutBody() throws Exception {
+		mockMvc.perform(get("/api/articles/{id}", 999_999))
+				.andExpect(status().isNotFound())
+				.andExpect(content().string(""));
+		mockMvc.perform(get("/api/articles/{id}", 999_999).header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(get("/api/articles/{id}", 999_999).accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void invalidParametersAreBadRequest() throws Exception {
+		mockMvc.perform(get("/api/articles/{id}", "abc"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/articles").param("ids", "0"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/articles/search").param("q", " "))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/articles").param("view", "unknown"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void invalidArticleIsBadRequest() throws Exception {
+		mockMvc.perform(post("/api/articles")
+				.header(HttpHeaders.AUTHORIZATION, TestDatabase.basicAuthorization())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"\",\"content\":\"本文\"}"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/api/articles")
+				.header(HttpHeaders.AUTHORIZATION, TestDatabase.basicAuthorization())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void databaseFailureIsNotReportedAsNotFound() throws Exception {
+		renameArticlesTable("articles", "articles_unavailable");
+		try {
+			// MockMvc には既定のエラーページがないため、500 になる例外がそのまま送出される
+			assertThatThrownBy(() -> mockMvc.perform(get("/api/articles/{id}", 123_456)))
+					.hasRootCauseInstanceOf(SQLException.class);
+		} finally {
+			renameArticlesTable("articles_unavailable", "articles");
+		}
+	}
+
+	private void renameArticlesTable(String from, String to) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement()) {
+			statement.executeUpdate("ALTER TABLE " + from + " RENAME TO " + to);
+		}
+	}
+
+}
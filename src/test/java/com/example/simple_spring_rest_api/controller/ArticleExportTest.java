@@ -0,0 +1,136 @@
+package com.example.simple_spring_rest_api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.repository.ArticleRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * GET /api/articles/export が全記事をNDJSONで書き出し、クライアントが切断した場合はすぐに接続を返すことを確認する
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:article_export;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ArticleExportTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private ArticleRepository articleRepository;
+
+	@Autowired
+	private ArticleController articleController;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement()) {
+			statement.executeUpdate("DELETE FROM articles");
+		}
+	}
+
+	@Test
+	void exportsEveryArticleAsOneJsonLineInIdOrder() throws Exception {
+		List<Long> ids = saveArticles(3, "本文");
+
+		MvcResult result = mockMvc.perform(get("/api/articles/export"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+
+		String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+		assertThat(body).endsWith("\n");
+		String[] lines = body.split("\n");
+		assertThat(lines).hasSize(3);
+		for (int i = 0; i < lines.length; i++) {
+			JsonNode article = objectMapper.readTree(lines[i]);
+			assertThat(article.get("id").asLong()).isEqualTo(ids.get(i));
+			assertThat(article.get("title").asText()).isEqualTo("タイトル" + i);
+			assertThat(article.get("content").asText()).isEqualTo("本文");
+		}
+	}
+
+	@Test
+	void clientAbortStopsReadingAndReleasesConnection() throws Exception {
+		// JsonGenerator のバッファ（約8KB）を何度も超える量の記事
+		saveArticles(200, "本文".repeat(500));
+		FailingOutputStream client = new FailingOutputStream();
+
+		StreamingResponseBody body = articleController.exportArticles().getBody();
+		assertThatThrownBy(() -> body.writeTo(client)).isInstanceOf(IOException.class);
+
+		// 最初の書き込みの失敗で打ち切り、残りの行は書き出さない
+		// （書き込みは失敗した1回と、JsonGenerator を閉じるときに残りのバッファを書き出そうとする1回だけ）
+		assertThat(client.writes).isLessThanOrEqualTo(2);
+		assertThat(dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getActiveConnections())
+				.isZero();
+	}
+
+	private List<Long> saveArticles(int count, String content) {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			ids.add(articleRepository.save(new Article("タイトル" + i, content)).getId());
+		}
+		return ids;
+	}
+
+	/**
+	 * 切断したクライアントへの書き込みのように、常に失敗する出力先
+	 */
+	private static final class FailingOutputStream extends OutputStream {
+
+		private int writes;
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			writes++;
+			throw new IOException("Broken pipe");
+		}
+	}
+
+}
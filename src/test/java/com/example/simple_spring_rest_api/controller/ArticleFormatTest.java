@@ -0,0 +1,32 @@
+package com.example.simple_spring_rest_api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ArticleFormatTest {
+
+	@Test
+	void defaultsToJson() {
+		assertThat(ArticleFormat.negotiate(null)).isEqualTo(ArticleFormat.JSON);
+		assertThat(ArticleFormat.negotiate("*/*")).isEqualTo(ArticleFormat.JSON);
+		assertThat(ArticleFormat.negotiate("application/json, application/cbor")).isEqualTo(ArticleFormat.JSON);
+		assertThat(ArticleFormat.negotiate("text/html")).isEqualTo(ArticleFormat.JSON);
+		assertThat(ArticleFormat.negotiate("not a media type")).isEqualTo(ArticleFormat.JSON);
+	}
+
+	@Test
+	void selectsBinaryFormatWithHigherQuality() {
+		assertThat(ArticleFormat.negotiate("application/cbor")).isEqualTo(ArticleFormat.CBOR);
+		assertThat(ArticleFormat.negotiate("application/x-jackson-smile, */*;q=0.5")).isEqualTo(ArticleFormat.SMILE);
+		assertThat(ArticleFormat.negotiate("application/json;q=0.5, application/*")).isEqualTo(ArticleFormat.CBOR);
+	}
+
+	@Test
+	void resolvesRequestBodyFormat() {
+		assertThat(ArticleFormat.fromContentType("application/cbor")).isEqualTo(ArticleFormat.CBOR);
+		assertThat(ArticleFormat.fromContentType("application/x-ndjson")).isEqualTo(ArticleFormat.JSON);
+		assertThat(ArticleFormat.fromContentType("application/json;charset=UTF-8")).isEqualTo(ArticleFormat.JSON);
+	}
+
+}
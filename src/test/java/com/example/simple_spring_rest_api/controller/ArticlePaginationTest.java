@@ -0,0 +1,151 @@
+package com.example.simple_spring_rest_api.controller;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.repository.ArticleRepository;
+
+/**
+ * GET /api/articles のキーセットページングで、カーソルの境界と不正なパラメーターを確認する
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:article_pagination;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"article.pagination.default-limit=2",
+		"article.pagination.max-limit=3" })
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ArticlePaginationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private ArticleRepository articleRepository;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement()) {
+			statement.executeUpdate("DELETE FROM articles");
+		}
+	}
+
+	@Test
+	void followsCursorUntilLastPage() throws Exception {
+		List<Long> ids = saveArticles(5);
+
+		mockMvc.perform(get("/api/articles"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(2)))
+				.andExpect(jsonPath("$[0].id").value(ids.get(0)))
+				.andExpect(jsonPath("$[1].id").value(ids.get(1)))
+				.andExpect(header().string(ArticleController.NEXT_CURSOR_HEADER, String.valueOf(ids.get(1))))
+				.andExpect(header().string(HttpHeaders.LINK,
+						"<http://localhost/api/articles?after=" + ids.get(1) + "&limit=2>; rel=\"next\""));
+
+		mockMvc.perform(get("/api/articles").param("after", String.valueOf(ids.get(1))))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].id").value(ids.get(2)))
+				.andExpect(jsonPath("$[1].id").value(ids.get(3)))
+				.andExpect(header().string(ArticleController.NEXT_CURSOR_HEADER, String.valueOf(ids.get(3))));
+
+		// 最後のページは次のカーソルを返さない
+		mockMvc.perform(get("/api/articles").param("after", String.valueOf(ids.get(3))))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(1)))
+				.andExpect(jsonPath("$[0].id").value(ids.get(4)))
+				.andExpect(header().doesNotExist(ArticleController.NEXT_CURSOR_HEADER))
+				.andExpect(header().doesNotExist(HttpHeaders.LINK));
+	}
+
+	@Test
+	void fullLastPageHasNoNextCursor() throws Exception {
+		List<Long> ids = saveArticles(4);
+
+		// 残りがちょうど1ページ分の場合は、空のページへのカーソルを返さない
+		mockMvc.perform(get("/api/articles").param("after", String.valueOf(ids.get(1))))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(2)))
+				.andExpect(header().doesNotExist(ArticleController.NEXT_CURSOR_HEADER));
+	}
+
+	@Test
+	void cursorAfterLastArticleReturnsEmptyPage() throws Exception {
+		List<Long> ids = saveArticles(2);
+
+		mockMvc.perform(get("/api/articles").param("after", String.valueOf(ids.get(1))))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(0)))
+				.andExpect(header().doesNotExist(ArticleController.NEXT_CURSOR_HEADER));
+	}
+
+	@Test
+	void cursorOfDeletedArticleContinuesFromNextId() throws Exception {
+		List<Long> ids = saveArticles(3);
+		articleRepository.deleteById(ids.get(1));
+
+		// カーソルの記事が削除されていても、そのIDより後ろから続けて取得できる
+		mockMvc.perform(get("/api/articles").param("after", String.valueOf(ids.get(1))))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(1)))
+				.andExpect(jsonPath("$[0].id").value(ids.get(2)));
+	}
+
+	@Test
+	void limitIsCappedAtServerMaximum() throws Exception {
+		List<Long> ids = saveArticles(5);
+
+		mockMvc.perform(get("/api/articles").param("limit", "1000"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(3)))
+				.andExpect(header().string(ArticleController.NEXT_CURSOR_HEADER, String.valueOf(ids.get(2))))
+				.andExpect(header().string(HttpHeaders.LINK,
+						"<http://localhost/api/articles?after=" + ids.get(2) + "&limit=3>; rel=\"next\""));
+	}
+
+	@Test
+	void invalidCursorOrLimitIsBadRequest() throws Exception {
+		mockMvc.perform(get("/api/articles").param("after", "-1"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/articles").param("after", "abc"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/articles").param("limit", "0"))
+				.andExpect(status().isBadRequest());
+		// 条件付きリクエストの場合も同じように検証する
+		mockMvc.perform(get("/api/articles").param("after", "-1").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+				.andExpect(status().isBadRequest());
+	}
+
+	private List<Long> saveArticles(int count) {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			ids.add(articleRepository.save(new Article("タイトル" + i, "本文" + i)).getId());
+		}
+		return ids;
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.example.simple_spring_rest_api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.repository.ArticleRepository;
+
+/**
+ * 大きなJSONの一覧が Tomcat のレスポンスの圧縮（server.compression.*）で gzip 圧縮されることを確認する
+ * （MockMvc ではTomcatの圧縮が行われないため、実際にサーバーを起動する）
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.datasource.url=jdbc:h2:mem:response_compression;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class ArticleResponseCompressionTest {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private ArticleRepository articleRepository;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < 20; i++) {
+			articleRepository.save(new Article("記事" + i, "Spring Bootと生JDBCでREST APIを実装する。".repeat(20)));
+		}
+	}
+
+	@Test
+	void largeJsonListIsCompressed() throws Exception {
+		HttpResponse<byte[]> response = get("/api/articles?view=full&limit=20", "gzip");
+
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+		assertThat(response.headers().firstValue(HttpHeaders.ETAG)).hasValueSatisfying(
+				eTag -> assertThat(eTag).startsWith("W/"));
+		assertThat(gunzip(response.body())).startsWith("[{").contains("Spring Boot");
+	}
+
+	@Test
+	void listIsNotCompressedWithoutAcceptEncoding() throws Exception {
+		HttpResponse<byte[]> response = get("/api/articles?view=full&limit=20", null);
+
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+		assertThat(response.headers().firstValue(HttpHeaders.ETAG)).hasValueSatisfying(
+				eTag -> assertThat(eTag).startsWith("\""));
+	}
+
+	private HttpResponse<byte[]> get(String path, String acceptEncoding) throws IOException, InterruptedException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+		if (acceptEncoding != null) {
+			request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	private static String gunzip(byte[] body) throws IOException {
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.example.simple_spring_rest_api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.repository.ArticleRepository;
+import com.example.simple_spring_rest_api.support.TestDatabase;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * PUT / DELETE /api/articles/{id} が1つの接続（1つのトランザクション）で実行され、
+ * 存在確認を更新件数・削除件数で行うことを確認する
+ * （接続の取得回数は QueryBudgetFilter の jdbc.request.connections で数える）
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:article_update_delete;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ArticleUpdateDeleteTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private ArticleRepository articleRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		TestDatabase.ensureUser(dataSource, passwordEncoder);
+		// 認証時のユーザーの読み込みを数えないよう、先に一度認証しておく
+		mockMvc.perform(delete("/api/articles/{id}", Long.MAX_VALUE)
+				.header(HttpHeaders.AUTHORIZATION, TestDatabase.basicAuthorization()));
+	}
+
+	@Test
+	void updateReturnsUpdatedArticleUsingOneConnection() throws Exception {
+		Long id = articleRepository.save(new Article("更新前", "本文")).getId();
+		// 更新前の記事をキャッシュに入れておく
+		mockMvc.perform(get("/api/articles/{id}", id))
+				.andExpect(jsonPath("$.title").value("更新前"));
+
+		assertUsesOneConnection(() -> updateArticle(id, "{\"title\":\"更新後\",\"content\":\"新しい本文\"}")
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(id))
+				.andExpect(jsonPath("$.title").value("更新後"))
+				.andExpect(jsonPath("$.content").value("新しい本文")));
+
+		mockMvc.perform(get("/api/articles/{id}", id))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.title").value("更新後"));
+	}
+
+	@Test
+	void updateOfMissingArticleIsNotFoundUsingOneConnection() throws Exception {
+		assertUsesOneConnection(() -> updateArticle(Long.MAX_VALUE - 1, "{\"title\":\"タイトル\",\"content\":\"本文\"}")
+				.andExpect(status().isNotFound()));
+	}
+
+	@Test
+	void invalidUpdateIsRejectedWithoutChangingArticle() throws Exception {
+		Long id = articleRepository.save(new Article("更新前", "本文")).getId();
+
+		updateArticle(id, "{\"title\":\" \",\"content\":\"本文\"}")
+				.andExpect(status().isBadRequest());
+
+		assertThat(articleRepository.findById(id)).get()
+				.extracting(Article::getTitle).isEqualTo("更新前");
+	}
+
+	@Test
+	void deleteUsesOneConnectionAndSecondDeleteIsNotFound() throws Exception {
+		Long id = articleRepository.save(new Article("タイトル", "本文")).getId();
+		mockMvc.perform(get("/api/articles/{id}", id))
+				.andExpect(status().isOk());
+
+		assertUsesOneConnection(() -> deleteArticle(id)
+				.andExpect(status().isNoContent()));
+
+		mockMvc.perform(get("/api/articles/{id}", id))
+				.andExpect(status().isNotFound());
+		assertUsesOneConnection(() -> deleteArticle(id)
+				.andExpect(status().isNotFound()));
+	}
+
+	private ResultActions updateArticle(Long id, String body) throws Exception {
+		return mockMvc.perform(put("/api/articles/{id}", id)
+				.header(HttpHeaders.AUTHORIZATION, TestDatabase.basicAuthorization())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body));
+	}
+
+	private ResultActions deleteArticle(Long id) throws Exception {
+		return mockMvc.perform(delete("/api/articles/{id}", id)
+				.header(HttpHeaders.AUTHORIZATION, TestDatabase.basicAuthorization()));
+	}
+
+	/**
+	 * 1回のリクエストで接続を1回だけ取得することを確認する
+	 */
+	private void assertUsesOneConnection(ThrowingRequest request) throws Exception {
+		DistributionSummary connections = meterRegistry.get("jdbc.request.connections").summary();
+		long count = connections.count();
+		double total = connections.totalAmount();
+
+		request.perform();
+
+		assertThat(connections.count()).isEqualTo(count + 1);
+		assertThat(connections.totalAmount() - total).isEqualTo(1.0);
+	}
+
+	@FunctionalInterface
+	private interface ThrowingRequest {
+		void perform() throws Exception;
+	}
+
+}
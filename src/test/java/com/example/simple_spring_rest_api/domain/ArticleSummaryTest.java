@@ -0,0 +1,33 @@
+package com.example.simple_spring_rest_api.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ArticleSummaryTest {
+
+	@Test
+	void keepsShortContentAsIs() {
+		assertThat(ArticleSummary.teaserOf("短い本文")).isEqualTo("短い本文");
+	}
+
+	@Test
+	void truncatesLongContentWithoutSplittingSurrogatePairs() {
+		// 139文字 + 絵文字（サロゲートペア）+ 続き
+		String content = "あ".repeat(ArticleSummary.TEASER_LENGTH - 1) + "😀" + "続きの本文";
+
+		String teaser = ArticleSummary.teaserOf(content);
+
+		assertThat(teaser).isEqualTo("あ".repeat(ArticleSummary.TEASER_LENGTH - 1) + "😀…");
+		assertThat(teaser.codePointCount(0, teaser.length())).isEqualTo(ArticleSummary.TEASER_LENGTH + 1);
+	}
+
+	@Test
+	void doesNotSplitCombiningCharacters() {
+		// 140文字目の直後に結合文字（濁点）が続く場合は、その文字ごと省略する
+		String content = "か".repeat(ArticleSummary.TEASER_LENGTH - 1) + "は\u3099" + "続き";
+
+		assertThat(ArticleSummary.teaserOf(content)).isEqualTo("か".repeat(ArticleSummary.TEASER_LENGTH - 1) + "…");
+	}
+
+}
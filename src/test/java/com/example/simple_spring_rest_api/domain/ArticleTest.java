@@ -0,0 +1,28 @@
+package com.example.simple_spring_rest_api.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ArticleTest {
+
+	@Test
+	void toStringDoesNotLoadDeferredContent() {
+		AtomicInteger loads = new AtomicInteger();
+		Article article = new Article(1L, "タイトル", null, null, null);
+		article.deferContent(() -> {
+			loads.incrementAndGet();
+			return "展開した本文";
+		});
+
+		assertThat(article.toString()).contains("content=deferred").doesNotContain("展開した本文");
+		assertThat(loads).hasValue(0);
+
+		assertThat(article.getContent()).isEqualTo("展開した本文");
+		assertThat(article.toString()).contains("content=length=6");
+		assertThat(loads).hasValue(1);
+	}
+
+}
@@ -0,0 +1,207 @@
+package com.example.simple_spring_rest_api.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.simple_spring_rest_api.domain.Article;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 変更フィードの再送・reset イベント・遅い購読者の切断を確認する
+ * （SSEの送信がクライアントの受信に合わせて止まるよう、実際にサーバーを起動して接続する）
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:change_feed;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"article.events.buffer-size=4",
+		"article.events.send-timeout=2s" })
+@ActiveProfiles("test")
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+class ArticleChangeFeedTest {
+
+	// 受信しないクライアントに送ると、ソケットのバッファが埋まって送信が止まる大きさ
+	private static final int BLOCKING_TITLE_LENGTH = 32 * 1024 * 1024;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private ArticleChangeFeed changeFeed;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void sendsResetWhenLastEventIdIsUnknown() throws Exception {
+		try (InputStream body = subscribe("unknown-1")) {
+			Map<String, String> reset = readEvent(reader(body));
+
+			assertThat(reset.get("event")).isEqualTo("reset");
+			assertThat(reset.get("data")).contains("resume-unavailable");
+			assertThat(reset.get("id")).matches("[0-9a-z]+-\\d+");
+		}
+	}
+
+	@Test
+	void resumesAfterLastEventId() throws Exception {
+		String latestId;
+		try (InputStream body = subscribe("unknown-1")) {
+			latestId = readEvent(reader(body)).get("id");
+		}
+		String epoch = latestId.substring(0, latestId.indexOf('-'));
+		long latest = Long.parseLong(latestId.substring(latestId.indexOf('-') + 1));
+
+		changeFeed.articleCreated(article(1L, "記事1"));
+		changeFeed.articleUpdated(article(2L, "記事2"));
+		changeFeed.articleDeleted(3L);
+
+		// 1件目まで受信済みとして再接続する
+		try (InputStream body = subscribe(epoch + "-" + (latest + 1))) {
+			BufferedReader reader = reader(body);
+			Map<String, String> updated = readEvent(reader);
+			Map<String, String> deleted = readEvent(reader);
+
+			assertThat(updated.get("id")).isEqualTo(epoch + "-" + (latest + 2));
+			assertThat(updated.get("event")).isEqualTo("updated");
+			assertThat(updated.get("data")).contains("\"title\":\"記事2\"");
+			assertThat(deleted.get("id")).isEqualTo(epoch + "-" + (latest + 3));
+			assertThat(deleted.get("event")).isEqualTo("deleted");
+			assertThat(deleted.get("data")).isEqualTo("{\"id\":3}");
+		}
+	}
+
+	@Test
+	void dropsConsumerThatFallsBehindTheBuffer() throws Exception {
+		double dropped = droppedCount("slow");
+
+		try (InputStream body = subscribe("unknown-1")) {
+			BufferedReader reader = reader(body);
+			readEvent(reader);
+
+			// 受信しない間に送信を止め、その間にリングバッファ（4件）を1周以上進める
+			changeFeed.articleCreated(article(1L, "a".repeat(BLOCKING_TITLE_LENGTH)));
+			for (long id = 2; id <= 10; id++) {
+				changeFeed.articleCreated(article(id, "記事" + id));
+			}
+
+			// 受信を再開すると、上書きされたイベントは届かずに接続が終了している
+			assertThat(readToEnd(reader)).doesNotContain("\"title\":\"記事10\"");
+		}
+		assertThat(droppedCount("slow")).isEqualTo(dropped + 1);
+	}
+
+	@Test
+	void dropsConsumerWhoseSendDoesNotFinish() throws Exception {
+		double dropped = droppedCount("stalled");
+
+		try (InputStream body = subscribe("unknown-1")) {
+			BufferedReader reader = reader(body);
+			readEvent(reader);
+
+			// 受信しないため送信が止まる。配信スレッドが send-timeout（2秒）の経過後に切断する
+			changeFeed.articleCreated(article(1L, "a".repeat(BLOCKING_TITLE_LENGTH)));
+			readEventHeader(reader);
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (droppedCount("stalled") == dropped && System.nanoTime() < deadline) {
+				Thread.sleep(50);
+			}
+			assertThat(droppedCount("stalled")).isEqualTo(dropped + 1);
+
+			// 送信中だったイベントの後は何も届かずに接続が終了している
+			assertThat(readToEnd(reader)).doesNotContain("event:");
+		}
+	}
+
+	private InputStream subscribe(String lastEventId) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/articles/events"))
+				.header("Last-Event-ID", lastEventId)
+				.build();
+		HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+		assertThat(response.statusCode()).isEqualTo(200);
+		return response.body();
+	}
+
+	/**
+	 * 1件分のイベント（空行まで）を読み込む。コメント（ハートビート）は読み飛ばす
+	 */
+	private static Map<String, String> readEvent(BufferedReader reader) throws IOException {
+		Map<String, String> fields = new LinkedHashMap<>();
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.isEmpty()) {
+				if (!fields.isEmpty()) {
+					return fields;
+				}
+				continue;
+			}
+			int separator = line.indexOf(':');
+			if (separator > 0) {
+				fields.put(line.substring(0, separator), line.substring(separator + 1).strip());
+			}
+		}
+		return fields;
+	}
+
+	/**
+	 * 送信中のイベントの先頭（data の前まで）を読み込む
+	 */
+	private static void readEventHeader(BufferedReader reader) throws IOException {
+		String line;
+		while ((line = reader.readLine()) != null && !line.startsWith("event:")) {
+			// id などを読み飛ばす
+		}
+		assertThat(line).isEqualTo("event:created");
+	}
+
+	/**
+	 * 接続が終了するまで読み込む（サーバーが切断した場合も終了とする）
+	 */
+	private static String readToEnd(BufferedReader reader) {
+		StringBuilder content = new StringBuilder();
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				// 大きなイベントの data は先頭だけを残す
+				content.append(line, 0, Math.min(line.length(), 100)).append('\n');
+			}
+		} catch (IOException e) {
+			// 送信中に切断された
+		}
+		return content.toString();
+	}
+
+	private static BufferedReader reader(InputStream body) {
+		return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+	}
+
+	private static Article article(long id, String title) {
+		return new Article(id, title, "本文", null, null);
+	}
+
+	private double droppedCount(String reason) {
+		return meterRegistry.get("article.events.dropped").tag("reason", reason).counter().count();
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.example.simple_spring_rest_api.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.repository.ArticleRepository;
+
+/**
+ * jdbc.tracing.fail-on-budget-exceeded=true の場合、SQL件数の上限を超えたリクエストが失敗することを確認する
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:query_budget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"jdbc.tracing.fail-on-budget-exceeded=true",
+		"jdbc.tracing.query-budget=0" })
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class QueryBudgetIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ArticleRepository articleRepository;
+
+	@Test
+	void failsWhenBudgetExceeded() {
+		Long id = articleRepository.save(new Article("タイトル", "本文")).getId();
+
+		assertThatThrownBy(() -> mockMvc.perform(get("/api/articles/{id}", id)))
+				.hasRootCauseInstanceOf(QueryBudgetExceededException.class);
+	}
+
+}
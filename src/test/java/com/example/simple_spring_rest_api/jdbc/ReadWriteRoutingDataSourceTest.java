@@ -0,0 +1,107 @@
+package com.example.simple_spring_rest_api.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 2つの組み込みH2をプライマリ・レプリカとして、振り分けを確認する
+ */
+class ReadWriteRoutingDataSourceTest {
+
+	private HikariDataSource primary;
+	private HikariDataSource replica;
+	private ReadWriteRoutingDataSource routing;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		primary = h2("routing_primary");
+		replica = h2("routing_replica");
+		routing = new ReadWriteRoutingDataSource(primary,
+				List.of(new ReadWriteRoutingDataSource.Replica("replica-1", replica, () -> 0)),
+				ReadWriteRoutingDataSource.Selection.ROUND_ROBIN, Duration.ofSeconds(5), new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void tearDown() {
+		RoutingContext.clearPrimaryOnly();
+		primary.close();
+		replica.close();
+	}
+
+	@Test
+	void routesReadOnlySectionsToReplicaAndEverythingElseToPrimary() throws SQLException {
+		assertThat(serverName(routing)).isEqualTo("routing_primary");
+		assertThat(readOnly(() -> serverName(routing))).isEqualTo("routing_replica");
+	}
+
+	@Test
+	void readsFromPrimaryRightAfterAWrite() throws SQLException {
+		RoutingContext.setPrimaryOnly();
+
+		assertThat(readOnly(() -> serverName(routing))).isEqualTo("routing_primary");
+	}
+
+	@Test
+	void fallsBackToPrimaryWhenReplicaIsUnavailable() throws SQLException {
+		replica.close();
+
+		assertThat(readOnly(() -> serverName(routing))).isEqualTo("routing_primary");
+	}
+
+	private static String readOnly(SqlSupplier<String> action) throws SQLException {
+		boolean previous = RoutingContext.enterReadOnly();
+		try {
+			return action.get();
+		} finally {
+			RoutingContext.restoreReadOnly(previous);
+		}
+	}
+
+	private static String serverName(DataSource dataSource) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery("SELECT name FROM server_name")) {
+			resultSet.next();
+			return resultSet.getString(1);
+		}
+	}
+
+	private static HikariDataSource h2(String name) throws SQLException {
+		HikariConfig config = new HikariConfig();
+		config.setJdbcUrl("jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+		config.setUsername("sa");
+		config.setPassword("");
+		config.setMaximumPoolSize(2);
+		HikariDataSource dataSource = new HikariDataSource(config);
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE IF NOT EXISTS server_name (name VARCHAR(50))");
+			statement.execute("DELETE FROM server_name");
+			statement.execute("INSERT INTO server_name VALUES ('" + name + "')");
+		}
+		return dataSource;
+	}
+
+	@FunctionalInterface
+	private interface SqlSupplier<T> {
+		T get() throws SQLException;
+	}
+
+}
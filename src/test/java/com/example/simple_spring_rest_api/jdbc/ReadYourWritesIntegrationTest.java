@@ -0,0 +1,162 @@
+package com.example.simple_spring_rest_api.jdbc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.repository.ArticleRepository;
+import com.example.simple_spring_rest_api.support.TestDatabase;
+
+import jakarta.servlet.http.Cookie;
+
+/**
+ * レプリカが遅延している場合も、書き込んだクライアントが自分の書き込みを読めることを確認する
+ * （ReadYourWritesFilter・ReadFromReplicaAspect を通した、記事キャッシュ・JSONキャッシュを含む読み取り）
+ *
+ * レプリカには書き込みを反映しない別の組み込みH2を使い、遅延し続けているレプリカとして扱う。
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ryw_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ReadYourWritesIntegrationTest {
+
+	private static final String REPLICA_URL = TestDatabase.jdbcUrl("ryw_replica");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private ArticleRepository articleRepository;
+
+	@DynamicPropertySource
+	static void replica(DynamicPropertyRegistry registry) throws SQLException {
+		// アプリケーションの起動時にレプリカから読むため、起動前にテーブルを作成する
+		try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "")) {
+			ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+		}
+		registry.add("jdbc.routing.replica-urls", () -> REPLICA_URL);
+	}
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		// 認証時のユーザーの検索はレプリカから読む
+		TestDatabase.ensureUser(dataSource, passwordEncoder);
+		TestDatabase.ensureUser(new DriverManagerDataSource(REPLICA_URL, "sa", ""), passwordEncoder);
+	}
+
+	@Test
+	void writerReadsOwnUpdateWhileReplicaLags() throws Exception {
+		Long id = saveOnBothNodes("更新前");
+
+		// 更新前の記事をキャッシュに入れておく
+		mockMvc.perform(get("/api/articles/{id}", id))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.title").value("更新前"));
+
+		mockMvc.perform(put("/api/articles/{id}", id)
+				.header(HttpHeaders.AUTHORIZATION, TestDatabase.basicAuthorization())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"更新後\",\"content\":\"本文\"}"))
+				.andExpect(status().isOk())
+				.andExpect(cookie().exists(ReadYourWritesFilter.STICKY_COOKIE));
+
+		// 他のクライアントの読み取りで、記事がキャッシュに入る
+		mockMvc.perform(get("/api/articles/{id}", id))
+				.andExpect(status().isOk());
+
+		Cookie sticky = new Cookie(ReadYourWritesFilter.STICKY_COOKIE, "1");
+		mockMvc.perform(get("/api/articles/{id}", id).cookie(sticky))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.title").value("更新後"));
+		mockMvc.perform(get("/api/articles").param("ids", String.valueOf(id)).cookie(sticky))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.articles[0].title").value("更新後"));
+		// 認証済みユーザーも書き込み直後はプライマリから読む
+		mockMvc.perform(get("/api/articles/{id}", id)
+				.header(HttpHeaders.AUTHORIZATION, TestDatabase.basicAuthorization()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.title").value("更新後"));
+	}
+
+	@Test
+	void cachesAreNotFilledFromReplica() throws Exception {
+		Long id = saveOnBothNodes("更新前");
+		updateOnPrimaryOnly(id, "更新後");
+
+		// キャッシュにない記事はレプリカではなくプライマリから読み込んでキャッシュする
+		mockMvc.perform(get("/api/articles/{id}", id))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.title").value("更新後"));
+		mockMvc.perform(get("/api/articles").param("ids", String.valueOf(id)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.articles[0].title").value("更新後"));
+
+		// キャッシュを使わない読み取り（一覧）はレプリカから読む
+		mockMvc.perform(get("/api/articles").param("after", String.valueOf(id - 1)).param("limit", "1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].title").value("更新前"));
+	}
+
+	/**
+	 * 同じ記事をプライマリとレプリカに保存する
+	 */
+	private Long saveOnBothNodes(String title) throws SQLException {
+		Article article = articleRepository.save(new Article(title, "本文"));
+		String sql = "INSERT INTO articles (id, title, content, teaser, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+		try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+				PreparedStatement statement = connection.prepareStatement(sql)) {
+			Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+			statement.setLong(1, article.getId());
+			statement.setString(2, title);
+			statement.setString(3, "本文");
+			statement.setString(4, "本文");
+			statement.setTimestamp(5, now);
+			statement.setTimestamp(6, now);
+			statement.executeUpdate();
+		}
+		return article.getId();
+	}
+
+	/**
+	 * プライマリの記事だけを更新する（キャッシュは経由しない。レプリカへはまだ反映されていない状態）
+	 */
+	private void updateOnPrimaryOnly(Long id, String title) {
+		Article article = new Article(title, "本文");
+		articleRepository.update(id, article);
+	}
+
+}
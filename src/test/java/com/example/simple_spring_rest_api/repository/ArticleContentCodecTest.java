@@ -0,0 +1,59 @@
+package com.example.simple_spring_rest_api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class ArticleContentCodecTest {
+
+	private final ArticleContentCodec codec = new ArticleContentCodec(true, DataSize.ofKilobytes(1), 6);
+
+	@Test
+	void roundTripsLargeContent() {
+		String content = "圧縮して保存する本文😀\n".repeat(200);
+
+		byte[] compressed = codec.compress(content);
+
+		assertThat(compressed).isNotNull();
+		assertThat(compressed.length).isLessThan(content.length());
+		assertThat(ArticleContentCodec.decompress(compressed)).isEqualTo(content);
+	}
+
+	@Test
+	void keepsSmallContentUncompressed() {
+		// 300文字・900バイト（UTF-8）は 1KB 未満
+		assertThat(codec.compress("あ".repeat(300))).isNull();
+		assertThat(ArticleContentCodec.disabled().compress("あ".repeat(10000))).isNull();
+	}
+
+	@Test
+	void rejectsUnknownFormat() {
+		byte[] compressed = codec.compress("本文".repeat(1000));
+		compressed[3] = 99;
+
+		assertThatThrownBy(() -> ArticleContentCodec.decompress(compressed))
+				.hasMessageContaining("未対応の圧縮形式");
+	}
+
+	@Test
+	void rejectsLengthBeyondLimitWithoutAllocating() {
+		byte[] compressed = codec.compress("本文".repeat(1000));
+		// 展開後のバイト数を 0x7fxxxxxx（約2GB）に書き換える
+		compressed[4] = 0x7f;
+
+		assertThatThrownBy(() -> ArticleContentCodec.decompress(compressed))
+				.hasMessageContaining("長さが不正");
+	}
+
+	@Test
+	void rejectsContentLongerThanHeader() {
+		byte[] compressed = codec.compress("本文".repeat(1000));
+		compressed[7]--;
+
+		assertThatThrownBy(() -> ArticleContentCodec.decompress(compressed))
+				.hasMessageContaining("ヘッダーの長さを超えています");
+	}
+
+}
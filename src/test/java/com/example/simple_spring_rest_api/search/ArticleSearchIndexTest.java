@@ -0,0 +1,91 @@
+package com.example.simple_spring_rest_api.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.domain.ArticleSearchHit;
+
+class ArticleSearchIndexTest {
+
+	@Test
+	void tokenizesJapaneseIntoBigramsAndLatinIntoWords() {
+		List<String> tokens = new BigramTokenizer().tokenize("Spring Bootの基本");
+
+		assertThat(tokens).containsExactly("spring", "boot", "の基", "基本");
+	}
+
+	@Test
+	void findsJapaneseArticlesRankedByRelevance() {
+		ArticleSearchIndex index = new ArticleSearchIndex();
+		index.put(article(1L, "はじめての記事", "これは最初の記事です。"));
+		index.put(article(2L, "Spring Boot学習", "Spring Bootの基本を学んでいます。"));
+		index.put(article(3L, "生JDBC実装", "JPAを使わずに生JDBCで実装してみました。"));
+
+		List<ArticleSearchHit> hits = index.search("実装", 10);
+
+		assertThat(hits).extracting(ArticleSearchHit::getId).containsExactly(3L);
+	}
+
+	@Test
+	void updatedAndRemovedArticlesAreReflected() {
+		ArticleSearchIndex index = new ArticleSearchIndex();
+		index.put(article(1L, "古いタイトル", "本文"));
+		index.put(article(1L, "新しいタイトル", "本文"));
+		index.put(article(2L, "削除する記事", "本文"));
+		index.remove(2L);
+
+		assertThat(index.search("古い", 10)).isEmpty();
+		assertThat(index.search("新しい", 10)).extracting(ArticleSearchHit::getTitle).containsExactly("新しいタイトル");
+		assertThat(index.search("削除", 10)).isEmpty();
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	@Test
+	void documentFrequencyExcludesRemovedAndUpdatedArticles() {
+		ArticleSearchIndex onlyFirst = new ArticleSearchIndex();
+		onlyFirst.put(article(1L, "検索の記事", "本文"));
+		onlyFirst.put(article(2L, "別の話題", "本文"));
+		double expected = onlyFirst.search("検索", 10).get(0).getScore();
+
+		// 2件目が「検索」を含まなくなった・3件目が削除された後は、1件目だけが含む場合と同じスコアになる
+		ArticleSearchIndex index = new ArticleSearchIndex();
+		index.put(article(1L, "検索の記事", "本文"));
+		index.put(article(2L, "検索の記事", "本文"));
+		index.put(article(3L, "検索の記事", "本文"));
+		index.put(article(2L, "別の話題", "本文"));
+		index.remove(3L);
+
+		assertThat(index.search("検索", 10)).singleElement()
+				.satisfies(hit -> assertThat(hit.getScore()).isEqualTo(expected));
+	}
+
+	@Test
+	void ignoresUpdatesThatArriveOutOfOrder() {
+		LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+		ArticleSearchIndex index = new ArticleSearchIndex();
+		index.put(article(1L, "新しいタイトル", "本文", updatedAt.plusSeconds(1)));
+		index.put(article(1L, "古いタイトル", "本文", updatedAt));
+		index.put(article(2L, "削除した記事", "本文", updatedAt));
+		index.remove(2L);
+		index.put(article(2L, "削除した記事", "本文", updatedAt.plusSeconds(1)));
+
+		assertThat(index.search("タイトル", 10)).extracting(ArticleSearchHit::getTitle).containsExactly("新しいタイトル");
+		assertThat(index.search("削除", 10)).isEmpty();
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	private Article article(Long id, String title, String content, LocalDateTime updatedAt) {
+		return new Article(id, title, content, updatedAt, updatedAt);
+	}
+
+	private Article article(Long id, String title, String content) {
+		Article article = new Article(title, content);
+		article.setId(id);
+		return article;
+	}
+}
@@ -0,0 +1,42 @@
+package com.example.simple_spring_rest_api.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ScoreAccumulatorTest {
+
+	@Test
+	void sumsScoresPerDocumentInInsertionOrder() {
+		ScoreAccumulator scores = new ScoreAccumulator(3);
+
+		scores.add(1_000_000, 1.0);
+		scores.add(7, 0.5);
+		scores.add(1_000_000, 2.0);
+		scores.add(42, 0.25);
+
+		assertThat(scores.size()).isEqualTo(3);
+		assertThat(scores.docAt(0)).isEqualTo(1_000_000);
+		assertThat(scores.scoreAt(0)).isEqualTo(3.0);
+		assertThat(scores.docAt(1)).isEqualTo(7);
+		assertThat(scores.docAt(2)).isEqualTo(42);
+	}
+
+	@Test
+	void holdsAsManyDocumentsAsRequestedWithCollisions() {
+		int docs = 10_000;
+		ScoreAccumulator scores = new ScoreAccumulator(docs);
+
+		for (int doc = 0; doc < docs; doc++) {
+			scores.add(doc * 1024, 1.0);
+			scores.add(doc * 1024, 1.0);
+		}
+
+		assertThat(scores.size()).isEqualTo(docs);
+		for (int i = 0; i < docs; i++) {
+			assertThat(scores.docAt(i)).isEqualTo(i * 1024);
+			assertThat(scores.scoreAt(i)).isEqualTo(2.0);
+		}
+	}
+
+}
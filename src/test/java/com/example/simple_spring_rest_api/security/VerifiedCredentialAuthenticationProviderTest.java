@@ -0,0 +1,129 @@
+package com.example.simple_spring_rest_api.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class VerifiedCredentialAuthenticationProviderTest {
+
+	// usersテーブルの代わり（変更は UserDetailsServiceImpl#evictUser を呼び出した後の状態に相当する）
+	private final Map<String, UserDetails> users = new ConcurrentHashMap<>();
+
+	// BCryptでの照合の回数
+	private final AtomicInteger passwordChecks = new AtomicInteger();
+
+	private final PasswordEncoder passwordEncoder = new CountingPasswordEncoder(new BCryptPasswordEncoder(4));
+
+	private final VerifiedCredentialAuthenticationProvider provider = new VerifiedCredentialAuthenticationProvider(
+			this::loadUser, passwordEncoder, 100, Duration.ofMinutes(1));
+
+	@Test
+	void skipsPasswordCheckOnCacheHit() {
+		putUser("alice", "password");
+
+		Authentication first = provider.authenticate(token("alice", "password"));
+		Authentication second = provider.authenticate(token("alice", "password"));
+
+		assertThat(first.isAuthenticated()).isTrue();
+		assertThat(second.isAuthenticated()).isTrue();
+		assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+		assertThat(passwordChecks).hasValue(1);
+		assertThat(provider.getSkippedPasswordCheckCount()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsOldPasswordAfterPasswordChange() {
+		putUser("alice", "old-password");
+		provider.authenticate(token("alice", "old-password"));
+
+		putUser("alice", "new-password");
+
+		assertThatThrownBy(() -> provider.authenticate(token("alice", "old-password")))
+				.isInstanceOf(BadCredentialsException.class);
+		assertThat(provider.authenticate(token("alice", "new-password")).isAuthenticated()).isTrue();
+		assertThat(provider.getSkippedPasswordCheckCount()).isZero();
+	}
+
+	@Test
+	void rejectsDeletedUser() {
+		putUser("alice", "password");
+		provider.authenticate(token("alice", "password"));
+
+		users.remove("alice");
+
+		assertThatThrownBy(() -> provider.authenticate(token("alice", "password")))
+				.isInstanceOf(BadCredentialsException.class);
+		assertThat(provider.getSkippedPasswordCheckCount()).isZero();
+	}
+
+	@Test
+	void rejectsLockedAccountOnCacheHit() {
+		putUser("alice", "password");
+		provider.authenticate(token("alice", "password"));
+
+		// パスワードは変えずにロックする
+		UserDetails current = users.get("alice");
+		users.put("alice", User.withUserDetails(current).accountLocked(true).build());
+
+		assertThatThrownBy(() -> provider.authenticate(token("alice", "password")))
+				.isInstanceOf(LockedException.class);
+		assertThat(passwordChecks).hasValue(1);
+		assertThat(provider.getSkippedPasswordCheckCount()).isZero();
+	}
+
+	private UserDetails loadUser(String username) {
+		UserDetails user = users.get(username);
+		if (user == null) {
+			throw new UsernameNotFoundException("ユーザーが見つかりませんでした: " + username);
+		}
+		// UserDetailsServiceImpl と同じく、毎回新しいインスタンスを返す
+		return User.withUserDetails(user).build();
+	}
+
+	private void putUser(String username, String password) {
+		users.put(username, User.withUsername(username)
+				.password(passwordEncoder.encode(password))
+				.roles("USER")
+				.build());
+	}
+
+	private static UsernamePasswordAuthenticationToken token(String username, String password) {
+		return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+	}
+
+	private class CountingPasswordEncoder implements PasswordEncoder {
+
+		private final PasswordEncoder delegate;
+
+		CountingPasswordEncoder(PasswordEncoder delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			return delegate.encode(rawPassword);
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			passwordChecks.incrementAndGet();
+			return delegate.matches(rawPassword, encodedPassword);
+		}
+	}
+
+}
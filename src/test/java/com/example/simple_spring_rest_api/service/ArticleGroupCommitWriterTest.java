@@ -0,0 +1,223 @@
+package com.example.simple_spring_rest_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.example.simple_spring_rest_api.controller.ArticleExceptionHandler;
+import com.example.simple_spring_rest_api.domain.Article;
+import com.example.simple_spring_rest_api.repository.ArticleRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ArticleGroupCommitWriterTest {
+
+	private final FakeArticleRepository repository = new FakeArticleRepository();
+	private ArticleGroupCommitWriter writer;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		repository.release.countDown();
+		if (writer != null) {
+			writer.stop();
+		}
+	}
+
+	@Test
+	void queuedWritesAreSavedInOneBatch() throws Exception {
+		// 件数が上限に達するまで待つ（max-linger を長くして1回にまとまるようにする）
+		writer = start(10, 5, Duration.ofSeconds(10), Duration.ofSeconds(5));
+
+		List<CompletableFuture<Article>> futures = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			futures.add(writer.submit(new Article("記事" + i, "本文")));
+		}
+
+		for (CompletableFuture<Article> future : futures) {
+			assertThat(future.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+		}
+		assertThat(repository.batchSizes).containsExactly(5);
+	}
+
+	@Test
+	void rejectsWhenQueueIsFull() throws Exception {
+		writer = start(1, 1, Duration.ZERO, Duration.ofSeconds(5));
+		repository.block();
+
+		// 1件目は保存中で止まり、2件目でキューが満杯になる
+		writer.submit(new Article("保存中", "本文"));
+		assertThat(repository.entered.await(5, TimeUnit.SECONDS)).isTrue();
+		writer.submit(new Article("待機中", "本文"));
+
+		assertThatThrownBy(() -> writer.submit(new Article("拒否", "本文")))
+				.isInstanceOfSatisfying(WriteQueueFullException.class, e -> {
+					assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(1));
+					assertThat(new ArticleExceptionHandler().handleWriteQueueFull(e).getStatusCode())
+							.isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+				});
+	}
+
+	@Test
+	void failingRowDoesNotFailTheRestOfTheBatch() throws Exception {
+		writer = start(10, 3, Duration.ofSeconds(10), Duration.ofSeconds(5));
+		repository.failTitle = "不正";
+
+		CompletableFuture<Article> first = writer.submit(new Article("記事1", "本文"));
+		CompletableFuture<Article> bad = writer.submit(new Article("不正", "本文"));
+		CompletableFuture<Article> third = writer.submit(new Article("記事3", "本文"));
+
+		assertThat(first.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+		assertThat(third.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+		assertThatThrownBy(() -> bad.get(5, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasRootCauseMessage("保存に失敗しました: 不正");
+		assertThat(repository.savedTitles).containsExactly("記事1", "記事3");
+	}
+
+	@Test
+	void timedOutWriteIsNeverSaved() throws Exception {
+		writer = start(10, 1, Duration.ZERO, Duration.ofMillis(200));
+		repository.block();
+
+		CompletableFuture<Article> first = writer.submit(new Article("保存中", "本文"));
+		assertThat(repository.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// 保存が始まる前にタイムアウトした記事は取り消され、キューから取り除かれる
+		assertThatThrownBy(() -> writer.write(new Article("タイムアウト", "本文")))
+				.hasMessage("記事の保存がタイムアウトしました");
+
+		repository.release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+		assertThat(writer.write(new Article("後続", "本文")).getId()).isNotNull();
+		assertThat(repository.savedTitles).containsExactly("保存中", "後続");
+	}
+
+	@Test
+	void cancelledFutureIsSkipped() throws Exception {
+		writer = start(10, 1, Duration.ZERO, Duration.ofSeconds(5));
+		repository.block();
+
+		writer.submit(new Article("保存中", "本文"));
+		assertThat(repository.entered.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<Article> cancelled = writer.submit(new Article("キャンセル", "本文"));
+		cancelled.cancel(false);
+
+		repository.release.countDown();
+		assertThat(writer.write(new Article("後続", "本文")).getId()).isNotNull();
+		assertThat(repository.savedTitles).containsExactly("保存中", "後続");
+	}
+
+	@Test
+	void writeTimesOutBeforeSaveStarts() throws Exception {
+		writer = start(10, 1, Duration.ZERO, Duration.ofMillis(200));
+		repository.block();
+
+		writer.submit(new Article("保存中", "本文"));
+		assertThat(repository.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// 1件目の保存が終わらないため、2件目は保存が始まる前にタイムアウトして取り消される
+		assertThatThrownBy(() -> writer.write(new Article("タイムアウト", "本文")))
+				.isInstanceOfSatisfying(WriteTimeoutException.class, e -> {
+					assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(1));
+					assertThat(new ArticleExceptionHandler().handleWriteTimeout(e).getStatusCode())
+							.isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+				});
+
+		repository.release.countDown();
+		assertThat(writer.write(new Article("後続", "本文")).getId()).isNotNull();
+		assertThat(repository.savedTitles).containsExactly("保存中", "後続");
+	}
+
+	@Test
+	void writeWaitsForSaveThatAlreadyStarted() throws Exception {
+		writer = start(10, 1, Duration.ZERO, Duration.ofMillis(200));
+		repository.block();
+
+		// 保存が始まった後にタイムアウトした場合は、コミットされた記事を返す
+		CompletableFuture.runAsync(() -> {
+			try {
+				repository.entered.await(5, TimeUnit.SECONDS);
+				Thread.sleep(400);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			repository.release.countDown();
+		});
+
+		assertThat(writer.write(new Article("保存中", "本文")).getId()).isNotNull();
+		assertThat(repository.savedTitles).containsExactly("保存中");
+	}
+
+	private ArticleGroupCommitWriter start(int queueCapacity, int maxBatchSize, Duration maxLinger,
+			Duration writeTimeout) {
+		ArticleGroupCommitWriter writer = new ArticleGroupCommitWriter(repository, new SimpleMeterRegistry(),
+				true, queueCapacity, maxBatchSize, maxLinger, writeTimeout, Duration.ofSeconds(1));
+		writer.start();
+		return writer;
+	}
+
+	/**
+	 * 保存した記事を記録するRepository（DBには接続しない）
+	 */
+	private static final class FakeArticleRepository extends ArticleRepository {
+
+		private final AtomicLong nextId = new AtomicLong(1);
+		private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+		private final List<String> savedTitles = new CopyOnWriteArrayList<>();
+		private final CountDownLatch entered = new CountDownLatch(1);
+		private volatile CountDownLatch release = new CountDownLatch(0);
+		private volatile String failTitle;
+
+		private FakeArticleRepository() {
+			super(null, 1000);
+		}
+
+		private void block() {
+			release = new CountDownLatch(1);
+		}
+
+		@Override
+		public List<Article> saveBatch(List<Article> articles) {
+			batchSizes.add(articles.size());
+			entered.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			for (Article article : articles) {
+				if (article.getTitle().equals(failTitle)) {
+					throw new RuntimeException("保存に失敗しました: " + article.getTitle());
+				}
+			}
+			for (Article article : articles) {
+				save(article);
+			}
+			return articles;
+		}
+
+		@Override
+		public Article save(Article article) {
+			if (article.getTitle().equals(failTitle)) {
+				throw new RuntimeException("保存に失敗しました: " + article.getTitle());
+			}
+			article.setId(nextId.getAndIncrement());
+			savedTitles.add(article.getTitle());
+			return article;
+		}
+	}
+
+}
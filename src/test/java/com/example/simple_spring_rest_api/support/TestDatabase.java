@@ -0,0 +1,58 @@
+package com.example.simple_spring_rest_api.support;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Base64;
+
+import javax.sql.DataSource;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * テスト用のデータ投入ユーティリティ（application-test.properties の組み込みH2向け）
+ */
+public final class TestDatabase {
+
+	public static final String USERNAME = "test-user";
+	public static final String PASSWORD = "test-password";
+
+	private TestDatabase() {
+	}
+
+	/**
+	 * 各テストクラス専用の組み込みH2のURL
+	 * @param name DB名
+	 * @return JDBC URL
+	 */
+	public static String jdbcUrl(String name) {
+		return "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+	}
+
+	/**
+	 * テスト用のユーザーを作成（既に存在する場合は何もしない）
+	 * @param dataSource データソース
+	 * @param passwordEncoder パスワードのエンコーダー
+	 */
+	public static void ensureUser(DataSource dataSource, PasswordEncoder passwordEncoder) throws SQLException {
+		String sql = "INSERT INTO users (username, password, role) SELECT ?, ?, 'ROLE_USER'"
+				+ " WHERE NOT EXISTS (SELECT 1 FROM users WHERE username = ?)";
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement(sql)) {
+			statement.setString(1, USERNAME);
+			statement.setString(2, passwordEncoder.encode(PASSWORD));
+			statement.setString(3, USERNAME);
+			statement.executeUpdate();
+		}
+	}
+
+	/**
+	 * テスト用のユーザーの Authorization ヘッダー（Basic認証）
+	 * @return ヘッダーの値
+	 */
+	public static String basicAuthorization() {
+		return "Basic " + Base64.getEncoder()
+				.encodeToString((USERNAME + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+	}
+}